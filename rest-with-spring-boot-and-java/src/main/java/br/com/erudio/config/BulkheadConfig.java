@@ -0,0 +1,149 @@
+package br.com.erudio.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.services.BulkheadExecutors;
+import br.com.erudio.util.TrafficClass;
+
+@Configuration
+@ConfigurationProperties(prefix = "bulkhead")
+public class BulkheadConfig {
+
+	private boolean enabled = true;
+
+	private Partition auth = new Partition(8, 100, 3);
+
+	private Partition crud = new Partition(100, 200, 10);
+
+	private Partition file = new Partition(32, 32, 4, Duration.ofMinutes(30));
+
+	/**
+	 * Replaces Boot's DispatcherServlet with one that serves each request on
+	 * the executor of its traffic class, configured as Boot would.
+	 */
+	@Bean(name = DispatcherServletAutoConfiguration.DEFAULT_DISPATCHER_SERVLET_BEAN_NAME)
+	@ConditionalOnProperty(name = "bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+	public DispatcherServlet dispatcherServlet(WebMvcProperties webMvcProperties, BulkheadExecutors executors,
+			ObjectMapper objectMapper, RequestDeadlineConfig deadlineConfig) {
+		var dispatcherServlet = new BulkheadDispatcherServlet(executors, objectMapper, this, deadlineConfig.getMaxTimeout());
+		dispatcherServlet.setDispatchOptionsRequest(webMvcProperties.isDispatchOptionsRequest());
+		dispatcherServlet.setDispatchTraceRequest(webMvcProperties.isDispatchTraceRequest());
+		dispatcherServlet.setPublishEvents(webMvcProperties.isPublishRequestHandledEvents());
+		dispatcherServlet.setEnableLoggingRequestDetails(webMvcProperties.isLogRequestDetails());
+		return dispatcherServlet;
+	}
+
+	public Partition get(TrafficClass trafficClass) {
+		return switch (trafficClass) {
+			case AUTH -> auth;
+			case CRUD -> crud;
+			case FILE -> file;
+		};
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public Partition getAuth() {
+		return auth;
+	}
+
+	public void setAuth(Partition auth) {
+		this.auth = auth;
+	}
+
+	public Partition getCrud() {
+		return crud;
+	}
+
+	public void setCrud(Partition crud) {
+		this.crud = crud;
+	}
+
+	public Partition getFile() {
+		return file;
+	}
+
+	public void setFile(Partition file) {
+		this.file = file;
+	}
+
+	public static class Partition {
+
+		/** Threads serving the requests of the class. */
+		private int threads;
+
+		/** Requests waiting for a thread; beyond that they are rejected with 503. */
+		private int queueCapacity;
+
+		/** Connections of the class, a pool of its own. */
+		private int poolSize;
+
+		/**
+		 * Longest a request of the class may run once a thread picked it up;
+		 * deadline.max-timeout when not set.
+		 */
+		private Duration timeout;
+
+		public Partition() {
+		}
+
+		public Partition(int threads, int queueCapacity, int poolSize) {
+			this.threads = threads;
+			this.queueCapacity = queueCapacity;
+			this.poolSize = poolSize;
+		}
+
+		public Partition(int threads, int queueCapacity, int poolSize, Duration timeout) {
+			this(threads, queueCapacity, poolSize);
+			this.timeout = timeout;
+		}
+
+		public int getThreads() {
+			return threads;
+		}
+
+		public void setThreads(int threads) {
+			this.threads = threads;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public int getPoolSize() {
+			return poolSize;
+		}
+
+		public void setPoolSize(int poolSize) {
+			this.poolSize = poolSize;
+		}
+
+		public Duration getTimeout() {
+			return timeout;
+		}
+
+		public void setTimeout(Duration timeout) {
+			this.timeout = timeout;
+		}
+	}
+}
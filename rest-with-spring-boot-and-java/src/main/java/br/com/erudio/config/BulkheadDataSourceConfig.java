@@ -0,0 +1,54 @@
+package br.com.erudio.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import br.com.erudio.util.TrafficClass;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Splits the connection pool into one Hikari pool per traffic class, sized by
+ * bulkhead.&lt;class&gt;.pool-size, so uploads or sign ins holding all their
+ * connections cannot make a person read wait for one. The remaining
+ * spring.datasource.hikari settings apply to every pool, and each publishes
+ * the hikaricp.* metrics under its own pool tag.
+ */
+@Configuration
+@ConditionalOnProperty(name = "bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadDataSourceConfig {
+
+	@Bean
+	public DataSource dataSource(DataSourceProperties properties, BulkheadConfig bulkheadConfig, Environment environment,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		var registry = meterRegistry.getIfAvailable();
+		Map<Object, Object> pools = new HashMap<>();
+		for (TrafficClass trafficClass : TrafficClass.values()) {
+			HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+			Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+			pool.setPoolName(trafficClass.key());
+			pool.setMaximumPoolSize(bulkheadConfig.get(trafficClass).getPoolSize());
+			if (pool.getMinimumIdle() > pool.getMaximumPoolSize()) {
+				pool.setMinimumIdle(pool.getMaximumPoolSize());
+			}
+			if (registry != null) {
+				pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+			}
+			pools.put(trafficClass, pool);
+		}
+		return new TrafficClassRoutingDataSource(pools, (DataSource) pools.get(TrafficClass.CRUD));
+	}
+}
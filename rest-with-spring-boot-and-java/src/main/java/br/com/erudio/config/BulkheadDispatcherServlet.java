@@ -0,0 +1,261 @@
+package br.com.erudio.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.exceptions.ExceptionResponse;
+import br.com.erudio.services.BulkheadExecutors;
+import br.com.erudio.util.RequestDeadline;
+import br.com.erudio.util.TrafficClass;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves each auth, CRUD and file request on the executor of its class
+ * instead of the Tomcat worker that received it: the request is put in async
+ * mode and the worker returns at once, so a burst of one class queues on its
+ * own executor, or is rejected with 503, without holding the threads the
+ * other classes need. The hand-off happens here rather than in a filter
+ * because Tomcat releases the filter chain as soon as the worker returns.
+ *
+ * The filters have already run on the worker; the security context they
+ * established is carried over to the executor thread. A handler that goes
+ * async itself (StreamingResponseBody) reuses the async context started here.
+ * File downloads stay on the worker, bound to the file class: they are sent
+ * with sendfile, which Tomcat does not do for async requests.
+ *
+ * No client waits longer than deadline.max-timeout, so a request still queued
+ * by then is answered 503 and skipped. Once a thread picks it up, the request
+ * may run for the timeout of its class. The time it was received is kept for
+ * the request deadline, which includes the wait in the queue.
+ */
+public class BulkheadDispatcherServlet extends DispatcherServlet {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final Logger logger = Logger.getLogger(BulkheadDispatcherServlet.class.getName());
+
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+	private final transient BulkheadExecutors executors;
+	private final transient ObjectMapper objectMapper;
+	private final transient BulkheadConfig config;
+	private final Duration maxTimeout;
+
+	public BulkheadDispatcherServlet(BulkheadExecutors executors, ObjectMapper objectMapper, BulkheadConfig config,
+			Duration maxTimeout) {
+		this.executors = executors;
+		this.objectMapper = objectMapper;
+		this.config = config;
+		this.maxTimeout = maxTimeout;
+	}
+
+	@Override
+	protected void service(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+		if (request.getDispatcherType() == DispatcherType.REQUEST) {
+			request.setAttribute(RequestDeadline.RECEIVED_AT, System.nanoTime());
+		}
+		TrafficClass trafficClass = request.getDispatcherType() == DispatcherType.REQUEST && request.isAsyncSupported()
+				? TrafficClass.of(UrlPathHelper.defaultInstance.getLookupPathForRequest(request))
+				: null;
+		if (trafficClass == null) {
+			super.service(request, response);
+			return;
+		}
+		if (trafficClass == TrafficClass.FILE && isDownload(request)) {
+			// Tomcat only uses sendfile for requests that are not async, and the
+			// transfer runs on its poller anyway; the worker is held briefly.
+			TrafficClass.set(trafficClass);
+			try {
+				super.service(request, response);
+			} finally {
+				TrafficClass.clear();
+			}
+			return;
+		}
+
+		var bulkheadRequest = new BulkheadRequest(request);
+		AsyncContext async = request.startAsync(bulkheadRequest, response);
+		long handedOffAt = System.nanoTime();
+		bulkheadRequest.async = async;
+		bulkheadRequest.defaultTimeout = async.getTimeout();
+		async.setTimeout(maxTimeout.toMillis());
+		async.addListener(new QueueTimeout(bulkheadRequest, response, trafficClass));
+		var securityContext = SecurityContextHolder.getContext();
+
+		boolean accepted = executors.execute(trafficClass, () -> {
+			// Re-armed before the request is claimed, so the queue timeout
+			// cannot cut it off once it runs.
+			long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - handedOffAt);
+			try {
+				async.setTimeout(waitedMillis + handlingTimeout(trafficClass).toMillis());
+			} catch (IllegalStateException e) {
+				return;
+			}
+			if (!bulkheadRequest.claim()) {
+				// Answered by the queue timeout, or the client is gone.
+				return;
+			}
+			SecurityContextHolder.setContext(securityContext);
+			try {
+				super.service(bulkheadRequest, response);
+			} catch (Exception e) {
+				logger.log(Level.SEVERE, "Request failed on the " + trafficClass.key() + " bulkhead", e);
+				sendError(response);
+			} finally {
+				SecurityContextHolder.clearContext();
+				if (!bulkheadRequest.nested) {
+					complete(async);
+				}
+			}
+		});
+		if (!accepted) {
+			reject(request, response, "Too many " + trafficClass.key() + " requests in progress, please retry later!");
+			async.complete();
+		}
+	}
+
+	private Duration handlingTimeout(TrafficClass trafficClass) {
+		Duration timeout = config.get(trafficClass).getTimeout();
+		return timeout != null ? timeout : maxTimeout;
+	}
+
+	private static boolean isDownload(HttpServletRequest request) {
+		return (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))
+				&& Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+	}
+
+	private static void sendError(HttpServletResponse response) {
+		if (!response.isCommitted()) {
+			try {
+				response.sendError(HttpStatus.INTERNAL_SERVER_ERROR.value());
+			} catch (IOException e) {
+				// The client is gone.
+			}
+		}
+	}
+
+	private static void complete(AsyncContext async) {
+		try {
+			async.complete();
+		} catch (IllegalStateException e) {
+			// Ran past its timeout; the container has completed the request.
+		}
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response, String message) throws IOException {
+		response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+		response.setHeader("Retry-After", "1");
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		var body = new ExceptionResponse(new Date(), message, "uri=" + request.getRequestURI());
+		objectMapper.writeValue(response.getOutputStream(), body);
+	}
+
+	/**
+	 * Answers 503 for a request that is still waiting for a thread when the
+	 * async timeout fires, and drops one whose client went away while queued.
+	 * A request that is already running is left to the container.
+	 */
+	private class QueueTimeout implements AsyncListener {
+
+		private final BulkheadRequest request;
+		private final HttpServletResponse response;
+		private final TrafficClass trafficClass;
+
+		QueueTimeout(BulkheadRequest request, HttpServletResponse response, TrafficClass trafficClass) {
+			this.request = request;
+			this.response = response;
+			this.trafficClass = trafficClass;
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) throws IOException {
+			if (request.claim()) {
+				reject(request, response, "Waited too long for a " + trafficClass.key() + " thread, please retry later!");
+				event.getAsyncContext().complete();
+			}
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			request.claim();
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+	}
+
+	/**
+	 * Hides the async mode started for the hand-off from the application, and
+	 * hands the same async context to a handler that starts async processing
+	 * itself, with the container's default timeout back in place.
+	 */
+	private static class BulkheadRequest extends HttpServletRequestWrapper {
+
+		private final AtomicBoolean claimed = new AtomicBoolean();
+		private AsyncContext async;
+		private long defaultTimeout;
+		private volatile boolean nested;
+
+		BulkheadRequest(HttpServletRequest request) {
+			super(request);
+		}
+
+		/** Taken either by the thread that serves the request or by the queue timeout. */
+		boolean claim() {
+			return claimed.compareAndSet(false, true);
+		}
+
+		@Override
+		public AsyncContext startAsync() {
+			nested = true;
+			async.setTimeout(defaultTimeout);
+			return async;
+		}
+
+		@Override
+		public AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+			return startAsync();
+		}
+
+		@Override
+		public boolean isAsyncStarted() {
+			return nested && super.isAsyncStarted();
+		}
+
+		@Override
+		public AsyncContext getAsyncContext() {
+			if (!nested) {
+				throw new IllegalStateException("Async processing has not been started");
+			}
+			return async;
+		}
+	}
+}
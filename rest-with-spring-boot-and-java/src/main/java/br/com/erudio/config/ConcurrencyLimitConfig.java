@@ -0,0 +1,117 @@
+package br.com.erudio.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "concurrency")
+public class ConcurrencyLimitConfig {
+
+	private boolean enabled = true;
+
+	/** Share of the API limit that only reads may use, so writes are shed first. */
+	private double readReserve = 0.25;
+
+	private Duration retryAfter = Duration.ofSeconds(1);
+
+	/** Long transfers with their own admission control, kept out of the latency samples. */
+	private List<String> excludedPaths = new ArrayList<>(List.of("/api/file/**"));
+
+	private Partition api = new Partition(20, 4, 200);
+
+	private Partition signin = new Partition(4, 1, 32);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public double getReadReserve() {
+		return readReserve;
+	}
+
+	public void setReadReserve(double readReserve) {
+		this.readReserve = readReserve;
+	}
+
+	public Duration getRetryAfter() {
+		return retryAfter;
+	}
+
+	public void setRetryAfter(Duration retryAfter) {
+		this.retryAfter = retryAfter;
+	}
+
+	public List<String> getExcludedPaths() {
+		return excludedPaths;
+	}
+
+	public void setExcludedPaths(List<String> excludedPaths) {
+		this.excludedPaths = excludedPaths;
+	}
+
+	public Partition getApi() {
+		return api;
+	}
+
+	public void setApi(Partition api) {
+		this.api = api;
+	}
+
+	public Partition getSignin() {
+		return signin;
+	}
+
+	public void setSignin(Partition signin) {
+		this.signin = signin;
+	}
+
+	public static class Partition {
+
+		private int initialLimit;
+
+		private int minLimit;
+
+		private int maxLimit;
+
+		public Partition() {
+		}
+
+		public Partition(int initialLimit, int minLimit, int maxLimit) {
+			this.initialLimit = initialLimit;
+			this.minLimit = minLimit;
+			this.maxLimit = maxLimit;
+		}
+
+		public int getInitialLimit() {
+			return initialLimit;
+		}
+
+		public void setInitialLimit(int initialLimit) {
+			this.initialLimit = initialLimit;
+		}
+
+		public int getMinLimit() {
+			return minLimit;
+		}
+
+		public void setMinLimit(int minLimit) {
+			this.minLimit = minLimit;
+		}
+
+		public int getMaxLimit() {
+			return maxLimit;
+		}
+
+		public void setMaxLimit(int maxLimit) {
+			this.maxLimit = maxLimit;
+		}
+	}
+}
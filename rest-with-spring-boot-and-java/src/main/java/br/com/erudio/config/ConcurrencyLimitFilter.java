@@ -0,0 +1,145 @@
+package br.com.erudio.config;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.exceptions.ExceptionResponse;
+import br.com.erudio.services.ConcurrencyLimiter;
+import br.com.erudio.services.ConcurrencyLimiter.Partition;
+import br.com.erudio.services.ConcurrencyLimiter.Priority;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sheds /api/** and /auth/signin requests above the adaptive concurrency
+ * limit with 503 and Retry-After. It runs before the JWT filter, so a shed
+ * request costs neither a token validation nor a user lookup.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+	private static final String SIGNIN_PATH = "/auth/signin";
+
+	private final PathMatcher pathMatcher = new AntPathMatcher();
+
+	private final ConcurrencyLimiter limiter;
+	private final ObjectMapper objectMapper;
+	private final List<String> excludedPaths;
+	private final String retryAfter;
+
+	public ConcurrencyLimitFilter(ConcurrencyLimiter limiter, ConcurrencyLimitConfig config, ObjectMapper objectMapper) {
+		this.limiter = limiter;
+		this.objectMapper = objectMapper;
+		this.excludedPaths = config.getExcludedPaths();
+		this.retryAfter = String.valueOf(Math.max(1, config.getRetryAfter().toSeconds()));
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		String path = UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+		if (HttpMethod.OPTIONS.matches(request.getMethod())) {
+			return true;
+		}
+		if (path.equals(SIGNIN_PATH)) {
+			return false;
+		}
+		if (!pathMatcher.match("/api/**", path)) {
+			return true;
+		}
+		return excludedPaths.stream().anyMatch(pattern -> pathMatcher.match(pattern, path));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String path = UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+		Partition partition = path.equals(SIGNIN_PATH) ? Partition.SIGNIN : Partition.API;
+		String method = request.getMethod();
+		Priority priority = HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) ? Priority.READ : Priority.WRITE;
+
+		var permit = limiter.tryAcquire(partition, priority);
+		if (permit == null) {
+			reject(request, response);
+			return;
+		}
+		boolean async = false;
+		try {
+			filterChain.doFilter(request, response);
+			if (request.isAsyncStarted()) {
+				// Served on a bulkhead executor: the request ends when the async context completes.
+				request.getAsyncContext().addListener(new PermitReleasingListener(permit, response));
+				async = true;
+			}
+		} finally {
+			if (!async) {
+				permit.release(isDropped(response));
+			}
+		}
+	}
+
+	private static boolean isDropped(HttpServletResponse response) {
+		return response.getStatus() == HttpStatus.GATEWAY_TIMEOUT.value();
+	}
+
+	private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+		response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+		response.setHeader("Retry-After", retryAfter);
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		var body = new ExceptionResponse(new Date(), "The server is overloaded, please retry later!",
+				"uri=" + request.getRequestURI());
+		objectMapper.writeValue(response.getOutputStream(), body);
+	}
+
+	private static class PermitReleasingListener implements AsyncListener {
+
+		private final AtomicBoolean released = new AtomicBoolean();
+		private final ConcurrencyLimiter.Permit permit;
+		private final HttpServletResponse response;
+
+		PermitReleasingListener(ConcurrencyLimiter.Permit permit, HttpServletResponse response) {
+			this.permit = permit;
+			this.response = response;
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			release(isDropped(response));
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			release(true);
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			release(false);
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+			event.getAsyncContext().addListener(this);
+		}
+
+		private void release(boolean dropped) {
+			if (released.compareAndSet(false, true)) {
+				permit.release(dropped);
+			}
+		}
+	}
+}
@@ -0,0 +1,145 @@
+package br.com.erudio.config;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import br.com.erudio.util.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Applies the deadline of the current request to every statement executed
+ * through this DataSource, whatever repository method issued it: the JDBC
+ * query timeout is set to the time left, so MySQL kills the query even if this
+ * JVM is stuck, and the statement is registered with the deadline, which
+ * cancels it at the exact deadline. A statement that would start after the
+ * deadline is not sent at all. All three surface as SQLTimeoutException,
+ * which Spring translates to a QueryTimeoutException, and are counted in
+ * db.statements.cancelled.
+ */
+public class DeadlineAwareDataSource extends DelegatingDataSource implements AutoCloseable {
+
+	private static final String SQL_STATE_TIMEOUT = "HYT00";
+
+	private final ObjectProvider<MeterRegistry> meterRegistry;
+	private volatile Counter cancelled;
+
+	public DeadlineAwareDataSource(DataSource targetDataSource, ObjectProvider<MeterRegistry> meterRegistry) {
+		super(targetDataSource);
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		return connection(super.getConnection());
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return connection(super.getConnection(username, password));
+	}
+
+	/**
+	 * Closes the pool behind this DataSource on shutdown, which Spring would
+	 * otherwise not find on the wrapper.
+	 */
+	@Override
+	public void close() throws Exception {
+		if (getTargetDataSource() instanceof AutoCloseable closeable) {
+			closeable.close();
+		}
+	}
+
+	private Connection connection(Connection target) {
+		return proxy(Connection.class, target, (proxy, method, args) -> {
+			Object result = invoke(target, method, args);
+			if (result instanceof Statement statement && method.getReturnType().isInterface()) {
+				return statement(method.getReturnType(), statement);
+			}
+			return result;
+		});
+	}
+
+	private Object statement(Class<?> type, Statement target) {
+		return proxy(type, target, (proxy, method, args) -> {
+			var deadline = RequestDeadline.current();
+			if (deadline == null || !method.getName().startsWith("execute")) {
+				return invoke(target, method, args);
+			}
+			long remaining = deadline.remainingMillis();
+			if (remaining <= 0) {
+				throw timeout(null);
+			}
+			int seconds = (int) Math.max(1, (remaining + 999) / 1000);
+			int current = target.getQueryTimeout();
+			if (current == 0 || current > seconds) {
+				target.setQueryTimeout(seconds);
+			}
+			deadline.register(target);
+			try {
+				return invoke(target, method, args);
+			} catch (SQLTimeoutException e) {
+				countCancelled();
+				throw e;
+			} catch (SQLException e) {
+				if (deadline.isExpired()) {
+					throw timeout(e);
+				}
+				throw e;
+			} finally {
+				deadline.unregister(target);
+			}
+		});
+	}
+
+	private SQLTimeoutException timeout(SQLException cause) {
+		countCancelled();
+		return new SQLTimeoutException("The request deadline was exceeded", SQL_STATE_TIMEOUT, cause);
+	}
+
+	private void countCancelled() {
+		var counter = cancelled;
+		if (counter == null) {
+			var registry = meterRegistry.getIfAvailable();
+			if (registry == null) {
+				return;
+			}
+			counter = Counter.builder("db.statements.cancelled")
+					.description("Statements cancelled or not sent because the request deadline was exceeded")
+					.tag("reason", "deadline")
+					.register(registry);
+			cancelled = counter;
+		}
+		counter.increment();
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(DeadlineAwareDataSource.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> switch (method.getName()) {
+					case "equals" -> proxy == args[0];
+					case "hashCode" -> System.identityHashCode(proxy);
+					case "toString" -> "Deadline aware " + target;
+					default -> handler.invoke(proxy, method, args);
+				});
+	}
+}
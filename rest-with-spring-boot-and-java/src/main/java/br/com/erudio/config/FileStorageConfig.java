@@ -1,15 +1,60 @@
 package br.com.erudio.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 @Configuration
 @ConfigurationProperties(prefix = "file")
 public class FileStorageConfig {
 
-	
+
 	private String uploadDir;
 
+	private DataSize bufferSize = DataSize.ofMegabytes(1);
+
+	private FsyncPolicy fsyncPolicy = FsyncPolicy.FAST;
+
+	private Layout layout = Layout.FLAT;
+
+	private Duration gcInterval = Duration.ofMinutes(10);
+
+	private DataSize maxUploadLength = DataSize.ofGigabytes(10);
+
+	private Duration uploadSessionTtl = Duration.ofHours(24);
+
+	private int ioThreads = 16;
+
+	private int maxConcurrentFilesPerRequest = 4;
+
+	private DataSize hotCacheSize = DataSize.ofMegabytes(64);
+
+	private DataSize hotCacheMaxFileSize = DataSize.ofKilobytes(256);
+
+	private DataSize maxInFlightUploadBytes = DataSize.ofGigabytes(2);
+
+	private DataSize minFreeSpace = DataSize.ofGigabytes(1);
+
+	private Duration uploadRetryAfter = Duration.ofSeconds(10);
+
+	private int compressionThreads = 2;
+
+	private DataSize compressionMinSize = DataSize.ofKilobytes(1);
+
+	private boolean tieringEnabled;
+
+	private Duration tieringIdlePeriod = Duration.ofDays(30);
+
+	private Duration tieringInterval = Duration.ofHours(1);
+
+	private String coldDir;
+
+	private Backend backend = Backend.LOCAL;
+
+	private S3 s3 = new S3();
+
 	public String getUploadDir() {
 		return uploadDir;
 	}
@@ -17,4 +62,287 @@ public class FileStorageConfig {
 	public void setUploadDir(String uploadDir) {
 		this.uploadDir = uploadDir;
 	}
+
+	public DataSize getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(DataSize bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+	public FsyncPolicy getFsyncPolicy() {
+		return fsyncPolicy;
+	}
+
+	public void setFsyncPolicy(FsyncPolicy fsyncPolicy) {
+		this.fsyncPolicy = fsyncPolicy;
+	}
+
+	public Layout getLayout() {
+		return layout;
+	}
+
+	public void setLayout(Layout layout) {
+		this.layout = layout;
+	}
+
+	public Duration getGcInterval() {
+		return gcInterval;
+	}
+
+	public void setGcInterval(Duration gcInterval) {
+		this.gcInterval = gcInterval;
+	}
+
+	public DataSize getMaxUploadLength() {
+		return maxUploadLength;
+	}
+
+	public void setMaxUploadLength(DataSize maxUploadLength) {
+		this.maxUploadLength = maxUploadLength;
+	}
+
+	public Duration getUploadSessionTtl() {
+		return uploadSessionTtl;
+	}
+
+	public void setUploadSessionTtl(Duration uploadSessionTtl) {
+		this.uploadSessionTtl = uploadSessionTtl;
+	}
+
+	public int getIoThreads() {
+		return ioThreads;
+	}
+
+	public void setIoThreads(int ioThreads) {
+		this.ioThreads = ioThreads;
+	}
+
+	public int getMaxConcurrentFilesPerRequest() {
+		return maxConcurrentFilesPerRequest;
+	}
+
+	public void setMaxConcurrentFilesPerRequest(int maxConcurrentFilesPerRequest) {
+		this.maxConcurrentFilesPerRequest = maxConcurrentFilesPerRequest;
+	}
+
+	public DataSize getHotCacheSize() {
+		return hotCacheSize;
+	}
+
+	public void setHotCacheSize(DataSize hotCacheSize) {
+		this.hotCacheSize = hotCacheSize;
+	}
+
+	public DataSize getHotCacheMaxFileSize() {
+		return hotCacheMaxFileSize;
+	}
+
+	public void setHotCacheMaxFileSize(DataSize hotCacheMaxFileSize) {
+		this.hotCacheMaxFileSize = hotCacheMaxFileSize;
+	}
+
+	public DataSize getMaxInFlightUploadBytes() {
+		return maxInFlightUploadBytes;
+	}
+
+	public void setMaxInFlightUploadBytes(DataSize maxInFlightUploadBytes) {
+		this.maxInFlightUploadBytes = maxInFlightUploadBytes;
+	}
+
+	public DataSize getMinFreeSpace() {
+		return minFreeSpace;
+	}
+
+	public void setMinFreeSpace(DataSize minFreeSpace) {
+		this.minFreeSpace = minFreeSpace;
+	}
+
+	public Duration getUploadRetryAfter() {
+		return uploadRetryAfter;
+	}
+
+	public void setUploadRetryAfter(Duration uploadRetryAfter) {
+		this.uploadRetryAfter = uploadRetryAfter;
+	}
+
+	public int getCompressionThreads() {
+		return compressionThreads;
+	}
+
+	public void setCompressionThreads(int compressionThreads) {
+		this.compressionThreads = compressionThreads;
+	}
+
+	public DataSize getCompressionMinSize() {
+		return compressionMinSize;
+	}
+
+	public void setCompressionMinSize(DataSize compressionMinSize) {
+		this.compressionMinSize = compressionMinSize;
+	}
+
+	public boolean isTieringEnabled() {
+		return tieringEnabled;
+	}
+
+	public void setTieringEnabled(boolean tieringEnabled) {
+		this.tieringEnabled = tieringEnabled;
+	}
+
+	public Duration getTieringIdlePeriod() {
+		return tieringIdlePeriod;
+	}
+
+	public void setTieringIdlePeriod(Duration tieringIdlePeriod) {
+		this.tieringIdlePeriod = tieringIdlePeriod;
+	}
+
+	public Duration getTieringInterval() {
+		return tieringInterval;
+	}
+
+	public void setTieringInterval(Duration tieringInterval) {
+		this.tieringInterval = tieringInterval;
+	}
+
+	public String getColdDir() {
+		return coldDir;
+	}
+
+	public void setColdDir(String coldDir) {
+		this.coldDir = coldDir;
+	}
+
+	public Backend getBackend() {
+		return backend;
+	}
+
+	public void setBackend(Backend backend) {
+		this.backend = backend;
+	}
+
+	public S3 getS3() {
+		return s3;
+	}
+
+	public void setS3(S3 s3) {
+		this.s3 = s3;
+	}
+
+	public static class S3 {
+
+		private String bucket;
+
+		/** Overrides the AWS endpoint, e.g. a MinIO server. */
+		private String endpoint;
+
+		private String region = "us-east-1";
+
+		private String accessKey;
+
+		private String secretKey;
+
+		private boolean pathStyleAccess;
+
+		private DataSize partSize = DataSize.ofMegabytes(8);
+
+		private boolean localCache = true;
+
+		private DataSize localCacheSize = DataSize.ofGigabytes(10);
+
+		public String getBucket() {
+			return bucket;
+		}
+
+		public void setBucket(String bucket) {
+			this.bucket = bucket;
+		}
+
+		public String getEndpoint() {
+			return endpoint;
+		}
+
+		public void setEndpoint(String endpoint) {
+			this.endpoint = endpoint;
+		}
+
+		public String getRegion() {
+			return region;
+		}
+
+		public void setRegion(String region) {
+			this.region = region;
+		}
+
+		public String getAccessKey() {
+			return accessKey;
+		}
+
+		public void setAccessKey(String accessKey) {
+			this.accessKey = accessKey;
+		}
+
+		public String getSecretKey() {
+			return secretKey;
+		}
+
+		public void setSecretKey(String secretKey) {
+			this.secretKey = secretKey;
+		}
+
+		public boolean isPathStyleAccess() {
+			return pathStyleAccess;
+		}
+
+		public void setPathStyleAccess(boolean pathStyleAccess) {
+			this.pathStyleAccess = pathStyleAccess;
+		}
+
+		public DataSize getPartSize() {
+			return partSize;
+		}
+
+		public void setPartSize(DataSize partSize) {
+			this.partSize = partSize;
+		}
+
+		public boolean isLocalCache() {
+			return localCache;
+		}
+
+		public void setLocalCache(boolean localCache) {
+			this.localCache = localCache;
+		}
+
+		public DataSize getLocalCacheSize() {
+			return localCacheSize;
+		}
+
+		public void setLocalCacheSize(DataSize localCacheSize) {
+			this.localCacheSize = localCacheSize;
+		}
+	}
+
+	public enum Backend {
+		/** Objects are files under upload-dir. */
+		LOCAL,
+		/** Objects live in an S3-compatible bucket; upload-dir only holds staging files and the read cache. */
+		S3
+	}
+
+	public enum FsyncPolicy {
+		/** Leave flushing to the OS page cache; a crash may lose the last seconds of writes. */
+		FAST,
+		/** Force file data and metadata, then the directory entry, before the upload is acknowledged. */
+		DURABLE
+	}
+
+	public enum Layout {
+		/** One file per upload name directly under upload-dir. */
+		FLAT,
+		/** Deduplicated SHA-256 blobs under upload-dir/ab/cd/, see ContentAddressedStorage. */
+		CONTENT_ADDRESSED
+	}
 }
@@ -14,7 +14,7 @@ public class OpenApiConfig {
 	public OpenAPI customOpenAPI() {
 		return new OpenAPI()
 				.info(new Info()
-						.title("RESTful API with Java 18 and Spring boot")
+						.title("RESTful API with Java 21 and Spring boot")
 						.version("v1")
 						.description("Some description about your API")
 						.termsOfService("http://www.google.com")
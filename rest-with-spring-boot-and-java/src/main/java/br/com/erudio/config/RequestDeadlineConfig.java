@@ -0,0 +1,77 @@
+package br.com.erudio.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Configuration
+@ConfigurationProperties(prefix = "deadline")
+public class RequestDeadlineConfig {
+
+	private String header = "Request-Timeout";
+
+	private Duration defaultTimeout = Duration.ofSeconds(10);
+
+	private Duration maxTimeout = Duration.ofSeconds(60);
+
+	/**
+	 * Default timeouts per path pattern, e.g. a shorter one for the name
+	 * search; the first matching pattern wins.
+	 */
+	private Map<String, Duration> endpoints = new LinkedHashMap<>();
+
+	@Bean
+	public static BeanPostProcessor deadlineAwareDataSourcePostProcessor(ObjectProvider<MeterRegistry> meterRegistry) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource && !(bean instanceof DeadlineAwareDataSource)) {
+					return new DeadlineAwareDataSource(dataSource, meterRegistry);
+				}
+				return bean;
+			}
+		};
+	}
+
+	public String getHeader() {
+		return header;
+	}
+
+	public void setHeader(String header) {
+		this.header = header;
+	}
+
+	public Duration getDefaultTimeout() {
+		return defaultTimeout;
+	}
+
+	public void setDefaultTimeout(Duration defaultTimeout) {
+		this.defaultTimeout = defaultTimeout;
+	}
+
+	public Duration getMaxTimeout() {
+		return maxTimeout;
+	}
+
+	public void setMaxTimeout(Duration maxTimeout) {
+		this.maxTimeout = maxTimeout;
+	}
+
+	public Map<String, Duration> getEndpoints() {
+		return endpoints;
+	}
+
+	public void setEndpoints(Map<String, Duration> endpoints) {
+		this.endpoints = endpoints;
+	}
+}
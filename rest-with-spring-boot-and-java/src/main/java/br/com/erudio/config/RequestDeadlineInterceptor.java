@@ -0,0 +1,78 @@
+package br.com.erudio.config;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.util.UrlPathHelper;
+
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.util.RequestDeadline;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Starts the deadline of each API request: the client may send how long it
+ * is willing to wait (Request-Timeout: 2s, 500ms or plain milliseconds),
+ * otherwise the default of the endpoint applies; either is capped at
+ * deadline.max-timeout. The deadline counts from the moment the request was
+ * received, so the time spent waiting for a bulkhead thread is part of it.
+ */
+@Component
+public class RequestDeadlineInterceptor implements AsyncHandlerInterceptor {
+
+	private final PathMatcher pathMatcher = new AntPathMatcher();
+
+	@Autowired
+	private RequestDeadlineConfig config;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		Duration timeout = requestedTimeout(request);
+		if (timeout.compareTo(config.getMaxTimeout()) > 0) {
+			timeout = config.getMaxTimeout();
+		}
+		Object receivedAt = request.getAttribute(RequestDeadline.RECEIVED_AT);
+		RequestDeadline.start(timeout, receivedAt instanceof Long nanos ? nanos : System.nanoTime());
+		return true;
+	}
+
+	@Override
+	public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		// The async part runs on another thread, without the deadline.
+		RequestDeadline.clear();
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		RequestDeadline.clear();
+	}
+
+	private Duration requestedTimeout(HttpServletRequest request) {
+		String header = request.getHeader(config.getHeader());
+		if (header != null) {
+			Duration timeout;
+			try {
+				timeout = DurationStyle.detectAndParse(header.trim());
+			} catch (IllegalArgumentException e) {
+				timeout = null;
+			}
+			if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+				throw new InvalidRequestParameterException("Invalid " + config.getHeader() + " header: " + header + "!");
+			}
+			return timeout;
+		}
+		String path = UrlPathHelper.defaultInstance.getLookupPathForRequest(request);
+		for (Map.Entry<String, Duration> endpoint : config.getEndpoints().entrySet()) {
+			if (pathMatcher.match(endpoint.getKey(), path)) {
+				return endpoint.getValue();
+			}
+		}
+		return config.getDefaultTimeout();
+	}
+}
@@ -18,8 +18,11 @@ import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder.Secret
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import br.com.erudio.security.jwt.JwtTokenFilter;
 import br.com.erudio.security.jwt.JwtTokenProvider;
+import br.com.erudio.services.ConcurrencyLimiter;
 
 @EnableWebSecurity
 @Configuration
@@ -28,6 +31,15 @@ public class SecurityConfig {
 	@Autowired
 	private JwtTokenProvider tokenProvider;
 	
+	@Autowired
+	private ConcurrencyLimiter concurrencyLimiter;
+	
+	@Autowired
+	private ConcurrencyLimitConfig concurrencyLimitConfig;
+	
+	@Autowired
+	private ObjectMapper objectMapper;
+	
 	@Bean
 	PasswordEncoder passwordEncoder() {
 		Map<String, PasswordEncoder> encoders = new HashMap<>();
@@ -49,6 +61,11 @@ public class SecurityConfig {
     @Bean
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
     	JwtTokenFilter custonFilter = new JwtTokenFilter(tokenProvider);
+    	if (concurrencyLimitConfig.isEnabled()) {
+    		// Same position as the JWT filter but added first, so it runs first.
+    		http.addFilterBefore(new ConcurrencyLimitFilter(concurrencyLimiter, concurrencyLimitConfig, objectMapper),
+    				UsernamePasswordAuthenticationFilter.class);
+    	}
         return http
                 .httpBasic(basic -> basic.disable())
                 .csrf(csrf -> csrf.disable())
@@ -61,9 +78,11 @@ public class SecurityConfig {
 							"/auth/signin",
 							"/auth/refresh/**",
                     		"/swagger-ui/**",
-                    		"/v3/api-docs/**"
+                    		"/v3/api-docs/**",
+                    		"/actuator/health"
                 		).permitAll()
                         .requestMatchers("/api/**").authenticated()
+                        .requestMatchers("/actuator/**").authenticated()
                         .requestMatchers("/users").denyAll()
                 )
                 .cors(cors -> {})
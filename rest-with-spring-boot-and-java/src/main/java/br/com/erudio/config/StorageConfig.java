@@ -0,0 +1,94 @@
+package br.com.erudio.config;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import br.com.erudio.repositories.ColdObjectRepository;
+import br.com.erudio.services.storage.LocalStorageBackend;
+import br.com.erudio.services.storage.S3StorageBackend;
+import br.com.erudio.services.storage.StorageBackend;
+import br.com.erudio.services.storage.TieredStorageBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.MultipartConfigElement;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+@Configuration
+public class StorageConfig {
+
+	@Bean
+	@ConditionalOnProperty(name = "file.backend", havingValue = "local", matchIfMissing = true)
+	public StorageBackend localStorageBackend(FileStorageConfig fileStorageConfig,
+			ObjectProvider<ColdObjectRepository> coldObjectRepository, ObjectProvider<MeterRegistry> meterRegistry) throws IOException {
+		var local = new LocalStorageBackend(uploadDir(fileStorageConfig), fileStorageConfig.getFsyncPolicy());
+		if (!fileStorageConfig.isTieringEnabled()) {
+			return local;
+		}
+		Path coldDir = StringUtils.hasText(fileStorageConfig.getColdDir())
+				? Paths.get(fileStorageConfig.getColdDir()).toAbsolutePath().normalize()
+				: uploadDir(fileStorageConfig).resolve(".cold");
+		var tiered = new TieredStorageBackend(local, new LocalStorageBackend(coldDir, fileStorageConfig.getFsyncPolicy()),
+				coldDir, coldObjectRepository.getObject(), meterRegistry.getObject());
+		tiered.loadColdIndex();
+		return tiered;
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "file.backend", havingValue = "s3")
+	public S3Client s3Client(FileStorageConfig fileStorageConfig) {
+		var s3 = fileStorageConfig.getS3();
+		var builder = S3Client.builder()
+				.region(Region.of(s3.getRegion()))
+				.forcePathStyle(s3.isPathStyleAccess())
+				.credentialsProvider(StringUtils.hasText(s3.getAccessKey())
+						? StaticCredentialsProvider.create(AwsBasicCredentials.create(s3.getAccessKey(), s3.getSecretKey()))
+						: DefaultCredentialsProvider.create());
+		if (StringUtils.hasText(s3.getEndpoint())) {
+			builder.endpointOverride(URI.create(s3.getEndpoint()));
+		}
+		return builder.build();
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "file.backend", havingValue = "s3")
+	public StorageBackend s3StorageBackend(S3Client s3Client, FileStorageConfig fileStorageConfig) {
+		var s3 = fileStorageConfig.getS3();
+		return new S3StorageBackend(s3Client, s3.getBucket(), s3.getPartSize().toBytes(),
+				s3.isLocalCache() ? uploadDir(fileStorageConfig).resolve(".cache") : null,
+				s3.getLocalCacheSize().toBytes());
+	}
+
+	/**
+	 * Spools multipart parts on the upload volume unless
+	 * spring.servlet.multipart.location is set, so storing a part is a rename
+	 * instead of a copy.
+	 */
+	@Bean
+	public MultipartConfigElement multipartConfigElement(MultipartProperties multipartProperties,
+			FileStorageConfig fileStorageConfig) throws IOException {
+		var config = multipartProperties.createMultipartConfig();
+		if (StringUtils.hasText(config.getLocation())) {
+			return config;
+		}
+		Path location = Files.createDirectories(uploadDir(fileStorageConfig).resolve(".multipart"));
+		return new MultipartConfigElement(location.toString(), config.getMaxFileSize(), config.getMaxRequestSize(),
+				config.getFileSizeThreshold());
+	}
+
+	private static Path uploadDir(FileStorageConfig fileStorageConfig) {
+		return Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+	}
+}
@@ -0,0 +1,35 @@
+package br.com.erudio.config;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import br.com.erudio.util.TrafficClass;
+
+/**
+ * Gives each traffic class its own connection pool; work outside a request
+ * (scheduled jobs, background tasks) uses the default one.
+ */
+public class TrafficClassRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+	public TrafficClassRoutingDataSource(Map<Object, Object> pools, DataSource defaultPool) {
+		setTargetDataSources(pools);
+		setDefaultTargetDataSource(defaultPool);
+	}
+
+	@Override
+	protected Object determineCurrentLookupKey() {
+		return TrafficClass.current();
+	}
+
+	@Override
+	public void close() throws Exception {
+		for (DataSource pool : getResolvedDataSources().values()) {
+			if (pool instanceof AutoCloseable closeable) {
+				closeable.close();
+			}
+		}
+	}
+}
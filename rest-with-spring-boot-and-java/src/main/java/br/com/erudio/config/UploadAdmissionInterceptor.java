@@ -0,0 +1,62 @@
+package br.com.erudio.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import br.com.erudio.services.UploadAdmissionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs admission control before the handler arguments are resolved, i.e.
+ * before a byte of the (lazily resolved) multipart body is read, so a client
+ * sending Expect: 100-continue is turned away without uploading anything.
+ */
+@Component
+public class UploadAdmissionInterceptor implements HandlerInterceptor {
+
+	private static final String RESERVED_BYTES = UploadAdmissionInterceptor.class.getName() + ".RESERVED_BYTES";
+	private static final String UPLOAD_LENGTH = "Upload-Length";
+
+	@Autowired
+	private UploadAdmissionService admission;
+
+	@Autowired
+	private MultipartProperties multipartProperties;
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		String uploadLength = request.getHeader(UPLOAD_LENGTH);
+		if (HttpMethod.POST.matches(request.getMethod()) && uploadLength != null) {
+			// Creating a resumable upload: nothing to reserve yet, but refuse
+			// one that could not fit on the volume anyway.
+			try {
+				admission.checkFreeSpace(Long.parseLong(uploadLength));
+			} catch (NumberFormatException e) {
+				// Left to the controller to reject.
+			}
+			return true;
+		}
+
+		long bytes = request.getContentLengthLong();
+		if (bytes < 0) {
+			// Chunked request: assume the largest one multipart accepts.
+			bytes = Math.max(0, multipartProperties.getMaxRequestSize().toBytes());
+		}
+		if (bytes > 0) {
+			admission.reserve(bytes);
+			request.setAttribute(RESERVED_BYTES, bytes);
+		}
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+		if (request.getAttribute(RESERVED_BYTES) instanceof Long bytes) {
+			admission.release(bytes);
+		}
+	}
+}
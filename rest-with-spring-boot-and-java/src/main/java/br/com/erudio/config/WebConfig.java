@@ -2,12 +2,16 @@ package br.com.erudio.config;
 
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import br.com.erudio.serialization.converter.*;
 
@@ -16,14 +20,36 @@ public class WebConfig implements WebMvcConfigurer {
 	
 	private static final MediaType MEDIA_TYPE_APPLICATION_YML = MediaType.valueOf("application/x-yaml");
 	
+	private static final MediaType MEDIA_TYPE_APPLICATION_SMILE = MediaType.valueOf("application/x-jackson-smile");
+	
 	@Value("${cors.originPatterns:default}")
 	private String corsOriginPatterns = "";
 	
+	@Autowired
+	private Jackson2ObjectMapperBuilder objectMapperBuilder;
+	
+	@Autowired
+	private UploadAdmissionInterceptor uploadAdmissionInterceptor;
+	
+	@Autowired
+	private RequestDeadlineInterceptor requestDeadlineInterceptor;
+	
 	@Override
 	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.replaceAll(converter -> converter instanceof MappingJackson2XmlHttpMessageConverter
+				? new XmlJackson2HttpMessageConverter(objectMapperBuilder)
+				: converter);
 		converters.add(new YamlJackson2HttpMessageConverter());
 	}
 	
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(uploadAdmissionInterceptor)
+			.addPathPatterns("/api/file/v1/upload*", "/api/file/v1/uploads/*");
+		registry.addInterceptor(requestDeadlineInterceptor)
+			.addPathPatterns("/api/**", "/auth/**");
+	}
+	
 	@Override
 	public void addCorsMappings(CorsRegistry registry) {
 		var allowedOrigins = corsOriginPatterns.split(",");
@@ -53,6 +79,8 @@ public class WebConfig implements WebMvcConfigurer {
 		.defaultContentType(MediaType.APPLICATION_JSON)
 		.mediaType("json", MediaType.APPLICATION_JSON)
 		.mediaType("xml", MediaType.APPLICATION_XML)
-		.mediaType("x-yaml", MEDIA_TYPE_APPLICATION_YML);
+		.mediaType("x-yaml", MEDIA_TYPE_APPLICATION_YML)
+		.mediaType("cbor", MediaType.APPLICATION_CBOR)
+		.mediaType("x-jackson-smile", MEDIA_TYPE_APPLICATION_SMILE);
 	}	
 }
@@ -1,16 +1,25 @@
 package br.com.erudio.controllers;
 
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.domain.Sort.Direction;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import br.com.erudio.data.vo.v1.BatchVO;
+import br.com.erudio.data.vo.v1.BookStatsVO;
 import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.data.vo.v1.PageVO;
+import br.com.erudio.repositories.BookSpecifications;
 import br.com.erudio.services.BookServices;
 import br.com.erudio.util.MediaType;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,7 +37,7 @@ public class BookController {
 	@Autowired
 	private BookServices service;
 
-	@GetMapping(produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+	@GetMapping(produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Finds all Books", description = "Finds all Books", 
 		tags = {"Books"}, 
 		responses = {
@@ -44,15 +53,114 @@ public class BookController {
 	public  ResponseEntity<PagedModel<EntityModel<BookVO>>> findAll(
 			@RequestParam(value = "page", defaultValue = "0") Integer page,
 			@RequestParam(value = "size", defaultValue = "12") Integer size,
-			@RequestParam(value = "direction", defaultValue = "ASC") String direction) {
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "author", required = false) String author,
+			@RequestParam(value = "minPrice", required = false) Double minPrice,
+			@RequestParam(value = "maxPrice", required = false) Double maxPrice,
+			@RequestParam(value = "launchedFrom", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate launchedFrom,
+			@RequestParam(value = "launchedTo", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate launchedTo,
+			@RequestParam(value = "filter", required = false) String filter) {
+		
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+		Pageable pageable = PageRequest.of(page, size,
+				BookSpecifications.sortFor(sortDirection, author, minPrice, maxPrice, launchedFrom, launchedTo));
+		return ResponseEntity.ok(service.findAll(author, minPrice, maxPrice, launchedFrom, launchedTo, filter, pageable));
+	}
+	
+	@GetMapping(params = {"compact=true", "!fields"}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds all Books without hypermedia links", description = "Finds all Books as a plain page without HAL links", 
+		tags = {"Books"}, 
+		responses = {
+				@ApiResponse(description = "Success", responseCode = "200", 
+						content = {
+							@Content(mediaType = "application/json", schema = @Schema(implementation = PageVO.class))
+						}),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+		})
+	public ResponseEntity<PageVO<BookVO>> findAllCompact(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "author", required = false) String author,
+			@RequestParam(value = "minPrice", required = false) Double minPrice,
+			@RequestParam(value = "maxPrice", required = false) Double maxPrice,
+			@RequestParam(value = "launchedFrom", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate launchedFrom,
+			@RequestParam(value = "launchedTo", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate launchedTo,
+			@RequestParam(value = "filter", required = false) String filter) {
+		
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+		Pageable pageable = PageRequest.of(page, size,
+				BookSpecifications.sortFor(sortDirection, author, minPrice, maxPrice, launchedFrom, launchedTo));
+		return ResponseEntity.ok(service.findAllCompact(author, minPrice, maxPrice, launchedFrom, launchedTo, filter, pageable));
+	}
+	
+	@GetMapping(params = "fields", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds Books returning only the requested fields", description = "Finds Books selecting only the comma separated fields, both in SQL and in the payload", 
+		tags = {"Books"}, 
+		responses = {
+				@ApiResponse(description = "Success", responseCode = "200", 
+						content = {
+							@Content(mediaType = "application/json", schema = @Schema(implementation = PageVO.class))
+						}),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+		})
+	public ResponseEntity<PageVO<Map<String, Object>>> findAllSparse(
+			@RequestParam(value = "fields") String fields,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "author", required = false) String author,
+			@RequestParam(value = "minPrice", required = false) Double minPrice,
+			@RequestParam(value = "maxPrice", required = false) Double maxPrice,
+			@RequestParam(value = "launchedFrom", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate launchedFrom,
+			@RequestParam(value = "launchedTo", required = false) @DateTimeFormat(iso = ISO.DATE) LocalDate launchedTo,
+			@RequestParam(value = "filter", required = false) String filter) {
 		
 		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
-		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "author"));
-		return ResponseEntity.ok(service.findAll(pageable));
+		Pageable pageable = PageRequest.of(page, size,
+				BookSpecifications.sortFor(sortDirection, author, minPrice, maxPrice, launchedFrom, launchedTo));
+		return ResponseEntity.ok(service.findAll(fields, author, minPrice, maxPrice, launchedFrom, launchedTo, filter, pageable));
+	}
+	
+	@GetMapping(value = "/stats",
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Catalog statistics", description = "Count, min/max/avg price and books per author and per launch year, kept up to date in memory", 
+	tags = {"Books"}, 
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200", 
+					content = @Content(schema = @Schema(implementation = BookStatsVO.class))),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	})
+	public BookStatsVO getStatistics() {
+		
+		return service.getStatistics();
+	}
+	
+	@GetMapping(value = "/batch",
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds Books by ids", description = "Finds up to batch.max-ids Books by a comma separated list of ids in one request, in the requested order, listing the ids that were not found", 
+	tags = {"Books"}, 
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200", 
+					content = @Content(schema = @Schema(implementation = BatchVO.class))),
+			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	})
+	public BatchVO<BookVO> findByIds(@RequestParam(value = "ids") List<Long> ids) {
+		
+		return service.findByIds(ids);
 	}
 	
 	@GetMapping(value = "/{id}",
-			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Finds a Book", description = "Finds a Book", 
 	tags = {"Books"}, 
 	responses = {
@@ -69,9 +177,27 @@ public class BookController {
 		return service.findById(id);
 	}
 	
+	@GetMapping(value = "/{id}", params = "fields",
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds a Book returning only the requested fields", description = "Finds a Book selecting only the comma separated fields, both in SQL and in the payload", 
+	tags = {"Books"}, 
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200", content = @Content),
+			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	})
+	public Map<String, Object> findByIdSparse(
+			@PathVariable(value = "id") Long id,
+			@RequestParam(value = "fields") String fields) {
+		
+		return service.findById(id, fields);
+	}
+	
 	@PostMapping(
-			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
-			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE},
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Add new Book", description = "Add new Book", 
 	tags = {"Books"}, 
 	responses = {
@@ -86,15 +212,15 @@ public class BookController {
 	}
 	
 //	@PostMapping(value = "/v2", 
-//			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
-//			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+//			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE},
+//			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 //	public BookVOV2 createV2(@RequestBody BookVOV2 book) throws Exception {
 //		return service.createV2(book);
 //	}
 	
 	@PutMapping(
-			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
-			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE},
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Updates a Book", description = "Updates a Book", 
 	tags = {"Books"}, 
 	responses = {
@@ -1,13 +1,28 @@
 package br.com.erudio.controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,24 +31,53 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import br.com.erudio.data.vo.v1.FileMetadataVO;
 import br.com.erudio.data.vo.v1.UploadFileResponseVO;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.services.CompressedVariantService;
+import br.com.erudio.services.FileMetadataService;
 import br.com.erudio.services.FileStorageService;
+import br.com.erudio.services.HotFileCache;
+import br.com.erudio.services.ZipArchiveService;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 @Tag(name = "File Endpoint !")
 @RestController
 @RequestMapping("/api/file/v1")
 public class FileController {
 
+	private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+	private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+	private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+	private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+	
 	private Logger logger = Logger.getLogger(FileController.class.getName());
 	
 	@Autowired
 	private FileStorageService service;
 	
+	@Autowired
+	private FileMetadataService metadataService;
+	
+	@Autowired
+	private HotFileCache hotFileCache;
+	
+	@Autowired
+	private ZipArchiveService zipArchiveService;
+	
+	@Autowired
+	private CompressedVariantService compressedVariantService;
+	
+	@Autowired
+	private MultipartProperties multipartProperties;
+	
 	
 	@PostMapping("/uploadFile")
 	public UploadFileResponseVO uploadFile(@RequestParam("file") MultipartFile file) {
@@ -50,30 +94,218 @@ public class FileController {
 	public List<UploadFileResponseVO> uploadMultipleFiles(@RequestParam("files") MultipartFile[] files) {
 		logger.info("Storing files to disk.");
 		
-		return Arrays.asList(files).stream().map(file -> uploadFile(file)).collect(Collectors.toList());
+		var results = service.storeFiles(Arrays.asList(files));
+		results.stream()
+			.filter(result -> result.getError() == null)
+			.forEach(result -> result.setFileDownloadUri(ServletUriComponentsBuilder
+				.fromCurrentContextPath()
+				.path("/api/file/v1/downloadFile/")
+				.path(result.getFileName()).toUriString()));
+		return results;
+	}
+	
+	@PostMapping(value = "/uploadFileStream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	public List<UploadFileResponseVO> uploadFileStream(HttpServletRequest request) {
+		logger.info("Streaming files to disk.");
+		
+		var results = service.storeFiles(request,
+				multipartProperties.getMaxFileSize().toBytes(),
+				multipartProperties.getMaxRequestSize().toBytes());
+		results.stream()
+			.filter(result -> result.getError() == null)
+			.forEach(result -> result.setFileDownloadUri(ServletUriComponentsBuilder
+				.fromCurrentContextPath()
+				.path("/api/file/v1/downloadFile/")
+				.path(result.getFileName()).toUriString()));
+		return results;
+	}
+	
+	@GetMapping("/files")
+	public ResponseEntity<PagedModel<EntityModel<FileMetadataVO>>> listFiles(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction) {
+		
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "fileName"));
+		return ResponseEntity.ok(metadataService.findAll(pageable));
+	}
+	
+	@GetMapping("/downloadZip")
+	public ResponseEntity<StreamingResponseBody> downloadZip(
+			@RequestParam(value = "files", required = false) List<String> files,
+			@RequestParam(value = "prefix", required = false) String prefix) {
+		logger.info("Streaming files as a ZIP archive.");
+		
+		var selected = zipArchiveService.select(files, prefix);
+		return ResponseEntity.ok()
+				.contentType(MediaType.parseMediaType("application/zip"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"files.zip\"")
+				.body(out -> zipArchiveService.write(selected, out));
 	}
 	
 	@GetMapping("/downloadFile/{filename:.+}")
-	public ResponseEntity<Resource>downloadFile(@PathVariable String filename, HttpServletRequest request) {
+	public ResponseEntity<Resource> downloadFile(@PathVariable String filename,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
 		logger.info("Reading file on disk.");
 		
-		Resource resource = service.loadFileAsResource(filename);
-		String contentType = "";
+		var metadata = metadataService.find(filename).orElseGet(() -> service.probe(filename));
+		List<HttpRange> ranges = requestedRanges(request, metadata);
 		
-		try {
-			contentType = request.getServletContext().getMimeType(resource.getFile().getAbsolutePath());
-			
-			if(contentType.isBlank()) {
-				contentType = "application/octet-stream";
+		// Ranges always address the identity variant, so only whole-file
+		// requests are negotiated.
+		boolean compressible = compressedVariantService.shouldCompress(metadata);
+		boolean gzip = compressible && ranges.isEmpty() && compressedVariantService.hasVariant(metadata)
+				&& CompressedVariantService.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+		if (compressible) {
+			response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+		String etag = gzip ? CompressedVariantService.variantEtag(metadata) : FileMetadataService.etag(metadata);
+		if (new ServletWebRequest(request, response).checkNotModified(etag, metadata.getUpdatedAt().getTime())) {
+			return null;
+		}
+		if (gzip) {
+			sendVariant(metadata, request, response);
+			return null;
+		}
+		if (compressible) {
+			compressedVariantService.schedule(metadata);
+		}
+		
+		if (ranges.isEmpty() && HttpMethod.GET.matches(request.getMethod())) {
+			ByteBuffer content = hotFileCache.get(metadata, () -> service.open(metadata));
+			if (content != null) {
+				service.touch(metadata);
+				writeHeaders(metadata, response);
+				response.setContentLength(content.remaining());
+				Channels.newChannel(response.getOutputStream()).write(content);
+				return null;
 			}
-		} catch (Exception e) {
-			logger.info("Could not determine file type!");
 		}
 		
+		Path file = service.localFile(metadata);
+		if (file == null || ranges.size() <= 1) {
+			// Objects without a local copy are streamed from the backend; a
+			// multi-range request for one gets the whole object instead.
+			boolean sendfile = file != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT));
+			send(metadata, sendfile ? file : null, ranges.size() == 1 ? ranges.get(0) : null, request, response);
+			return null;
+		}
 		
+		// Multi-range requests go through Spring's resource region support
+		// (206 and multipart/byteranges), which reads the Range header again;
+		// it was validated above. ETag and Last-Modified were already set by
+		// checkNotModified.
 		return ResponseEntity.ok()
-				.contentType(MediaType.parseMediaType(contentType))
-				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-				.body(resource);
+				.contentType(MediaType.parseMediaType(metadata.getContentType()))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+				.body(new FileSystemResource(file));
+	}
+	
+	/**
+	 * The ranges to serve, empty for the whole file. As RFC 9110 allows, a
+	 * Range header is ignored when the method is not GET or the header is
+	 * invalid. It is also ignored when If-Range no longer matches the file's
+	 * ETag or Last-Modified, so a resumed download never mixes bytes of two
+	 * versions of the file.
+	 */
+	private static List<HttpRange> requestedRanges(HttpServletRequest request, StoredFile metadata) {
+		String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+		if (rangeHeader == null || !HttpMethod.GET.matches(request.getMethod())) {
+			return List.of();
+		}
+		String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+		if (ifRange != null && !ifRangeMatches(ifRange, metadata)) {
+			return List.of();
+		}
+		try {
+			return HttpRange.parseRanges(rangeHeader);
+		} catch (IllegalArgumentException e) {
+			return List.of();
+		}
+	}
+	
+	private static boolean ifRangeMatches(String ifRange, StoredFile metadata) {
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+			// Strong comparison: a weak entity tag never matches.
+			return ifRange.equals(FileMetadataService.etag(metadata));
+		}
+		var headers = new HttpHeaders();
+		headers.set(HttpHeaders.IF_RANGE, ifRange);
+		try {
+			return headers.getFirstDate(HttpHeaders.IF_RANGE) == metadata.getUpdatedAt().getTime() / 1000 * 1000;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+	
+	/**
+	 * Sends the whole file or one range of it. A local file is handed to
+	 * Tomcat's sendfile, so the bytes go from the page cache to the socket
+	 * (FileChannel.transferTo) without passing through the heap; otherwise the
+	 * range is streamed from the storage backend.
+	 */
+	private void send(StoredFile metadata, Path sendfile, HttpRange range,
+			HttpServletRequest request, HttpServletResponse response) throws IOException {
+		long length = metadata.getSize();
+		long start = 0;
+		long end = length - 1;
+		
+		if (range != null) {
+			start = range.getRangeStart(length);
+			end = range.getRangeEnd(length);
+			if (start >= length || start > end) {
+				response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+				response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+				return;
+			}
+			response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+			response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+		}
+		
+		writeHeaders(metadata, response);
+		response.setContentLengthLong(end - start + 1);
+		
+		if (HttpMethod.HEAD.matches(request.getMethod()) || end < start) {
+			return;
+		}
+		if (sendfile != null) {
+			request.setAttribute(SENDFILE_FILENAME, sendfile.toRealPath().toString());
+			request.setAttribute(SENDFILE_START, start);
+			request.setAttribute(SENDFILE_END, end + 1);
+		} else {
+			try (InputStream in = service.open(metadata, start, end)) {
+				in.transferTo(response.getOutputStream());
+			}
+		}
+	}
+	
+	/**
+	 * Sends the precompressed gzip variant of the whole file.
+	 */
+	private void sendVariant(StoredFile metadata, HttpServletRequest request, HttpServletResponse response) throws IOException {
+		writeHeaders(metadata, response);
+		response.setHeader(HttpHeaders.CONTENT_ENCODING, CompressedVariantService.GZIP);
+		response.setContentLengthLong(metadata.getGzipSize());
+		
+		if (HttpMethod.HEAD.matches(request.getMethod())) {
+			return;
+		}
+		Path variant = compressedVariantService.localVariant(metadata).orElse(null);
+		if (variant != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+			request.setAttribute(SENDFILE_FILENAME, variant.toRealPath().toString());
+			request.setAttribute(SENDFILE_START, 0L);
+			request.setAttribute(SENDFILE_END, metadata.getGzipSize());
+		} else {
+			try (InputStream in = compressedVariantService.openVariant(metadata)) {
+				in.transferTo(response.getOutputStream());
+			}
+		}
+	}
+	
+	private static void writeHeaders(StoredFile metadata, HttpServletResponse response) {
+		response.setContentType(metadata.getContentType());
+		response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+		response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + metadata.getFileName() + "\"");
 	}
 }
@@ -1,6 +1,7 @@
 package br.com.erudio.controllers;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -13,6 +14,8 @@ import org.springframework.hateoas.PagedModel;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import br.com.erudio.data.vo.v1.BatchVO;
+import br.com.erudio.data.vo.v1.PageVO;
 import br.com.erudio.data.vo.v1.PersonVO;
 import br.com.erudio.data.vo.v2.PersonVOV2;
 import br.com.erudio.services.PersonServices;
@@ -34,7 +37,7 @@ public class PersonController {
 	@Autowired
 	private PersonServices service;
 
-	@GetMapping(produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+	@GetMapping(produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Finds all People", description = "Finds all People", 
 		tags = {"People"}, 
 		responses = {
@@ -50,14 +53,64 @@ public class PersonController {
 	public ResponseEntity<PagedModel<EntityModel<PersonVO>>> findAll(
 			@RequestParam(value = "page", defaultValue = "0") Integer page,
 			@RequestParam(value = "size", defaultValue = "12") Integer size,
-			@RequestParam(value = "direction", defaultValue = "ASC") String direction) {
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "filter", required = false) String filter) {
+		
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+		return ResponseEntity.ok(service.findAll(pageable, filter));
+	}
+	
+	@GetMapping(params = {"compact=true", "!fields"}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds all People without hypermedia links", description = "Finds all People as a plain page without HAL links", 
+		tags = {"People"}, 
+		responses = {
+				@ApiResponse(description = "Success", responseCode = "200", 
+						content = {
+							@Content(mediaType = "application/json", schema = @Schema(implementation = PageVO.class))
+						}),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+		})
+	public ResponseEntity<PageVO<PersonVO>> findAllCompact(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "filter", required = false) String filter) {
 		
 		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
 		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
-		return ResponseEntity.ok(service.findAll(pageable));
+		return ResponseEntity.ok(service.findAllCompact(pageable, filter));
+	}
+	
+	@GetMapping(params = "fields", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds People returning only the requested fields", description = "Finds People selecting only the comma separated fields, both in SQL and in the payload", 
+		tags = {"People"}, 
+		responses = {
+				@ApiResponse(description = "Success", responseCode = "200", 
+						content = {
+							@Content(mediaType = "application/json", schema = @Schema(implementation = PageVO.class))
+						}),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+		})
+	public ResponseEntity<PageVO<Map<String, Object>>> findAllSparse(
+			@RequestParam(value = "fields") String fields,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			@RequestParam(value = "filter", required = false) String filter) {
+		
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+		return ResponseEntity.ok(service.findAll(fields, filter, pageable));
 	}
 	 
-	@GetMapping(value = "/findPersonByName/{firstName}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+	@GetMapping(value = "/findPersonByName/{firstName}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Finds People by name", description = "Finds People by name", 
 	tags = {"People"}, 
 	responses = {
@@ -81,9 +134,74 @@ public class PersonController {
 		return ResponseEntity.ok(service.findPersonByName(firstName, pageable));
 	}
 	
+	@GetMapping(value = "/findPersonByName/{firstName}", params = {"compact=true", "!fields"}, produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds People by name without hypermedia links", description = "Finds People by name as a plain page without HAL links", 
+	tags = {"People"}, 
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200", 
+					content = {
+							@Content(mediaType = "application/json", schema = @Schema(implementation = PageVO.class))
+			}),
+			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	})
+	public ResponseEntity<PageVO<PersonVO>> findPersonsByNameCompact(
+			@PathVariable(value = "firstName") String firstName,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction) {
+		
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+		return ResponseEntity.ok(service.findPersonByNameCompact(firstName, pageable));
+	}
+	
+	@GetMapping(value = "/findPersonByName/{firstName}", params = "fields", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds People by name returning only the requested fields", description = "Finds People by name selecting only the comma separated fields, both in SQL and in the payload", 
+		tags = {"People"}, 
+		responses = {
+				@ApiResponse(description = "Success", responseCode = "200", 
+						content = {
+							@Content(mediaType = "application/json", schema = @Schema(implementation = PageVO.class))
+						}),
+				@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+				@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+				@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+				@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+		})
+	public ResponseEntity<PageVO<Map<String, Object>>> findPersonsByNameSparse(
+			@PathVariable(value = "firstName") String firstName,
+			@RequestParam(value = "fields") String fields,
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction) {
+		
+		var sortDirection = "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+		Pageable pageable = PageRequest.of(page, size, Sort.by(sortDirection, "firstName"));
+		return ResponseEntity.ok(service.findPersonByName(firstName, fields, pageable));
+	}
+	
 	@CrossOrigin(origins = "http://localhost:8080")
+	@GetMapping(value = "/batch",
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds People by ids", description = "Finds up to batch.max-ids People by a comma separated list of ids in one request, in the requested order, listing the ids that were not found", 
+	tags = {"People"}, 
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200", 
+					content = @Content(schema = @Schema(implementation = BatchVO.class))),
+			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	})
+	public BatchVO<PersonVO> findByIds(@RequestParam(value = "ids") List<Long> ids) {
+		
+		return service.findByIds(ids);
+	}
+	
 	@GetMapping(value = "/{id}",
-			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Finds a Person", description = "Finds a Person", 
 	tags = {"People"}, 
 	responses = {
@@ -100,10 +218,28 @@ public class PersonController {
 		return service.findById(id);
 	}
 	
+	@GetMapping(value = "/{id}", params = "fields",
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
+	@Operation(summary = "Finds a Person returning only the requested fields", description = "Finds a Person selecting only the comma separated fields, both in SQL and in the payload", 
+	tags = {"People"}, 
+	responses = {
+			@ApiResponse(description = "Success", responseCode = "200", content = @Content),
+			@ApiResponse(description = "Bad Request", responseCode = "400", content = @Content),
+			@ApiResponse(description = "Unauthorized", responseCode = "401", content = @Content),
+			@ApiResponse(description = "Not Found", responseCode = "404", content = @Content),
+			@ApiResponse(description = "Internal Error", responseCode = "500", content = @Content)
+	})
+	public Map<String, Object> findByIdSparse(
+			@PathVariable(value = "id") Long id,
+			@RequestParam(value = "fields") String fields) {
+		
+		return service.findById(id, fields);
+	}
+	
 	@CrossOrigin(origins = {"http://localhost:8080", "https://erudio.com.br"})
 	@PostMapping(
-			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
-			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE},
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Add new Person", description = "Add new Person", 
 	tags = {"People"}, 
 	responses = {
@@ -118,15 +254,15 @@ public class PersonController {
 	}
 	
 //	@PostMapping(value = "/v2", 
-//			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
-//			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+//			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE},
+//			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 //	public PersonVOV2 createV2(@RequestBody PersonVOV2 person) throws Exception {
 //		return service.createV2(person);
 //	}
 	
 	@PutMapping(
-			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML},
-			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+			consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE},
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Updates a Person", description = "Updates a Person", 
 	tags = {"People"}, 
 	responses = {
@@ -142,7 +278,7 @@ public class PersonController {
 	}
 	
 	@PatchMapping(value = "/{id}",
-			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML})
+			produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, MediaType.APPLICATION_YML, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_SMILE})
 	@Operation(summary = "Disable a specific Person by your ID", description = "Disable a specific Person by your ID", 
 	tags = {"People"}, 
 	responses = {
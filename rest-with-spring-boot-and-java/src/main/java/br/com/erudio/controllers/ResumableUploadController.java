@@ -0,0 +1,157 @@
+package br.com.erudio.controllers;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.exceptions.UnsupportedTusVersionException;
+import br.com.erudio.model.UploadSession;
+import br.com.erudio.services.ResumableUploadService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resumable uploads following the tus 1.0 core protocol with the creation and
+ * termination extensions. Every request but OPTIONS must carry
+ * Tus-Resumable: 1.0.0, otherwise it is answered with 412.
+ */
+@Tag(name = "Resumable Upload Endpoint", description = "tus-style resumable uploads for large files")
+@RestController
+@RequestMapping("/api/file/v1/uploads")
+public class ResumableUploadController {
+
+	private static final String TUS_RESUMABLE = "Tus-Resumable";
+	private static final String TUS_VERSION = "1.0.0";
+	private static final String UPLOAD_OFFSET = "Upload-Offset";
+	private static final String UPLOAD_LENGTH = "Upload-Length";
+	private static final String UPLOAD_METADATA = "Upload-Metadata";
+	private static final String OFFSET_OCTET_STREAM = "application/offset+octet-stream";
+
+	private Logger logger = Logger.getLogger(ResumableUploadController.class.getName());
+
+	@Autowired
+	private ResumableUploadService service;
+
+	@Autowired
+	private FileStorageConfig fileStorageConfig;
+
+	@RequestMapping(method = RequestMethod.OPTIONS)
+	@Operation(summary = "Describes the supported tus version and extensions")
+	public ResponseEntity<Void> options() {
+		return ResponseEntity.noContent()
+				.header(TUS_RESUMABLE, TUS_VERSION)
+				.header("Tus-Version", TUS_VERSION)
+				.header("Tus-Extension", "creation,termination")
+				.header("Tus-Max-Size", String.valueOf(fileStorageConfig.getMaxUploadLength().toBytes()))
+				.build();
+	}
+
+	@PostMapping
+	@Operation(summary = "Creates an upload session",
+		description = "Expects Upload-Length and an Upload-Metadata entry 'filename <base64>'; "
+				+ "the new session is returned in the Location header")
+	public ResponseEntity<Void> create(
+			@RequestHeader(value = TUS_RESUMABLE, required = false) String tusResumable,
+			@RequestHeader(UPLOAD_LENGTH) Long uploadLength,
+			@RequestHeader(value = UPLOAD_METADATA, required = false) String metadata) {
+		checkVersion(tusResumable);
+
+		var session = service.create(filename(metadata), uploadLength);
+		var location = ServletUriComponentsBuilder.fromCurrentRequestUri()
+				.path("/{id}").buildAndExpand(session.getId()).toUri();
+
+		return withOffset(ResponseEntity.created(location), session).build();
+	}
+
+	@RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+	@Operation(summary = "Returns the offset to resume an upload from")
+	public ResponseEntity<Void> offset(@PathVariable(value = "id") String id,
+			@RequestHeader(value = TUS_RESUMABLE, required = false) String tusResumable) {
+		checkVersion(tusResumable);
+		var session = service.findById(id);
+
+		return withOffset(ResponseEntity.ok(), session)
+				.header(UPLOAD_LENGTH, String.valueOf(session.getUploadLength()))
+				.header(HttpHeaders.CACHE_CONTROL, "no-store")
+				.build();
+	}
+
+	@PatchMapping(value = "/{id}", consumes = OFFSET_OCTET_STREAM)
+	@Operation(summary = "Appends a chunk at Upload-Offset",
+		description = "Answers 409 when Upload-Offset is not the current offset of the upload, "
+				+ "also when another request moved it while this chunk was written")
+	public ResponseEntity<Void> append(@PathVariable(value = "id") String id,
+			@RequestHeader(value = TUS_RESUMABLE, required = false) String tusResumable,
+			@RequestHeader(UPLOAD_OFFSET) Long offset, HttpServletRequest request) throws IOException {
+		checkVersion(tusResumable);
+		logger.info("Appending a chunk to a resumable upload!");
+
+		var session = service.append(id, offset, request.getInputStream());
+		var response = withOffset(ResponseEntity.noContent(), session);
+		if (session.getUploadOffset().equals(session.getUploadLength())) {
+			response.header(HttpHeaders.CONTENT_LOCATION, ServletUriComponentsBuilder
+					.fromCurrentContextPath()
+					.path("/api/file/v1/downloadFile/")
+					.path(session.getFileName()).toUriString());
+		}
+		return response.build();
+	}
+
+	@DeleteMapping("/{id}")
+	@Operation(summary = "Aborts an upload and discards the received bytes")
+	public ResponseEntity<Void> terminate(@PathVariable(value = "id") String id,
+			@RequestHeader(value = TUS_RESUMABLE, required = false) String tusResumable) {
+		checkVersion(tusResumable);
+		service.terminate(id);
+
+		return ResponseEntity.noContent().header(TUS_RESUMABLE, TUS_VERSION).build();
+	}
+
+	private static void checkVersion(String tusResumable) {
+		if (!TUS_VERSION.equals(tusResumable)) {
+			throw new UnsupportedTusVersionException(tusResumable == null
+					? "Tus-Resumable is missing"
+					: "Tus-Resumable " + tusResumable + " is not supported", TUS_VERSION);
+		}
+	}
+
+	private static ResponseEntity.HeadersBuilder<?> withOffset(ResponseEntity.HeadersBuilder<?> builder, UploadSession session) {
+		return builder
+				.header(TUS_RESUMABLE, TUS_VERSION)
+				.header(UPLOAD_OFFSET, String.valueOf(session.getUploadOffset()));
+	}
+
+	private static String filename(String metadata) {
+		if (metadata == null) {
+			return null;
+		}
+		for (String pair : metadata.split(",")) {
+			String[] entry = pair.trim().split(" ");
+			if (entry.length == 2 && "filename".equals(entry[0])) {
+				try {
+					return new String(Base64.getDecoder().decode(entry[1]), StandardCharsets.UTF_8);
+				} catch (IllegalArgumentException e) {
+					throw new InvalidRequestParameterException("The filename in Upload-Metadata is not valid base64");
+				}
+			}
+		}
+		return null;
+	}
+}
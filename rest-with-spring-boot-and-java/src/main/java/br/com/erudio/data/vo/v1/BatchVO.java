@@ -0,0 +1,39 @@
+package br.com.erudio.data.vo.v1;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"content", "notFound"})
+public class BatchVO<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private List<T> content;
+	private List<Long> notFound;
+
+	public BatchVO() {
+	}
+
+	public BatchVO(List<T> content, List<Long> notFound) {
+		this.content = content;
+		this.notFound = notFound;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public void setContent(List<T> content) {
+		this.content = content;
+	}
+
+	public List<Long> getNotFound() {
+		return notFound;
+	}
+
+	public void setNotFound(List<Long> notFound) {
+		this.notFound = notFound;
+	}
+}
@@ -0,0 +1,90 @@
+package br.com.erudio.data.vo.v1;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"count", "minPrice", "maxPrice", "avgPrice", "booksPerAuthor", "booksPerLaunchYear"})
+public class BookStatsVO implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private long count;
+	private Double minPrice;
+	private Double maxPrice;
+	private Double avgPrice;
+	private Map<String, Integer> booksPerAuthor;
+	private Map<Integer, Integer> booksPerLaunchYear;
+	
+	public BookStatsVO() {
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public Double getMinPrice() {
+		return minPrice;
+	}
+
+	public void setMinPrice(Double minPrice) {
+		this.minPrice = minPrice;
+	}
+
+	public Double getMaxPrice() {
+		return maxPrice;
+	}
+
+	public void setMaxPrice(Double maxPrice) {
+		this.maxPrice = maxPrice;
+	}
+
+	public Double getAvgPrice() {
+		return avgPrice;
+	}
+
+	public void setAvgPrice(Double avgPrice) {
+		this.avgPrice = avgPrice;
+	}
+
+	public Map<String, Integer> getBooksPerAuthor() {
+		return booksPerAuthor;
+	}
+
+	public void setBooksPerAuthor(Map<String, Integer> booksPerAuthor) {
+		this.booksPerAuthor = booksPerAuthor;
+	}
+
+	public Map<Integer, Integer> getBooksPerLaunchYear() {
+		return booksPerLaunchYear;
+	}
+
+	public void setBooksPerLaunchYear(Map<Integer, Integer> booksPerLaunchYear) {
+		this.booksPerLaunchYear = booksPerLaunchYear;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(avgPrice, booksPerAuthor, booksPerLaunchYear, count, maxPrice, minPrice);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		BookStatsVO other = (BookStatsVO) obj;
+		return Objects.equals(avgPrice, other.avgPrice) && Objects.equals(booksPerAuthor, other.booksPerAuthor)
+				&& Objects.equals(booksPerLaunchYear, other.booksPerLaunchYear) && count == other.count
+				&& Objects.equals(maxPrice, other.maxPrice) && Objects.equals(minPrice, other.minPrice);
+	}
+}
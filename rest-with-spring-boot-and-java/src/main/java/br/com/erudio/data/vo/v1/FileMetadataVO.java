@@ -0,0 +1,86 @@
+package br.com.erudio.data.vo.v1;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+import org.springframework.hateoas.RepresentationModel;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+@JsonPropertyOrder({"fileName", "contentType", "size", "etag", "lastModified"})
+public class FileMetadataVO extends RepresentationModel<FileMetadataVO> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private String fileName;
+	private String contentType;
+	private long size;
+	private String etag;
+	private Date lastModified;
+	
+	public FileMetadataVO() {
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public void setFileName(String fileName) {
+		this.fileName = fileName;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public void setSize(long size) {
+		this.size = size;
+	}
+
+	public String getEtag() {
+		return etag;
+	}
+
+	public void setEtag(String etag) {
+		this.etag = etag;
+	}
+
+	public Date getLastModified() {
+		return lastModified;
+	}
+
+	public void setLastModified(Date lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + Objects.hash(contentType, etag, fileName, lastModified, size);
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		FileMetadataVO other = (FileMetadataVO) obj;
+		return Objects.equals(contentType, other.contentType) && Objects.equals(etag, other.etag)
+				&& Objects.equals(fileName, other.fileName) && Objects.equals(lastModified, other.lastModified)
+				&& size == other.size;
+	}
+}
@@ -2,6 +2,9 @@ package br.com.erudio.data.vo.v1;
 
 import java.io.Serializable;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+
 public class UploadFileResponseVO implements Serializable {
 
 	private static final long serialVersionUID = 1L;
@@ -11,6 +14,9 @@ public class UploadFileResponseVO implements Serializable {
 	private String fileType;
 	private long size;
 	
+	@JsonInclude(Include.NON_NULL)
+	private String error;
+	
 	public UploadFileResponseVO() {
 	}
 	
@@ -46,4 +52,10 @@ public class UploadFileResponseVO implements Serializable {
 	public void setSize(long size) {
 		this.size = size;
 	}
+	public String getError() {
+		return error;
+	}
+	public void setError(String error) {
+		this.error = error;
+	}
 }
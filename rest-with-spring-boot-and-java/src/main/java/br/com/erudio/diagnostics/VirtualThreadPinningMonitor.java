@@ -0,0 +1,102 @@
+package br.com.erudio.diagnostics;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Streams the JFR jdk.VirtualThreadPinned event while requests run on virtual
+ * threads and reports, per code path, how often a carrier thread got pinned.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+	private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+	
+	private static final int REPORTED_FRAMES = 8;
+
+	private Logger logger = Logger.getLogger(VirtualThreadPinningMonitor.class.getName());
+
+	@Value("${diagnostics.virtual-threads.pinning-threshold:20ms}")
+	private Duration threshold = Duration.ofMillis(20);
+
+	private final Map<String, LongAdder> pinnedByPath = new ConcurrentHashMap<>();
+
+	private RecordingStream recordingStream;
+
+	@PostConstruct
+	public void start() {
+		recordingStream = new RecordingStream();
+		recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+		recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+		recordingStream.startAsync();
+		logger.info("Watching virtual thread pinning longer than " + threshold.toMillis() + "ms.");
+	}
+
+	@PreDestroy
+	public void stop() {
+		if (recordingStream != null) {
+			recordingStream.close();
+		}
+		logger.info("Virtual thread pinning summary: " + getPinnedCounts());
+	}
+
+	public Map<String, Long> getPinnedCounts() {
+		return pinnedByPath.entrySet().stream()
+				.collect(Collectors.toMap(Map.Entry::getKey, e -> e.getValue().sum()));
+	}
+
+	private void onPinned(RecordedEvent event) {
+		var path = classify(event);
+		pinnedByPath.computeIfAbsent(path, p -> new LongAdder()).increment();
+		
+		var frames = event.getStackTrace() == null ? "" : event.getStackTrace().getFrames().stream()
+				.limit(REPORTED_FRAMES)
+				.map(VirtualThreadPinningMonitor::describe)
+				.collect(Collectors.joining("\n\tat "));
+		logger.warning("Virtual thread pinned its carrier for " + event.getDuration().toMillis()
+				+ "ms in the " + path + " path:\n\tat " + frames);
+	}
+
+	private static String classify(RecordedEvent event) {
+		if (event.getStackTrace() == null) {
+			return "unknown";
+		}
+		for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+			if (!frame.isJavaFrame()) {
+				continue;
+			}
+			var className = frame.getMethod().getType().getName();
+			if (className.startsWith("com.mysql.") || className.startsWith("com.zaxxer.hikari.")
+					|| className.startsWith("java.sql.")) {
+				return "jdbc";
+			}
+			if (className.startsWith("org.hibernate.")) {
+				return "hibernate";
+			}
+			if (className.startsWith("com.github.dozermapper.")) {
+				return "dozer";
+			}
+		}
+		return "other";
+	}
+
+	private static String describe(RecordedFrame frame) {
+		return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+				+ "(line " + frame.getLineNumber() + ")";
+	}
+}
@@ -0,0 +1,21 @@
+package br.com.erudio.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class UnsupportedTusVersionException extends RuntimeException {
+	
+	private static final long serialVersionUID = 1L;
+	
+	private final String supportedVersions;
+
+	public UnsupportedTusVersionException(String ex, String supportedVersions) {
+		super(ex);
+		this.supportedVersions = supportedVersions;
+	}
+
+	public String getSupportedVersions() {
+		return supportedVersions;
+	}
+}
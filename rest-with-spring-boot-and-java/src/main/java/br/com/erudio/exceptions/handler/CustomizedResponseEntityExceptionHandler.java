@@ -2,6 +2,8 @@ package br.com.erudio.exceptions.handler;
 
 import java.util.Date;
 
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -12,7 +14,12 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 
 import br.com.erudio.exceptions.ExceptionResponse;
 import br.com.erudio.exceptions.InvalidJwtAuthenticationException;
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.exceptions.MyFileNotFoundException;
 import br.com.erudio.exceptions.ResourceNotFoundException;
+import br.com.erudio.exceptions.ServiceUnavailableException;
+import br.com.erudio.exceptions.UnsupportedTusVersionException;
+import br.com.erudio.exceptions.UploadOffsetConflictException;
 
 @ControllerAdvice
 @RestController
@@ -25,13 +32,52 @@ public class CustomizedResponseEntityExceptionHandler extends ResponseEntityExce
 		return new ResponseEntity<>(exceptionResponse, HttpStatus.INTERNAL_SERVER_ERROR);
 	}
 	
-	@ExceptionHandler(ResourceNotFoundException.class)
+	@ExceptionHandler({ResourceNotFoundException.class, MyFileNotFoundException.class})
 	public final ResponseEntity<ExceptionResponse> handleNotFoundExceptions(Exception ex, WebRequest request) {
 		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), ex.getMessage(), request.getDescription(false));
 		
 		return new ResponseEntity<>(exceptionResponse, HttpStatus.NOT_FOUND);
 	}
 	
+	@ExceptionHandler(InvalidRequestParameterException.class)
+	public final ResponseEntity<ExceptionResponse> handleBadRequestExceptions(Exception ex, WebRequest request) {
+		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), ex.getMessage(), request.getDescription(false));
+		
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.BAD_REQUEST);
+	}
+	
+	@ExceptionHandler(UploadOffsetConflictException.class)
+	public final ResponseEntity<ExceptionResponse> handleConflictExceptions(Exception ex, WebRequest request) {
+		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), ex.getMessage(), request.getDescription(false));
+		
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.CONFLICT);
+	}
+	
+	@ExceptionHandler(UnsupportedTusVersionException.class)
+	public final ResponseEntity<ExceptionResponse> handleUnsupportedTusVersionExceptions(UnsupportedTusVersionException ex, WebRequest request) {
+		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), ex.getMessage(), request.getDescription(false));
+		
+		return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+				.header("Tus-Version", ex.getSupportedVersions())
+				.body(exceptionResponse);
+	}
+	
+	@ExceptionHandler(ServiceUnavailableException.class)
+	public final ResponseEntity<ExceptionResponse> handleServiceUnavailableExceptions(ServiceUnavailableException ex, WebRequest request) {
+		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), ex.getMessage(), request.getDescription(false));
+		
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfter().toSeconds()))
+				.body(exceptionResponse);
+	}
+	
+	@ExceptionHandler(QueryTimeoutException.class)
+	public final ResponseEntity<ExceptionResponse> handleQueryTimeoutExceptions(Exception ex, WebRequest request) {
+		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), "The request deadline was exceeded!", request.getDescription(false));
+		
+		return new ResponseEntity<>(exceptionResponse, HttpStatus.GATEWAY_TIMEOUT);
+	}
+	
 	@ExceptionHandler(InvalidJwtAuthenticationException.class)
 	public final ResponseEntity<ExceptionResponse> handleInvalidJwtAuthenticationException(Exception ex, WebRequest request) {
 		ExceptionResponse exceptionResponse = new ExceptionResponse(new Date(), ex.getMessage(), request.getDescription(false));
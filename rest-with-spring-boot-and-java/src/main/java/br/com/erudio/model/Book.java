@@ -23,7 +23,7 @@ public class Book implements Serializable {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 	
-	@Column(nullable = false)
+	@Column(nullable = false, length = 180)
 	private String author;
 	
 	@Column(name = "launch_date", nullable = false)
@@ -33,6 +33,7 @@ public class Book implements Serializable {
 	@Column(nullable = false)
 	private Double price;
 	
+	@Column(length = 250)
 	private String title;
 	
 	public Book() {
@@ -0,0 +1,99 @@
+package br.com.erudio.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+@Entity
+@Table(name = "cold_objects")
+public class ColdObject implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String GZIP = "gzip";
+	public static final String IDENTITY = "identity";
+
+	@Id
+	@Column(name = "storage_key")
+	private String storageKey;
+	
+	@Column(nullable = false, length = 10)
+	private String encoding;
+	
+	@Column(name = "original_size", nullable = false)
+	private Long originalSize;
+	
+	@Column(name = "stored_size", nullable = false)
+	private Long storedSize;
+	
+	@Column(name = "archived_at", nullable = false)
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date archivedAt;
+	
+	public ColdObject() {
+	}
+
+	public String getStorageKey() {
+		return storageKey;
+	}
+
+	public void setStorageKey(String storageKey) {
+		this.storageKey = storageKey;
+	}
+
+	public String getEncoding() {
+		return encoding;
+	}
+
+	public void setEncoding(String encoding) {
+		this.encoding = encoding;
+	}
+
+	public Long getOriginalSize() {
+		return originalSize;
+	}
+
+	public void setOriginalSize(Long originalSize) {
+		this.originalSize = originalSize;
+	}
+
+	public Long getStoredSize() {
+		return storedSize;
+	}
+
+	public void setStoredSize(Long storedSize) {
+		this.storedSize = storedSize;
+	}
+
+	public Date getArchivedAt() {
+		return archivedAt;
+	}
+
+	public void setArchivedAt(Date archivedAt) {
+		this.archivedAt = archivedAt;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(storageKey);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ColdObject other = (ColdObject) obj;
+		return Objects.equals(storageKey, other.storageKey);
+	}
+}
@@ -0,0 +1,121 @@
+package br.com.erudio.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Temporal;
+import jakarta.persistence.TemporalType;
+
+@Entity
+@Table(name = "upload_sessions")
+public class UploadSession implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	@Id
+	@Column(length = 36)
+	private String id;
+	
+	@Column(name = "file_name", nullable = false)
+	private String fileName;
+	
+	@Column(name = "upload_length", nullable = false)
+	private Long uploadLength;
+	
+	@Column(name = "upload_offset", nullable = false)
+	private Long uploadOffset;
+	
+	/** SHA-256 state over the first uploadOffset bytes, see SHA256Digest#getEncodedState. */
+	@Column(name = "digest_state", length = 128)
+	private byte[] digestState;
+	
+	@Column(name = "created_at", nullable = false)
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date createdAt;
+	
+	@Column(name = "updated_at", nullable = false)
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date updatedAt;
+	
+	public UploadSession() {
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public void setId(String id) {
+		this.id = id;
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public void setFileName(String fileName) {
+		this.fileName = fileName;
+	}
+
+	public Long getUploadLength() {
+		return uploadLength;
+	}
+
+	public void setUploadLength(Long uploadLength) {
+		this.uploadLength = uploadLength;
+	}
+
+	public Long getUploadOffset() {
+		return uploadOffset;
+	}
+
+	public void setUploadOffset(Long uploadOffset) {
+		this.uploadOffset = uploadOffset;
+	}
+
+	public byte[] getDigestState() {
+		return digestState;
+	}
+
+	public void setDigestState(byte[] digestState) {
+		this.digestState = digestState;
+	}
+
+	public Date getCreatedAt() {
+		return createdAt;
+	}
+
+	public void setCreatedAt(Date createdAt) {
+		this.createdAt = createdAt;
+	}
+
+	public Date getUpdatedAt() {
+		return updatedAt;
+	}
+
+	public void setUpdatedAt(Date updatedAt) {
+		this.updatedAt = updatedAt;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(fileName, id, uploadLength, uploadOffset);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		UploadSession other = (UploadSession) obj;
+		return Objects.equals(fileName, other.fileName) && Objects.equals(id, other.id)
+				&& Objects.equals(uploadLength, other.uploadLength) && Objects.equals(uploadOffset, other.uploadOffset);
+	}
+}
@@ -0,0 +1,25 @@
+package br.com.erudio.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Non-blocking read-only deployment of the person and book catalog. It runs
+ * on WebFlux and R2DBC against the schema maintained by the main application
+ * and only scans br.com.erudio.reactive, so it starts none of the servlet,
+ * JPA or Flyway beans.
+ */
+@SpringBootApplication
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveStartup {
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveStartup.class)
+			.web(WebApplicationType.REACTIVE)
+			.profiles("reactive")
+			.run(args);
+	}
+}
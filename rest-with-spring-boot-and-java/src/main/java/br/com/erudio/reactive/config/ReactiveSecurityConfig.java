@@ -0,0 +1,92 @@
+package br.com.erudio.reactive.config;
+
+import java.util.Base64;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Accepts the access tokens issued by the servlet application. The user and
+ * roles are taken from the token claims, so no blocking user lookup happens
+ * on the event loop.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+	@Value("${security.jwt.token.secret-key:secret}")
+	private String secretKey = "secret";
+
+	@Bean
+	SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+		AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter(jwtAuthenticationManager());
+		jwtFilter.setServerAuthenticationConverter(exchange -> {
+			String bearerToken = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+			if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
+				String token = bearerToken.substring("Bearer ".length());
+				return Mono.just(new UsernamePasswordAuthenticationToken(token, token));
+			}
+			return Mono.empty();
+		});
+		jwtFilter.setSecurityContextRepository(NoOpServerSecurityContextRepository.getInstance());
+
+		return http
+				.httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+				.formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+				.csrf(ServerHttpSecurity.CsrfSpec::disable)
+				.securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+				.addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+				.exceptionHandling(exceptions -> exceptions
+						.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+				.authorizeExchange(exchanges -> exchanges
+						.pathMatchers("/api/**").authenticated()
+						.pathMatchers("/users").denyAll()
+						.anyExchange().permitAll())
+				.build();
+	}
+
+	private ReactiveAuthenticationManager jwtAuthenticationManager() {
+		String encodedKey = Base64.getEncoder().encodeToString(secretKey.getBytes());
+		JWTVerifier verifier = JWT.require(Algorithm.HMAC256(encodedKey.getBytes())).build();
+
+		return authentication -> {
+			String token = (String) authentication.getCredentials();
+			try {
+				DecodedJWT decodedJWT = verifier.verify(token);
+				List<String> roles = decodedJWT.getClaim("roles").asList(String.class);
+				var authorities = roles == null ? List.<SimpleGrantedAuthority>of()
+						: roles.stream().map(SimpleGrantedAuthority::new).toList();
+				return Mono.just(new UsernamePasswordAuthenticationToken(decodedJWT.getSubject(), token, authorities));
+			} catch (JWTVerificationException e) {
+				return Mono.error(new BadCredentialsException(
+						"Expired or invalid JWT Token", e));
+			}
+		};
+	}
+}
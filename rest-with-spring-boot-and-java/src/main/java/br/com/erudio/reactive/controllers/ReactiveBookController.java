@@ -0,0 +1,68 @@
+package br.com.erudio.reactive.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.ForwardedHeaderUtils;
+
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.reactive.services.ReactiveBookServices;
+import br.com.erudio.util.MediaType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@RequestMapping("/api/books/v1")
+public class ReactiveBookController {
+	
+	private static final String BASE_PATH = "/api/books/v1";
+	
+	@Autowired
+	private ReactiveBookServices service;
+
+	@GetMapping(produces = MediaType.APPLICATION_JSON)
+	public Mono<PagedModel<EntityModel<BookVO>>> findAll(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			ServerHttpRequest request) {
+		
+		return service.findAll(PageRequest.of(page, size), sortDirection(direction), baseHref(request));
+	}
+	
+	@GetMapping(produces = MediaType.APPLICATION_NDJSON)
+	public Flux<BookVO> streamAll(
+			@RequestParam(value = "page", defaultValue = "0") Integer page,
+			@RequestParam(value = "size", defaultValue = "12") Integer size,
+			@RequestParam(value = "direction", defaultValue = "ASC") String direction,
+			ServerHttpRequest request) {
+		
+		return service.streamAll(PageRequest.of(page, size), sortDirection(direction), baseHref(request));
+	}
+	
+	@GetMapping(value = "/{id}", produces = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_NDJSON})
+	public Mono<BookVO> findById(@PathVariable(value = "id") Long id, ServerHttpRequest request) {
+		
+		return service.findById(id, baseHref(request));
+	}
+	
+	private static Direction sortDirection(String direction) {
+		return "desc".equalsIgnoreCase(direction) ? Direction.DESC : Direction.ASC;
+	}
+	
+	private static String baseHref(ServerHttpRequest request) {
+		return ForwardedHeaderUtils.adaptFromForwardedHeaders(request.getURI(), request.getHeaders())
+				.replacePath(BASE_PATH).replaceQuery(null).toUriString();
+	}
+}
@@ -0,0 +1,62 @@
+package br.com.erudio.reactive.repositories;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import br.com.erudio.data.vo.v1.BookVO;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveBookRepository {
+
+	private static final String COLUMNS = "SELECT id, author, launch_date, price, title FROM books";
+
+	@Autowired
+	private DatabaseClient client;
+
+	public Flux<BookVO> findAll(Direction direction, long offset, int limit) {
+		return client.sql(COLUMNS + " ORDER BY author " + direction.name() + ", id LIMIT :limit OFFSET :offset")
+				.bind("limit", limit)
+				.bind("offset", offset)
+				.map(ReactiveBookRepository::toVO)
+				.all();
+	}
+
+	public Mono<Long> count() {
+		return client.sql("SELECT COUNT(*) FROM books")
+				.map(row -> row.get(0, Long.class))
+				.one();
+	}
+
+	public Mono<BookVO> findById(Long id) {
+		return client.sql(COLUMNS + " WHERE id = :id")
+				.bind("id", id)
+				.map(ReactiveBookRepository::toVO)
+				.one();
+	}
+
+	private static BookVO toVO(Readable row) {
+		BookVO vo = new BookVO();
+		vo.setKey(row.get("id", Long.class));
+		vo.setAuthor(row.get("author", String.class));
+		vo.setTitle(row.get("title", String.class));
+		
+		var price = row.get("price", BigDecimal.class);
+		vo.setPrice(price == null ? null : price.doubleValue());
+		
+		var launchDate = row.get("launch_date", LocalDateTime.class);
+		vo.setLaunchDate(launchDate == null ? null : Timestamp.valueOf(launchDate));
+		return vo;
+	}
+}
@@ -0,0 +1,72 @@
+package br.com.erudio.reactive.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import br.com.erudio.data.vo.v1.PersonVO;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactivePersonRepository {
+
+	private static final String COLUMNS = "SELECT id, first_name, last_name, address, gender, enabled FROM person";
+
+	@Autowired
+	private DatabaseClient client;
+
+	public Flux<PersonVO> findAll(Direction direction, long offset, int limit) {
+		return client.sql(COLUMNS + " ORDER BY first_name " + direction.name() + ", id LIMIT :limit OFFSET :offset")
+				.bind("limit", limit)
+				.bind("offset", offset)
+				.map(ReactivePersonRepository::toVO)
+				.all();
+	}
+
+	public Mono<Long> count() {
+		return client.sql("SELECT COUNT(*) FROM person")
+				.map(row -> row.get(0, Long.class))
+				.one();
+	}
+
+	public Flux<PersonVO> findPersonsByName(String firstName, Direction direction, long offset, int limit) {
+		return client.sql(COLUMNS + " WHERE LOWER(first_name) LIKE LOWER(CONCAT('%', :firstName, '%'))"
+					+ " ORDER BY first_name " + direction.name() + ", id LIMIT :limit OFFSET :offset")
+				.bind("firstName", firstName)
+				.bind("limit", limit)
+				.bind("offset", offset)
+				.map(ReactivePersonRepository::toVO)
+				.all();
+	}
+
+	public Mono<Long> countPersonsByName(String firstName) {
+		return client.sql("SELECT COUNT(*) FROM person WHERE LOWER(first_name) LIKE LOWER(CONCAT('%', :firstName, '%'))")
+				.bind("firstName", firstName)
+				.map(row -> row.get(0, Long.class))
+				.one();
+	}
+
+	public Mono<PersonVO> findById(Long id) {
+		return client.sql(COLUMNS + " WHERE id = :id")
+				.bind("id", id)
+				.map(ReactivePersonRepository::toVO)
+				.one();
+	}
+
+	private static PersonVO toVO(Readable row) {
+		PersonVO vo = new PersonVO();
+		vo.setKey(row.get("id", Long.class));
+		vo.setFirstName(row.get("first_name", String.class));
+		vo.setLastName(row.get("last_name", String.class));
+		vo.setAddress(row.get("address", String.class));
+		vo.setGender(row.get("gender", String.class));
+		vo.setEnabled(Boolean.TRUE.equals(row.get("enabled", Boolean.class)));
+		return vo;
+	}
+}
@@ -0,0 +1,44 @@
+package br.com.erudio.reactive.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.PagedModel.PageMetadata;
+
+/**
+ * Builds the same HAL page (metadata plus first/prev/self/next/last links) that
+ * PagedResourcesAssembler produces on the servlet stack.
+ */
+class PagedModels {
+
+	static <T> PagedModel<T> of(List<T> content, Pageable pageable, long totalElements, String baseHref,
+			Direction direction) {
+		var metadata = new PageMetadata(pageable.getPageSize(), pageable.getPageNumber(), totalElements);
+		long lastPage = Math.max(metadata.getTotalPages() - 1, 0);
+		int page = pageable.getPageNumber();
+		
+		List<Link> links = new ArrayList<>();
+		links.add(link(baseHref, 0, pageable, direction, IanaLinkRelations.FIRST));
+		if (page > 0) {
+			links.add(link(baseHref, page - 1, pageable, direction, IanaLinkRelations.PREV));
+		}
+		links.add(link(baseHref, page, pageable, direction, IanaLinkRelations.SELF));
+		if (page < lastPage) {
+			links.add(link(baseHref, page + 1, pageable, direction, IanaLinkRelations.NEXT));
+		}
+		links.add(link(baseHref, lastPage, pageable, direction, IanaLinkRelations.LAST));
+		
+		return PagedModel.of(content, metadata, links);
+	}
+
+	private static Link link(String baseHref, long page, Pageable pageable, Direction direction, LinkRelation rel) {
+		return Link.of(baseHref + "?page=" + page + "&size=" + pageable.getPageSize()
+				+ "&direction=" + direction.name().toLowerCase(), rel);
+	}
+}
@@ -0,0 +1,59 @@
+package br.com.erudio.reactive.services;
+
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.stereotype.Service;
+
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.exceptions.ResourceNotFoundException;
+import br.com.erudio.reactive.repositories.ReactiveBookRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveBookServices {
+	
+	private Logger logger = Logger.getLogger(ReactiveBookServices.class.getName());
+	
+	@Autowired
+	ReactiveBookRepository repository;
+
+	public Flux<BookVO> streamAll(Pageable pageable, Direction direction, String baseHref) {
+
+		logger.info("Streaming all books!");
+		
+		return repository.findAll(direction, pageable.getOffset(), pageable.getPageSize())
+				.map(b -> withSelfLink(b, baseHref));
+	}
+	
+	public Mono<PagedModel<EntityModel<BookVO>>> findAll(Pageable pageable, Direction direction, String baseHref) {
+
+		logger.info("Finding all books!");
+		
+		var content = streamAll(pageable, direction, baseHref).map(EntityModel::of).collectList();
+		return Mono.zip(content, repository.count())
+				.map(t -> PagedModels.of(t.getT1(), pageable, t.getT2(), baseHref, direction));
+	}
+
+	public Mono<BookVO> findById(Long id, String baseHref) {
+		
+		logger.info("Finding one Book!");
+		
+		return repository.findById(id)
+				.switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("No records found for this ID!")))
+				.map(b -> withSelfLink(b, baseHref));
+	}
+	
+	private BookVO withSelfLink(BookVO vo, String baseHref) {
+		return vo.add(Link.of(baseHref + "/" + vo.getKey()));
+	}
+}
@@ -0,0 +1,77 @@
+package br.com.erudio.reactive.services;
+
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.stereotype.Service;
+
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.exceptions.ResourceNotFoundException;
+import br.com.erudio.reactive.repositories.ReactivePersonRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactivePersonServices {
+	
+	private Logger logger = Logger.getLogger(ReactivePersonServices.class.getName());
+	
+	@Autowired
+	ReactivePersonRepository repository;
+
+	public Flux<PersonVO> streamAll(Pageable pageable, Direction direction, String baseHref) {
+
+		logger.info("Streaming all people!");
+		
+		return repository.findAll(direction, pageable.getOffset(), pageable.getPageSize())
+				.map(p -> withSelfLink(p, baseHref));
+	}
+	
+	public Mono<PagedModel<EntityModel<PersonVO>>> findAll(Pageable pageable, Direction direction, String baseHref) {
+
+		logger.info("Finding all people!");
+		
+		var content = streamAll(pageable, direction, baseHref).map(EntityModel::of).collectList();
+		return Mono.zip(content, repository.count())
+				.map(t -> PagedModels.of(t.getT1(), pageable, t.getT2(), baseHref, direction));
+	}
+	
+	public Flux<PersonVO> streamPersonsByName(String firstName, Pageable pageable, Direction direction, String baseHref) {
+		
+		logger.info("Streaming person by name!");
+		
+		return repository.findPersonsByName(firstName, direction, pageable.getOffset(), pageable.getPageSize())
+				.map(p -> withSelfLink(p, baseHref));
+	}
+	
+	public Mono<PagedModel<EntityModel<PersonVO>>> findPersonsByName(String firstName, Pageable pageable,
+			Direction direction, String baseHref, String pageHref) {
+		
+		logger.info("Finding person by name!");
+		
+		var content = streamPersonsByName(firstName, pageable, direction, baseHref).map(EntityModel::of).collectList();
+		return Mono.zip(content, repository.countPersonsByName(firstName))
+				.map(t -> PagedModels.of(t.getT1(), pageable, t.getT2(), pageHref, direction));
+	}
+
+	public Mono<PersonVO> findById(Long id, String baseHref) {
+		
+		logger.info("Finding one person!");
+		
+		return repository.findById(id)
+				.switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("No records found for this ID!")))
+				.map(p -> withSelfLink(p, baseHref));
+	}
+	
+	private PersonVO withSelfLink(PersonVO vo, String baseHref) {
+		return vo.add(Link.of(baseHref + "/" + vo.getKey()));
+	}
+}
@@ -1,9 +1,21 @@
 package br.com.erudio.repositories;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 
 import br.com.erudio.model.Book;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
 
+	@Query("SELECT b.price, COUNT(b) FROM Book b GROUP BY b.price")
+	List<Object[]> countByPrice();
+	
+	@Query("SELECT b.author, COUNT(b) FROM Book b GROUP BY b.author")
+	List<Object[]> countByAuthor();
+	
+	@Query("SELECT b.launchDate, COUNT(b) FROM Book b GROUP BY b.launchDate")
+	List<Object[]> countByLaunchDate();
 }
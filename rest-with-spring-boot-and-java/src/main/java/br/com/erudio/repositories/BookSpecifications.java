@@ -0,0 +1,93 @@
+package br.com.erudio.repositories;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import br.com.erudio.model.Book;
+
+/**
+ * Book filters written so MySQL can answer them from the (author, id),
+ * (price, id) and (launch_date, id) indexes: the columns are compared as
+ * they are stored (no functions around them) and the author match is a
+ * prefix. The author collation is case insensitive, so no LOWER() is needed.
+ * A filter for an absent value is null, which Specification.where ignores.
+ */
+public final class BookSpecifications {
+
+	private static final char ESCAPE = '\\';
+
+	private BookSpecifications() {
+	}
+
+	public static Specification<Book> authorStartsWith(String author) {
+		if (!StringUtils.hasText(author)) {
+			return null;
+		}
+		String pattern = escapeLike(author.trim()) + "%";
+		return (root, query, cb) -> cb.like(root.get("author"), pattern, ESCAPE);
+	}
+
+	public static Specification<Book> priceBetween(Double minPrice, Double maxPrice) {
+		if (minPrice == null && maxPrice == null) {
+			return null;
+		}
+		return (root, query, cb) -> {
+			if (minPrice == null) {
+				return cb.le(root.get("price"), maxPrice);
+			}
+			if (maxPrice == null) {
+				return cb.ge(root.get("price"), minPrice);
+			}
+			return cb.between(root.get("price"), minPrice, maxPrice);
+		};
+	}
+
+	/**
+	 * Books launched on or after from and on or before to (whole days).
+	 */
+	public static Specification<Book> launchedBetween(LocalDate from, LocalDate to) {
+		if (from == null && to == null) {
+			return null;
+		}
+		return (root, query, cb) -> {
+			var launchDate = root.<Date>get("launchDate");
+			var after = from != null ? cb.greaterThanOrEqualTo(launchDate, toDate(from)) : null;
+			var before = to != null ? cb.lessThan(launchDate, toDate(to.plusDays(1))) : null;
+			if (after == null) {
+				return before;
+			}
+			return before == null ? after : cb.and(after, before);
+		};
+	}
+
+	/**
+	 * Orders by the column of the index that serves the filter, with the id as
+	 * tie breaker so the index also yields the order and pages are stable.
+	 */
+	public static Sort sortFor(Direction direction, String author, Double minPrice, Double maxPrice,
+			LocalDate launchedFrom, LocalDate launchedTo) {
+		String property = "author";
+		if (!StringUtils.hasText(author)) {
+			if (minPrice != null || maxPrice != null) {
+				property = "price";
+			} else if (launchedFrom != null || launchedTo != null) {
+				property = "launchDate";
+			}
+		}
+		return Sort.by(direction, property, "id");
+	}
+
+	private static String escapeLike(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	private static Date toDate(LocalDate date) {
+		return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+}
@@ -0,0 +1,8 @@
+package br.com.erudio.repositories;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import br.com.erudio.model.ColdObject;
+
+public interface ColdObjectRepository extends JpaRepository<ColdObject, String> {
+}
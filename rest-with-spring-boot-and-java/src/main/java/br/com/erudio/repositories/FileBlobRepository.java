@@ -0,0 +1,33 @@
+package br.com.erudio.repositories;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.erudio.model.FileBlob;
+import jakarta.persistence.LockModeType;
+
+public interface FileBlobRepository extends JpaRepository<FileBlob, String> {
+
+	@Modifying
+	@Query(value = "INSERT INTO file_blobs (hash, size, ref_count, created_at) VALUES (:hash, :size, 1, NOW(6)) "
+			+ "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1", nativeQuery = true)
+	void acquire(@Param("hash") String hash, @Param("size") long size);
+	
+	@Modifying
+	@Query("UPDATE FileBlob b SET b.refCount = b.refCount - 1 WHERE b.hash = :hash AND b.refCount > 0")
+	void release(@Param("hash") String hash);
+	
+	@Query("SELECT b.hash FROM FileBlob b WHERE b.refCount = 0")
+	List<String> findUnreferenced(Pageable pageable);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT b FROM FileBlob b WHERE b.hash = :hash AND b.refCount = 0")
+	Optional<FileBlob> findUnreferencedForUpdate(@Param("hash") String hash);
+}
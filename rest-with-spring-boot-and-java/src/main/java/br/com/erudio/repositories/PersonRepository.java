@@ -3,18 +3,20 @@ package br.com.erudio.repositories;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import br.com.erudio.model.Person;
 
-public interface PersonRepository extends JpaRepository<Person, Long> {
+public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecificationExecutor<Person> {
 
 	@Modifying
 	@Query("UPDATE Person p SET p.enabled = false WHERE p.id =:id")
 	void disablePerson(@Param("id") Long id);
 	
-	@Query("SELECT p FROM Person p WHERE LOWER(p.firstName) LIKE LOWER(CONCAT('%', :firstName, '%'))")
-	Page<Person> findPersonsByName(@Param("firstName") String firstName, Pageable pageable);
+	default Page<Person> findPersonsByName(String firstName, Pageable pageable) {
+		return findAll(PersonSpecifications.firstNameContains(firstName), pageable);
+	}
 }
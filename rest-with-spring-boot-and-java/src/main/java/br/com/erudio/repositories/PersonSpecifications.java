@@ -0,0 +1,24 @@
+package br.com.erudio.repositories;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.erudio.model.Person;
+
+/**
+ * Person filters shared by the entity and the sparse fieldset queries, so a
+ * search returns the same rows whichever representation is asked for.
+ */
+public final class PersonSpecifications {
+
+	private PersonSpecifications() {
+	}
+
+	/**
+	 * First names containing the given text, ignoring case; both sides are
+	 * lowered by the database.
+	 */
+	public static Specification<Person> firstNameContains(String firstName) {
+		return (root, query, cb) -> cb.like(cb.lower(root.get("firstName")),
+				cb.lower(cb.concat(cb.concat("%", cb.literal(firstName)), "%")));
+	}
+}
@@ -0,0 +1,103 @@
+package br.com.erudio.repositories;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+/**
+ * Runs Criteria tuple queries that select only the requested attributes, so
+ * the column list sent to the database shrinks together with the payload.
+ */
+@Repository
+public class SparseFieldsetRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	public <T> Page<Map<String, Object>> findAll(Class<T> domainClass, List<String> fields,
+			Specification<T> spec, Pageable pageable) {
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<T> root = query.from(domainClass);
+
+		query.multiselect(selections(root, fields));
+		if (spec != null) {
+			query.where(spec.toPredicate(root, query, cb));
+		}
+		if (pageable.getSort().isSorted()) {
+			query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+		}
+
+		var typedQuery = entityManager.createQuery(query);
+		if (pageable.isPaged()) {
+			typedQuery.setFirstResult((int) pageable.getOffset());
+			typedQuery.setMaxResults(pageable.getPageSize());
+		}
+
+		List<Map<String, Object>> content = typedQuery.getResultList().stream()
+				.map(tuple -> toMap(tuple, fields))
+				.toList();
+
+		return PageableExecutionUtils.getPage(content, pageable, () -> count(domainClass, spec));
+	}
+
+	public <T> Optional<Map<String, Object>> findById(Class<T> domainClass, List<String> fields, Object id) {
+
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Tuple> query = cb.createTupleQuery();
+		Root<T> root = query.from(domainClass);
+
+		query.multiselect(selections(root, fields));
+		query.where(cb.equal(root.get("id"), id));
+
+		return entityManager.createQuery(query).getResultList().stream()
+				.findFirst()
+				.map(tuple -> toMap(tuple, fields));
+	}
+
+	private <T> long count(Class<T> domainClass, Specification<T> spec) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<T> root = query.from(domainClass);
+
+		query.select(cb.count(root));
+		if (spec != null) {
+			query.where(spec.toPredicate(root, query, cb));
+		}
+		return entityManager.createQuery(query).getSingleResult();
+	}
+
+	private List<Selection<?>> selections(Root<?> root, List<String> fields) {
+		List<Selection<?>> selections = new ArrayList<>();
+		for (String field : fields) {
+			selections.add(root.get(field).alias(field));
+		}
+		return selections;
+	}
+
+	private Map<String, Object> toMap(Tuple tuple, List<String> fields) {
+		Map<String, Object> values = new LinkedHashMap<>();
+		for (String field : fields) {
+			values.put(field, tuple.get(field));
+		}
+		return values;
+	}
+}
@@ -0,0 +1,35 @@
+package br.com.erudio.repositories;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import br.com.erudio.model.StoredFile;
+import jakarta.persistence.LockModeType;
+
+public interface StoredFileRepository extends JpaRepository<StoredFile, Long> {
+
+	Optional<StoredFile> findByFileName(String fileName);
+	
+	List<StoredFile> findByFileNameStartingWithOrderByFileName(String prefix);
+	
+	Page<StoredFile> findByUpdatedAtBefore(Date updatedAt, Pageable pageable);
+	
+	boolean existsByHash(String hash);
+	
+	@Modifying
+	@Query("UPDATE StoredFile f SET f.gzipSize = :gzipSize WHERE f.hash = :hash")
+	int updateGzipSize(@Param("hash") String hash, @Param("gzipSize") Long gzipSize);
+	
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("SELECT f FROM StoredFile f WHERE f.fileName = :fileName")
+	Optional<StoredFile> findByFileNameForUpdate(@Param("fileName") String fileName);
+}
@@ -0,0 +1,24 @@
+package br.com.erudio.repositories;
+
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.erudio.model.UploadSession;
+
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE UploadSession u SET u.uploadOffset = :newOffset, u.digestState = :digestState, u.updatedAt = :updatedAt "
+			+ "WHERE u.id = :id AND u.uploadOffset = :expectedOffset")
+	int advanceOffset(@Param("id") String id, @Param("expectedOffset") long expectedOffset,
+			@Param("newOffset") long newOffset, @Param("digestState") byte[] digestState, @Param("updatedAt") Date updatedAt);
+	
+	List<UploadSession> findByUpdatedAtBefore(Date cutoff);
+}
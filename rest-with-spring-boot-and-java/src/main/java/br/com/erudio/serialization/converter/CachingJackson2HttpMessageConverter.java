@@ -0,0 +1,115 @@
+package br.com.erudio.serialization.converter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonInputMessage;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.util.StreamUtils;
+import org.springframework.util.TypeUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Jackson converter that keeps one configured {@link ObjectWriter} and
+ * {@link ObjectReader} per target type instead of deriving them from the
+ * mapper on every request, and writes straight through the streaming
+ * generator of the underlying format.
+ *
+ * Only plain UTF-8 bodies of types without a registered mapper take the
+ * cached path; JSON views and filters ({@link MappingJacksonValue}),
+ * other charsets and event streams go through the superclass. Writers
+ * come from the mapper, so its indentation and pretty printer apply.
+ */
+public abstract class CachingJackson2HttpMessageConverter extends AbstractJackson2HttpMessageConverter {
+
+	private static final int MAX_TYPES = 512;
+
+	private final Cache<JavaType, ObjectWriter> writers = Caffeine.newBuilder()
+			.maximumSize(MAX_TYPES)
+			.build();
+
+	private final Cache<JavaType, ObjectReader> readers = Caffeine.newBuilder()
+			.maximumSize(MAX_TYPES)
+			.build();
+
+	protected CachingJackson2HttpMessageConverter(ObjectMapper objectMapper, MediaType... supportedMediaTypes) {
+		super(objectMapper, supportedMediaTypes);
+	}
+
+	@Override
+	public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+		JavaType javaType = getJavaType(type, contextClass);
+		if (!isCacheable(javaType.getRawClass(), inputMessage.getHeaders().getContentType())
+				|| hasDeserializationView(inputMessage)) {
+			return super.read(type, contextClass, inputMessage);
+		}
+		return readJavaType(javaType, inputMessage);
+	}
+
+	@Override
+	protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+			throws IOException, HttpMessageNotReadableException {
+		if (!isCacheable(clazz, inputMessage.getHeaders().getContentType()) || hasDeserializationView(inputMessage)) {
+			return super.readInternal(clazz, inputMessage);
+		}
+		return readJavaType(getJavaType(clazz, null), inputMessage);
+	}
+
+	@Override
+	protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+			throws IOException, HttpMessageNotWritableException {
+		MediaType contentType = outputMessage.getHeaders().getContentType();
+		if (object instanceof MappingJacksonValue || !isCacheable(object.getClass(), contentType)
+				|| MediaType.TEXT_EVENT_STREAM.isCompatibleWith(contentType)) {
+			super.writeInternal(object, type, outputMessage);
+			return;
+		}
+		
+		JavaType javaType = (type != null && TypeUtils.isAssignable(type, object.getClass()))
+				? getJavaType(type, null)
+				: getObjectMapper().constructType(object.getClass());
+		ObjectWriter writer = writers.get(javaType, t -> getObjectMapper().writerFor(t));
+		
+		try {
+			writer.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), object);
+		} catch (JsonProcessingException ex) {
+			throw new HttpMessageNotWritableException("Could not write content: " + ex.getOriginalMessage(), ex);
+		}
+	}
+
+	private boolean isCacheable(Class<?> clazz, MediaType contentType) {
+		Charset charset = contentType != null ? contentType.getCharset() : null;
+		return (charset == null || StandardCharsets.UTF_8.equals(charset))
+				&& getObjectMappersForType(clazz).isEmpty();
+	}
+
+	private static boolean hasDeserializationView(HttpInputMessage inputMessage) {
+		return inputMessage instanceof MappingJacksonInputMessage message && message.getDeserializationView() != null;
+	}
+
+	private Object readJavaType(JavaType javaType, HttpInputMessage inputMessage) throws IOException {
+		ObjectReader reader = readers.get(javaType, t -> getObjectMapper().readerFor(t));
+		
+		try {
+			return reader.readValue(inputMessage.getBody());
+		} catch (JsonProcessingException ex) {
+			throw new HttpMessageNotReadableException("Could not read content: " + ex.getOriginalMessage(), ex, inputMessage);
+		}
+	}
+}
@@ -0,0 +1,20 @@
+package br.com.erudio.serialization.converter;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * XML converter built like Spring's: the builder's XmlMapper already reads
+ * through a StAX factory with DTDs and external entities disabled.
+ */
+public class XmlJackson2HttpMessageConverter extends CachingJackson2HttpMessageConverter {
+
+	public XmlJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		super(
+				builder.createXmlMapper(true).build(),
+				MediaType.APPLICATION_XML,
+				MediaType.TEXT_XML,
+				new MediaType("application", "*+xml")
+			);
+	}
+}
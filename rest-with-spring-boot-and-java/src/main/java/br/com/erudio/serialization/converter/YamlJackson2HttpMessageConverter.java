@@ -1,11 +1,10 @@
 package br.com.erudio.serialization.converter;
 
 import org.springframework.http.MediaType;
-import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 
-public class YamlJackson2HttpMessageConverter extends AbstractJackson2HttpMessageConverter{
+public class YamlJackson2HttpMessageConverter extends CachingJackson2HttpMessageConverter{
 
 	public YamlJackson2HttpMessageConverter() {
 		super(
@@ -0,0 +1,65 @@
+package br.com.erudio.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import br.com.erudio.data.vo.v1.BatchVO;
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+
+/**
+ * Resolves a list of ids with IN queries of at most chunkSize ids, so a client
+ * holding N ids makes one request instead of N. The result follows the order
+ * of the request (duplicates are returned once) and lists the ids that were
+ * not found instead of failing the whole batch.
+ */
+@Service
+public class BatchLoader {
+
+	@Value("${batch.max-ids:200}")
+	private int maxIds = 200;
+
+	@Value("${batch.chunk-size:100}")
+	private int chunkSize = 100;
+
+	public <E, V> BatchVO<V> load(List<Long> ids, Function<List<Long>, List<E>> finder,
+			Function<E, Long> idOf, Function<E, V> mapper) {
+		if (ids == null || ids.isEmpty()) {
+			throw new InvalidRequestParameterException("At least one id is required!");
+		}
+		var distinct = new LinkedHashSet<Long>(ids);
+		if (distinct.contains(null)) {
+			throw new InvalidRequestParameterException("The ids must not be empty!");
+		}
+		if (distinct.size() > maxIds) {
+			throw new InvalidRequestParameterException("At most " + maxIds + " ids can be requested at once!");
+		}
+
+		List<Long> requested = new ArrayList<>(distinct);
+		Map<Long, E> found = new HashMap<>(requested.size() * 2);
+		for (int from = 0; from < requested.size(); from += chunkSize) {
+			var chunk = requested.subList(from, Math.min(from + chunkSize, requested.size()));
+			for (E entity : finder.apply(chunk)) {
+				found.put(idOf.apply(entity), entity);
+			}
+		}
+
+		List<V> content = new ArrayList<>(found.size());
+		List<Long> notFound = new ArrayList<>();
+		for (Long id : requested) {
+			E entity = found.get(id);
+			if (entity != null) {
+				content.add(mapper.apply(entity));
+			} else {
+				notFound.add(id);
+			}
+		}
+		return new BatchVO<>(content, notFound);
+	}
+}
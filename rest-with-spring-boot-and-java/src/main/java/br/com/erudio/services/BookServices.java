@@ -1,9 +1,14 @@
 package br.com.erudio.services;
 
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
@@ -14,11 +19,18 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 import org.springframework.stereotype.Service;
 
 import br.com.erudio.controllers.BookController;
+import br.com.erudio.data.vo.v1.BatchVO;
+import br.com.erudio.data.vo.v1.BookStatsVO;
 import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.data.vo.v1.PageVO;
 import br.com.erudio.exceptions.ResourceNotFoundException;
 import br.com.erudio.mapper.DozerMapper;
 import br.com.erudio.model.Book;
 import br.com.erudio.repositories.BookRepository;
+import br.com.erudio.repositories.BookSpecifications;
+import br.com.erudio.repositories.SparseFieldsetRepository;
+import br.com.erudio.util.SparseFieldset;
+import br.com.erudio.util.filter.FilterField;
 
 @Service
 public class BookServices {
@@ -31,11 +43,34 @@ public class BookServices {
 	@Autowired
 	PagedResourcesAssembler<BookVO> assembler;
 	
-	public PagedModel<EntityModel<BookVO>> findAll(Pageable pageable) {
+	@Autowired
+	SparseFieldsetRepository fieldsetRepository;
+	
+	@Autowired
+	BookStatisticsService statistics;
+	
+	@Autowired
+	FilterCompiler filterCompiler;
+	
+	@Autowired
+	BatchLoader batchLoader;
+	
+	private static final List<String> FIELDS = List.of("id", "author", "launchDate", "price", "title");
+	
+	private static final Map<String, FilterField> FILTER_FIELDS = FilterField.of(
+			FilterField.indexed("id", Long.class),
+			FilterField.indexed("author", String.class),
+			FilterField.unindexed("title", String.class),
+			FilterField.indexed("price", Double.class),
+			FilterField.indexed("launchDate", Date.class));
+	
+	public PagedModel<EntityModel<BookVO>> findAll(String author, Double minPrice, Double maxPrice,
+			LocalDate launchedFrom, LocalDate launchedTo, String filter, Pageable pageable) {
 
-		logger.info("Finding all people!");
+		logger.info("Finding all books!");
 		
-		var bookPage = repository.findAll(pageable);
+		var spec = specification(author, minPrice, maxPrice, launchedFrom, launchedTo, filter, pageable);
+		var bookPage = repository.findAll(spec, pageable);
 		var bookVosPage = bookPage.map(b -> DozerMapper.parseObject(b, BookVO.class));
 		
 		bookVosPage.map(
@@ -52,10 +87,58 @@ public class BookServices {
 					return null;
 				});
 
-		Link link = linkTo(methodOn(BookController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
+		Link link = linkTo(methodOn(BookController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc",
+				author, minPrice, maxPrice, launchedFrom, launchedTo, filter)).withSelfRel();
 		return assembler.toModel(bookVosPage, link);
 	}
 
+	public BookStatsVO getStatistics() {
+
+		logger.info("Reading book statistics!");
+		
+		return statistics.getStatistics();
+	}
+
+	public PageVO<BookVO> findAllCompact(String author, Double minPrice, Double maxPrice,
+			LocalDate launchedFrom, LocalDate launchedTo, String filter, Pageable pageable) {
+
+		logger.info("Finding all books (compact)!");
+		
+		var spec = specification(author, minPrice, maxPrice, launchedFrom, launchedTo, filter, pageable);
+		var bookPage = repository.findAll(spec, pageable);
+		return new PageVO<>(bookPage.map(b -> DozerMapper.parseObject(b, BookVO.class)));
+	}
+
+	public PageVO<Map<String, Object>> findAll(String fields, String author, Double minPrice, Double maxPrice,
+			LocalDate launchedFrom, LocalDate launchedTo, String filter, Pageable pageable) {
+
+		logger.info("Finding all books with fields " + fields + "!");
+		
+		var selected = SparseFieldset.parse(fields, FIELDS);
+		var spec = specification(author, minPrice, maxPrice, launchedFrom, launchedTo, filter, pageable);
+		return new PageVO<>(fieldsetRepository.findAll(Book.class, selected, spec, pageable));
+	}
+	
+	public Map<String, Object> findById(Long id, String fields) {
+		
+		logger.info("Finding one Book with fields " + fields + "!");
+		
+		var selected = SparseFieldset.parse(fields, FIELDS);
+		return fieldsetRepository.findById(Book.class, selected, id)
+			.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+	}
+
+	public BatchVO<BookVO> findByIds(List<Long> ids) {
+		
+		logger.info("Finding " + (ids == null ? 0 : ids.size()) + " books by id!");
+		
+		return batchLoader.load(ids, repository::findAllById, Book::getId, entity -> {
+			var vo = DozerMapper.parseObject(entity, BookVO.class);
+			vo.add(linkTo(BookController.class).slash(entity.getId()).withSelfRel());
+			return vo;
+		});
+	}
+
 	public BookVO findById(Long id) throws Exception {
 		
 		logger.info("Finding one Book!");
@@ -72,7 +155,9 @@ public class BookServices {
 
 		logger.info("Creating one Book!");
 		var entity = DozerMapper.parseObject(Book, Book.class);
-		var vo =  DozerMapper.parseObject(repository.save(entity), BookVO.class);
+		var saved = repository.save(entity);
+		statistics.add(saved);
+		var vo =  DozerMapper.parseObject(saved, BookVO.class);
 		vo.add(linkTo(methodOn(BookController.class).findById(vo.getKey())).withSelfRel());
 		
 		return vo;
@@ -84,13 +169,17 @@ public class BookServices {
 		
 		var entity = repository.findById(Book.getKey())
 			.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+		var previous = DozerMapper.parseObject(entity, Book.class);
 
 		entity.setAuthor(Book.getAuthor());
 		entity.setPrice(Book.getPrice());
 		entity.setTitle(Book.getTitle());
 		entity.setLaunchDate(Book.getLaunchDate());
 		
-		var vo =  DozerMapper.parseObject(repository.save(entity), BookVO.class);
+		var saved = repository.save(entity);
+		statistics.remove(previous);
+		statistics.add(saved);
+		var vo =  DozerMapper.parseObject(saved, BookVO.class);
 		vo.add(linkTo(methodOn(BookController.class).findById(vo.getKey())).withSelfRel());
 		
 		return vo;
@@ -103,5 +192,14 @@ public class BookServices {
 		var entity = repository.findById(id)
 				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
 		repository.delete(entity);
+		statistics.remove(entity);
+	}
+	
+	private Specification<Book> specification(String author, Double minPrice, Double maxPrice,
+			LocalDate launchedFrom, LocalDate launchedTo, String filter, Pageable pageable) {
+		return Specification.where(BookSpecifications.authorStartsWith(author))
+				.and(BookSpecifications.priceBetween(minPrice, maxPrice))
+				.and(BookSpecifications.launchedBetween(launchedFrom, launchedTo))
+				.and(filter != null ? filterCompiler.compile(Book.class, FILTER_FIELDS, filter, pageable) : null);
 	}
 }
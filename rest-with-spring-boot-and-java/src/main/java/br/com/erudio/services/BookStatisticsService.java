@@ -0,0 +1,168 @@
+package br.com.erudio.services;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.erudio.data.vo.v1.BookStatsVO;
+import br.com.erudio.model.Book;
+import br.com.erudio.repositories.BookRepository;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2IntRBTreeMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * Catalog statistics kept in memory and updated as books are created,
+ * updated and deleted, so they are answered without scanning the table.
+ * Prices are held in cents in a sorted multiset, which gives the minimum and
+ * maximum after a removal and an exact sum; the counts per author and per
+ * launch year are primitive int maps. The aggregates are rebuilt from the
+ * database at startup and periodically, which also repairs any drift from
+ * concurrent updates of the same book.
+ */
+@Service
+public class BookStatisticsService {
+
+	private Logger logger = Logger.getLogger(BookStatisticsService.class.getName());
+
+	@Autowired
+	BookRepository repository;
+
+	private final Long2IntRBTreeMap pricesInCents = new Long2IntRBTreeMap();
+	private final Object2IntOpenHashMap<String> booksPerAuthor = new Object2IntOpenHashMap<>();
+	private final Int2IntOpenHashMap booksPerLaunchYear = new Int2IntOpenHashMap();
+	private long count;
+	private long priceSumInCents;
+
+	private volatile BookStatsVO snapshot;
+
+	@EventListener(ApplicationReadyEvent.class)
+	@Scheduled(fixedDelayString = "${books.stats-rebuild-interval:PT1H}", initialDelayString = "${books.stats-rebuild-interval:PT1H}")
+	public void rebuild() {
+		var prices = repository.countByPrice();
+		var authors = repository.countByAuthor();
+		var launchDates = repository.countByLaunchDate();
+
+		synchronized (this) {
+			pricesInCents.clear();
+			booksPerAuthor.clear();
+			booksPerLaunchYear.clear();
+			count = 0;
+			priceSumInCents = 0;
+			for (Object[] row : prices) {
+				long cents = toCents(((Number) row[0]).doubleValue());
+				int books = ((Number) row[1]).intValue();
+				pricesInCents.addTo(cents, books);
+				count += books;
+				priceSumInCents += cents * books;
+			}
+			for (Object[] row : authors) {
+				booksPerAuthor.addTo((String) row[0], ((Number) row[1]).intValue());
+			}
+			for (Object[] row : launchDates) {
+				booksPerLaunchYear.addTo(year((Date) row[0]), ((Number) row[1]).intValue());
+			}
+			snapshot = null;
+		}
+		logger.info("Rebuilt the statistics of " + count + " books");
+	}
+
+	public synchronized void add(Book book) {
+		long cents = toCents(book.getPrice());
+		pricesInCents.addTo(cents, 1);
+		booksPerAuthor.addTo(book.getAuthor(), 1);
+		booksPerLaunchYear.addTo(year(book.getLaunchDate()), 1);
+		count++;
+		priceSumInCents += cents;
+		snapshot = null;
+	}
+
+	/**
+	 * Takes a book out of the aggregates. A value that is not there (a book
+	 * the last rebuild did not see) is left alone rather than counted below
+	 * zero; the next rebuild settles it.
+	 */
+	public synchronized void remove(Book book) {
+		long cents = toCents(book.getPrice());
+		int books = pricesInCents.get(cents);
+		if (books > 0) {
+			if (books == 1) {
+				pricesInCents.remove(cents);
+			} else {
+				pricesInCents.put(cents, books - 1);
+			}
+			count--;
+			priceSumInCents -= cents;
+		}
+		int byAuthor = booksPerAuthor.getInt(book.getAuthor());
+		if (byAuthor == 1) {
+			booksPerAuthor.removeInt(book.getAuthor());
+		} else if (byAuthor > 1) {
+			booksPerAuthor.put(book.getAuthor(), byAuthor - 1);
+		}
+		int year = year(book.getLaunchDate());
+		int inYear = booksPerLaunchYear.get(year);
+		if (inYear == 1) {
+			booksPerLaunchYear.remove(year);
+		} else if (inYear > 1) {
+			booksPerLaunchYear.put(year, inYear - 1);
+		}
+		snapshot = null;
+	}
+
+	/**
+	 * Returns the current statistics; the view is built once per change.
+	 */
+	public BookStatsVO getStatistics() {
+		BookStatsVO current = snapshot;
+		if (current == null) {
+			synchronized (this) {
+				current = snapshot;
+				if (current == null) {
+					current = buildSnapshot();
+					snapshot = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	private BookStatsVO buildSnapshot() {
+		var vo = new BookStatsVO();
+		vo.setCount(count);
+		if (count > 0) {
+			vo.setMinPrice(pricesInCents.firstLongKey() / 100.0);
+			vo.setMaxPrice(pricesInCents.lastLongKey() / 100.0);
+			vo.setAvgPrice(Math.round((double) priceSumInCents / count) / 100.0);
+		}
+		Map<String, Integer> authors = new TreeMap<>();
+		booksPerAuthor.object2IntEntrySet().fastForEach(entry -> authors.put(entry.getKey(), entry.getIntValue()));
+		vo.setBooksPerAuthor(authors);
+		Map<Integer, Integer> years = new TreeMap<>();
+		booksPerLaunchYear.int2IntEntrySet().fastForEach(entry -> years.put(entry.getIntKey(), entry.getIntValue()));
+		vo.setBooksPerLaunchYear(years);
+		return vo;
+	}
+
+	private static long toCents(double price) {
+		return Math.round(price * 100);
+	}
+
+	/**
+	 * The launch year, taken in UTC like the JDBC connection (serverTimezone)
+	 * does; the rebuild goes through here too, so a book always lands in the
+	 * same year whichever path counted it.
+	 */
+	private static int year(Date date) {
+		return Instant.ofEpochMilli(date.getTime()).atZone(ZoneOffset.UTC).getYear();
+	}
+}
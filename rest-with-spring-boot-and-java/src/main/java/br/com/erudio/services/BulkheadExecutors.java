@@ -0,0 +1,88 @@
+package br.com.erudio.services;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import br.com.erudio.config.BulkheadConfig;
+import br.com.erudio.util.TrafficClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * One bounded executor per traffic class. A class that is saturated fills
+ * its own threads and queue and is then rejected, while the other classes
+ * keep theirs. Saturation is published per class as executor.active,
+ * executor.queued and executor.pool.size (name=bulkhead.&lt;class&gt;) and
+ * bulkhead.rejected.
+ */
+@Service
+public class BulkheadExecutors {
+
+	private final Map<TrafficClass, ThreadPoolExecutor> executors = new EnumMap<>(TrafficClass.class);
+	private final Map<TrafficClass, Counter> rejected = new EnumMap<>(TrafficClass.class);
+
+	@Autowired
+	public BulkheadExecutors(BulkheadConfig config, ObjectProvider<MeterRegistry> meterRegistry) {
+		var registry = meterRegistry.getIfAvailable();
+		for (TrafficClass trafficClass : TrafficClass.values()) {
+			var partition = config.get(trafficClass);
+			var executor = new ThreadPoolExecutor(partition.getThreads(), partition.getThreads(), 60, TimeUnit.SECONDS,
+					new ArrayBlockingQueue<>(Math.max(1, partition.getQueueCapacity())),
+					new CustomizableThreadFactory("bulkhead-" + trafficClass.key() + "-"),
+					new ThreadPoolExecutor.AbortPolicy());
+			executor.allowCoreThreadTimeOut(true);
+			executors.put(trafficClass, executor);
+			if (registry != null) {
+				new ExecutorServiceMetrics(executor, "bulkhead." + trafficClass.key(), List.of()).bindTo(registry);
+				rejected.put(trafficClass, Counter.builder("bulkhead.rejected")
+						.tag("class", trafficClass.key())
+						.register(registry));
+			}
+		}
+	}
+
+	/**
+	 * Runs the task on the executor of its class, with the class bound to the
+	 * thread; returns false when the class is saturated.
+	 */
+	public boolean execute(TrafficClass trafficClass, Runnable task) {
+		try {
+			executors.get(trafficClass).execute(() -> TrafficClass.callAs(trafficClass, () -> {
+				task.run();
+				return null;
+			}));
+			return true;
+		} catch (RejectedExecutionException e) {
+			var counter = rejected.get(trafficClass);
+			if (counter != null) {
+				counter.increment();
+			}
+			return false;
+		}
+	}
+
+	public int getActiveCount(TrafficClass trafficClass) {
+		return executors.get(trafficClass).getActiveCount();
+	}
+
+	public int getQueuedCount(TrafficClass trafficClass) {
+		return executors.get(trafficClass).getQueue().size();
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executors.values().forEach(ThreadPoolExecutor::shutdown);
+	}
+}
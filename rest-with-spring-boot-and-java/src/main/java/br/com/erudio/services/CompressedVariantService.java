@@ -0,0 +1,256 @@
+package br.com.erudio.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.services.storage.StorageBackend;
+import br.com.erudio.util.CompressionSaving;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps a gzip variant of every compressible file (text, CSV, JSON, XML...)
+ * next to it in the storage backend, so downloads can be sent compressed
+ * without compressing on every request. Variants are generated in the
+ * background at the best compression level once the upload has committed,
+ * keyed by content hash so files with the same content share one, and are
+ * only kept when they save enough (see {@link CompressionSaving}).
+ */
+@Service
+public class CompressedVariantService {
+
+	public static final String GZIP = "gzip";
+
+	private static final String VARIANT_PREFIX = ".variants/";
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_QUEUED = 1000;
+
+	private Logger logger = Logger.getLogger(CompressedVariantService.class.getName());
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	@Autowired
+	private FileMetadataService metadataService;
+
+	@Autowired
+	private StorageBackend storage;
+
+	private final Path stagingLocation;
+	private final long minSize;
+	private final ThreadPoolExecutor executor;
+	private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+	@Autowired
+	public CompressedVariantService(FileStorageConfig fileStorageConfig) {
+		this.stagingLocation = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+		this.minSize = fileStorageConfig.getCompressionMinSize().toBytes();
+		int threads = fileStorageConfig.getCompressionThreads();
+		// A dropped task is not lost: the variant is scheduled again on the next download.
+		this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<>(MAX_QUEUED), new CustomizableThreadFactory("file-compress-"),
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onFileStored(FileStoredEvent event) {
+		String previousHash = event.previousHash();
+		if (previousHash != null && !previousHash.equals(event.file().getHash())) {
+			submit(() -> release(previousHash));
+		}
+		schedule(event.file());
+	}
+
+	/**
+	 * Queues the generation of the gzip variant if the file should have one
+	 * and it has not been generated yet.
+	 */
+	public void schedule(StoredFile metadata) {
+		if (metadata.getGzipSize() != null || !shouldCompress(metadata) || !pending.add(metadata.getHash())) {
+			return;
+		}
+		if (!submit(() -> {
+			try {
+				generate(metadata);
+			} finally {
+				pending.remove(metadata.getHash());
+			}
+		})) {
+			pending.remove(metadata.getHash());
+		}
+	}
+
+	/**
+	 * Generates the gzip variant of the file, or reuses the one already stored
+	 * for the same content, and records its size (-1 when not worth keeping).
+	 */
+	public long generate(StoredFile metadata) {
+		String key = variantKey(metadata.getHash());
+		Path staged = null;
+		try {
+			var existing = storage.stat(key);
+			long gzipSize;
+			if (existing.isPresent()) {
+				gzipSize = existing.get().size();
+			} else {
+				staged = Files.createTempFile(stagingLocation, ".variant-", ".part");
+				try (InputStream in = fileStorageService.open(metadata);
+						OutputStream out = new BestGzipOutputStream(Files.newOutputStream(staged))) {
+					in.transferTo(out);
+				}
+				gzipSize = Files.size(staged);
+				if (!CompressionSaving.isWorthKeeping(metadata.getSize(), gzipSize)) {
+					gzipSize = -1;
+				} else {
+					storage.put(key, staged);
+				}
+			}
+			metadataService.recordVariant(metadata.getHash(), gzipSize);
+			return gzipSize;
+		} catch (IOException | RuntimeException e) {
+			logger.warning("Could not compress " + metadata.getFileName() + ": " + e.getMessage());
+			return -1;
+		} finally {
+			deleteStaged(staged);
+		}
+	}
+
+	public Optional<Path> localVariant(StoredFile metadata) throws IOException {
+		return Optional.ofNullable(storage.localFile(variantKey(metadata.getHash())));
+	}
+
+	public InputStream openVariant(StoredFile metadata) throws IOException {
+		return storage.open(variantKey(metadata.getHash()));
+	}
+
+	public boolean hasVariant(StoredFile metadata) {
+		return metadata.getGzipSize() != null && metadata.getGzipSize() >= 0;
+	}
+
+	public boolean shouldCompress(StoredFile metadata) {
+		return metadata.getHash() != null && metadata.getSize() >= minSize && isCompressible(metadata.getContentType());
+	}
+
+	public static String variantEtag(StoredFile metadata) {
+		return "\"" + metadata.getHash() + "-" + GZIP + "\"";
+	}
+
+	public static boolean isCompressible(String contentType) {
+		if (!StringUtils.hasText(contentType)) {
+			return false;
+		}
+		MediaType type;
+		try {
+			type = MediaType.parseMediaType(contentType);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+		String subtype = type.getSubtype();
+		return "text".equals(type.getType())
+				|| subtype.endsWith("json") || subtype.endsWith("xml")
+				|| subtype.equals("javascript") || subtype.equals("csv")
+				|| subtype.equals("x-yaml") || subtype.equals("yaml");
+	}
+
+	/**
+	 * Whether the Accept-Encoding header allows a gzip response: gzip or *
+	 * listed with a non-zero quality.
+	 */
+	public static boolean acceptsGzip(String acceptEncoding) {
+		if (!StringUtils.hasText(acceptEncoding)) {
+			return false;
+		}
+		Double gzip = null;
+		Double any = null;
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.trim().split(";");
+			String name = parts[0].trim().toLowerCase();
+			double quality = 1;
+			for (int i = 1; i < parts.length; i++) {
+				String parameter = parts[i].trim();
+				if (parameter.startsWith("q=")) {
+					try {
+						quality = Double.parseDouble(parameter.substring(2));
+					} catch (NumberFormatException e) {
+						quality = 0;
+					}
+				}
+			}
+			if (name.equals(GZIP) || name.equals("x-gzip")) {
+				gzip = quality;
+			} else if (name.equals("*")) {
+				any = quality;
+			}
+		}
+		return gzip != null ? gzip > 0 : any != null && any > 0;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+
+	private void release(String hash) {
+		try {
+			if (!metadataService.isReferenced(hash)) {
+				storage.delete(variantKey(hash));
+			}
+		} catch (IOException | RuntimeException e) {
+			logger.warning("Could not delete the variant of " + hash + ": " + e.getMessage());
+		}
+	}
+
+	private boolean submit(Runnable task) {
+		try {
+			executor.execute(task);
+			return true;
+		} catch (RejectedExecutionException e) {
+			return false;
+		}
+	}
+
+	private void deleteStaged(Path staged) {
+		if (staged == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(staged);
+		} catch (IOException e) {
+			logger.warning("Could not delete " + staged + ": " + e.getMessage());
+		}
+	}
+
+	private static String variantKey(String hash) {
+		return VARIANT_PREFIX + hash.substring(0, 2) + "/" + hash + ".gz";
+	}
+
+	private static class BestGzipOutputStream extends GZIPOutputStream {
+
+		BestGzipOutputStream(OutputStream out) throws IOException {
+			super(out, BUFFER_SIZE);
+			def.setLevel(Deflater.BEST_COMPRESSION);
+		}
+	}
+}
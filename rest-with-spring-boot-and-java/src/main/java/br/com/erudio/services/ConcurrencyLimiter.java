@@ -0,0 +1,134 @@
+package br.com.erudio.services;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import br.com.erudio.config.ConcurrencyLimitConfig;
+import br.com.erudio.util.GradientLimit;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limits the requests in flight per partition to an adaptive limit and
+ * rejects the excess at once instead of letting it queue in Tomcat, where it
+ * would only time out later and slow down everyone else. Sign in has its own
+ * partition, since a PBKDF2 hash costs far more CPU than an API call and a
+ * burst of logins must neither starve the API nor be starved by it. Within
+ * the API partition the last read-reserve share of the limit is kept for
+ * reads, so writes are shed first.
+ */
+@Service
+public class ConcurrencyLimiter {
+
+	public enum Partition {
+		API, SIGNIN
+	}
+
+	public enum Priority {
+		READ, WRITE
+	}
+
+	private final Map<Partition, Bucket> buckets = new EnumMap<>(Partition.class);
+	private final double readReserve;
+	private final Map<Partition, Map<Priority, Counter>> rejected = new EnumMap<>(Partition.class);
+
+	@Autowired
+	public ConcurrencyLimiter(ConcurrencyLimitConfig config, ObjectProvider<MeterRegistry> meterRegistry) {
+		this.readReserve = config.getReadReserve();
+		buckets.put(Partition.API, new Bucket(config.getApi()));
+		buckets.put(Partition.SIGNIN, new Bucket(config.getSignin()));
+
+		var registry = meterRegistry.getIfAvailable();
+		for (Partition partition : Partition.values()) {
+			Map<Priority, Counter> counters = new EnumMap<>(Priority.class);
+			if (registry != null) {
+				var bucket = buckets.get(partition);
+				String name = partition.name().toLowerCase(Locale.ROOT);
+				Gauge.builder("http.concurrency.limit", bucket.limit, GradientLimit::getLimit)
+						.tag("partition", name)
+						.register(registry);
+				Gauge.builder("http.concurrency.in.flight", bucket.inFlight, AtomicInteger::get)
+						.tag("partition", name)
+						.register(registry);
+				for (Priority priority : Priority.values()) {
+					counters.put(priority, Counter.builder("http.concurrency.rejected")
+							.tag("partition", name)
+							.tag("priority", priority.name().toLowerCase(Locale.ROOT))
+							.register(registry));
+				}
+			}
+			rejected.put(partition, counters);
+		}
+	}
+
+	/**
+	 * Returns a permit to release when the request completes, or null when the
+	 * request has to be shed.
+	 */
+	public Permit tryAcquire(Partition partition, Priority priority) {
+		var bucket = buckets.get(partition);
+		int limit = bucket.limit.getLimit();
+		if (partition == Partition.API && priority == Priority.WRITE) {
+			limit = Math.max(1, (int) (limit * (1 - readReserve)));
+		}
+		while (true) {
+			int inFlight = bucket.inFlight.get();
+			if (inFlight >= limit) {
+				var counter = rejected.get(partition).get(priority);
+				if (counter != null) {
+					counter.increment();
+				}
+				return null;
+			}
+			if (bucket.inFlight.compareAndSet(inFlight, inFlight + 1)) {
+				return new Permit(bucket, inFlight + 1);
+			}
+		}
+	}
+
+	public int getLimit(Partition partition) {
+		return buckets.get(partition).limit.getLimit();
+	}
+
+	public int getInFlight(Partition partition) {
+		return buckets.get(partition).inFlight.get();
+	}
+
+	public static final class Permit {
+
+		private final Bucket bucket;
+		private final int inFlight;
+		private final long start = System.nanoTime();
+
+		private Permit(Bucket bucket, int inFlight) {
+			this.bucket = bucket;
+			this.inFlight = inFlight;
+		}
+
+		/**
+		 * @param dropped whether the request failed for lack of capacity, e.g.
+		 *                it ran past its deadline
+		 */
+		public void release(boolean dropped) {
+			bucket.inFlight.decrementAndGet();
+			bucket.limit.onSample(System.nanoTime() - start, inFlight, dropped);
+		}
+	}
+
+	private static final class Bucket {
+
+		private final GradientLimit limit;
+		private final AtomicInteger inFlight = new AtomicInteger();
+
+		private Bucket(ConcurrencyLimitConfig.Partition config) {
+			this.limit = new GradientLimit(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit());
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package br.com.erudio.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.erudio.repositories.FileBlobRepository;
+import br.com.erudio.services.storage.StorageBackend;
+
+/**
+ * Keeps every distinct upload once, under the key ab/cd/&lt;sha-256&gt;, and
+ * maps file names to those blobs. Blob rows are reference counted; the row
+ * lock taken by {@link FileBlobRepository#acquire} and by the collector keeps
+ * a blob from being deleted while an upload is reusing it.
+ */
+@Service
+@ConditionalOnProperty(name = "file.layout", havingValue = "content-addressed")
+public class ContentAddressedStorage {
+
+	private static final int GC_BATCH_SIZE = 100;
+
+	private Logger logger = Logger.getLogger(ContentAddressedStorage.class.getName());
+
+	@Autowired
+	private FileBlobRepository blobRepository;
+
+	@Autowired
+	private FileMetadataService metadataService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private StorageBackend storage;
+
+	/**
+	 * Points filename at the blob for hash. The freshly written partial file
+	 * is moved into place only once that is committed, and only if no
+	 * identical blob is stored yet, so a rollback never leaves a blob behind
+	 * that no row refers to; it deletes the partial file instead. A failed put
+	 * fails the call like any other error.
+	 */
+	@Transactional
+	public void store(String filename, Path partial, String hash, long size, String contentType) throws IOException {
+		blobRepository.acquire(hash, size);
+
+		String key = blobKey(hash);
+		if (storage.stat(key).isPresent()) {
+			Files.deleteIfExists(partial);
+			storage.touch(key);
+		} else {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					// A concurrent upload of the same content may put the blob too; both write identical bytes.
+					try {
+						storage.put(key, partial);
+					} catch (IOException e) {
+						throw new UncheckedIOException("Could not store blob " + hash, e);
+					}
+				}
+
+				@Override
+				public void afterCompletion(int status) {
+					if (status == STATUS_ROLLED_BACK) {
+						try {
+							Files.deleteIfExists(partial);
+						} catch (IOException e) {
+							logger.warning("Could not delete partial upload " + partial + ": " + e.getMessage());
+						}
+					}
+				}
+			});
+		}
+
+		String previousHash = metadataService.record(filename, hash, size, contentType);
+		if (previousHash != null) {
+			blobRepository.release(previousHash);
+		}
+	}
+
+	@Scheduled(fixedDelayString = "${file.gc-interval:PT10M}", initialDelayString = "${file.gc-interval:PT10M}")
+	public void collectGarbage() {
+		var transaction = new TransactionTemplate(transactionManager);
+		int collected = 0;
+		int batchCollected;
+		List<String> hashes;
+		do {
+			batchCollected = 0;
+			hashes = blobRepository.findUnreferenced(PageRequest.of(0, GC_BATCH_SIZE));
+			for (String hash : hashes) {
+				if (Boolean.TRUE.equals(transaction.execute(status -> collect(hash)))) {
+					batchCollected++;
+				}
+			}
+			collected += batchCollected;
+		} while (hashes.size() == GC_BATCH_SIZE && batchCollected > 0);
+
+		if (collected > 0) {
+			logger.info("Collected " + collected + " unreferenced file blobs");
+		}
+	}
+
+	public static String blobKey(String hash) {
+		return hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash;
+	}
+
+	private boolean collect(String hash) {
+		return blobRepository.findUnreferencedForUpdate(hash).map(blob -> {
+			try {
+				storage.delete(blobKey(hash));
+			} catch (IOException | RuntimeException e) {
+				logger.warning("Could not delete blob " + hash + ": " + e.getMessage());
+				return false;
+			}
+			blobRepository.delete(blob);
+			return true;
+		}).orElse(false);
+	}
+}
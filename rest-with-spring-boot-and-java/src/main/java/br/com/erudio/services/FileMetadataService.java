@@ -0,0 +1,169 @@
+package br.com.erudio.services;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import br.com.erudio.controllers.FileController;
+import br.com.erudio.data.vo.v1.FileMetadataVO;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.repositories.StoredFileRepository;
+
+/**
+ * Index of the stored files (size, content type, SHA-256 and last modified),
+ * persisted in stored_files and mirrored in memory so downloads can be
+ * served and revalidated without touching the file system.
+ */
+@Service
+public class FileMetadataService {
+
+	private static final int MAX_CONTENT_TYPE_LENGTH = 100;
+
+	private Logger logger = Logger.getLogger(FileMetadataService.class.getName());
+
+	@Autowired
+	StoredFileRepository repository;
+
+	@Autowired
+	PagedResourcesAssembler<FileMetadataVO> assembler;
+	
+	@Autowired
+	ApplicationEventPublisher eventPublisher;
+
+	private final Map<String, StoredFile> index = new ConcurrentHashMap<>();
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void loadIndex() {
+		repository.findAll().forEach(file -> index.put(file.getFileName(), file));
+		logger.info("Loaded " + index.size() + " entries into the file index");
+	}
+
+	/**
+	 * Records the metadata of a file that was just stored and returns the hash
+	 * it replaces, if any. The in-memory entry is updated once the surrounding
+	 * transaction commits.
+	 */
+	@Transactional
+	public String record(String filename, String hash, long size, String declaredContentType) {
+		Date now = new Date();
+		StoredFile storedFile = repository.findByFileNameForUpdate(filename).orElse(null);
+		String previousHash = null;
+		if (storedFile == null) {
+			storedFile = new StoredFile();
+			storedFile.setFileName(filename);
+			storedFile.setCreatedAt(now);
+		} else {
+			previousHash = storedFile.getHash();
+		}
+		if (!hash.equals(previousHash)) {
+			storedFile.setGzipSize(null);
+		}
+		storedFile.setHash(hash);
+		storedFile.setSize(size);
+		storedFile.setContentType(detectContentType(filename, declaredContentType));
+		storedFile.setUpdatedAt(now);
+
+		StoredFile saved = repository.save(storedFile);
+		afterCommit(() -> index.put(filename, saved));
+		eventPublisher.publishEvent(new FileStoredEvent(saved, previousHash));
+		return previousHash;
+	}
+	
+	/**
+	 * Records the gzip variant size for every file with the given content.
+	 */
+	@Transactional
+	public void recordVariant(String hash, long gzipSize) {
+		repository.updateGzipSize(hash, gzipSize);
+		afterCommit(() -> index.values().stream()
+				.filter(file -> hash.equals(file.getHash()))
+				.forEach(file -> file.setGzipSize(gzipSize)));
+	}
+	
+	public boolean isReferenced(String hash) {
+		return repository.existsByHash(hash);
+	}
+
+	public Optional<StoredFile> find(String filename) {
+		StoredFile cached = index.get(filename);
+		if (cached != null) {
+			return Optional.of(cached);
+		}
+		Optional<StoredFile> stored = repository.findByFileName(filename);
+		stored.ifPresent(file -> index.put(filename, file));
+		return stored;
+	}
+
+	public List<StoredFile> findByPrefix(String prefix) {
+		return repository.findByFileNameStartingWithOrderByFileName(prefix);
+	}
+
+	public PagedModel<EntityModel<FileMetadataVO>> findAll(Pageable pageable) {
+
+		logger.info("Listing stored files!");
+
+		var page = repository.findAll(pageable).map(FileMetadataService::toVO);
+		page.forEach(vo -> vo.add(linkTo(FileController.class).slash("downloadFile").slash(vo.getFileName()).withSelfRel()));
+
+		Link link = linkTo(methodOn(FileController.class).listFiles(pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
+		return assembler.toModel(page, link);
+	}
+
+	public static String etag(StoredFile file) {
+		return file.getHash() != null ? "\"" + file.getHash() + "\"" : null;
+	}
+
+	public static String detectContentType(String filename, String declaredContentType) {
+		return MediaTypeFactory.getMediaType(filename)
+				.map(MediaType::toString)
+				.orElseGet(() -> StringUtils.hasText(declaredContentType) && declaredContentType.length() <= MAX_CONTENT_TYPE_LENGTH
+						? declaredContentType
+						: MediaType.APPLICATION_OCTET_STREAM_VALUE);
+	}
+
+	private static FileMetadataVO toVO(StoredFile file) {
+		var vo = new FileMetadataVO();
+		vo.setFileName(file.getFileName());
+		vo.setContentType(file.getContentType());
+		vo.setSize(file.getSize());
+		vo.setEtag(etag(file));
+		vo.setLastModified(file.getUpdatedAt());
+		return vo;
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
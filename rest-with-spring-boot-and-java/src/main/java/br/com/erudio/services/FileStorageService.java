@@ -1,31 +1,98 @@
 package br.com.erudio.services;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartFile;
 
 import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.config.FileStorageConfig.FsyncPolicy;
+import br.com.erudio.data.vo.v1.UploadFileResponseVO;
 import br.com.erudio.exceptions.FileStorageException;
+import br.com.erudio.exceptions.InvalidRequestParameterException;
 import br.com.erudio.exceptions.MyFileNotFoundException;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.services.storage.StorageBackend;
+import br.com.erudio.util.DirectBufferPool;
+import br.com.erudio.util.KeyedLocks;
+import br.com.erudio.util.MultipartStream;
+import br.com.erudio.util.TrafficClass;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
 
 @Service
 public class FileStorageService {
 
+	private static final int POOLED_BUFFERS = 16;
+	private static final int PARSE_BUFFER_SIZE = 64 * 1024;
+	private static final Duration STALE_PARTIAL_AGE = Duration.ofDays(1);
+
+	private Logger logger = Logger.getLogger(FileStorageService.class.getName());
+
 	private final Path fileStorageLocation;
+	private final FsyncPolicy fsyncPolicy;
+	private final DirectBufferPool bufferPool;
+	private final ThreadPoolExecutor ioExecutor;
+	private final int maxConcurrentFilesPerRequest;
+	
+	@Autowired(required = false)
+	private ContentAddressedStorage contentAddressedStorage;
+	
+	@Autowired
+	private FileMetadataService metadataService;
+	
+	@Autowired
+	private HotFileCache hotFileCache;
+	
+	@Autowired
+	private StorageBackend storage;
+	
+	private final KeyedLocks flatLayoutLocks = new KeyedLocks();
 
 	@Autowired
 	public FileStorageService(FileStorageConfig fileStorageConfig) {
 		Path path = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
 		
 		this.fileStorageLocation = path;
+		this.fsyncPolicy = fileStorageConfig.getFsyncPolicy();
+		this.bufferPool = new DirectBufferPool((int) fileStorageConfig.getBufferSize().toBytes(), POOLED_BUFFERS);
+		int ioThreads = fileStorageConfig.getIoThreads();
+		// When the pool is saturated the request thread stores its file itself instead of queueing more.
+		// Unlike CallerRunsPolicy, this also runs it once the pool is shut down, so no upload waits forever.
+		this.ioExecutor = new ThreadPoolExecutor(ioThreads, ioThreads, 60, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(ioThreads), new CustomizableThreadFactory("file-io-"),
+				(task, executor) -> task.run());
+		this.maxConcurrentFilesPerRequest = fileStorageConfig.getMaxConcurrentFilesPerRequest();
 		try {
 			Files.createDirectories(this.fileStorageLocation);
 		} catch (Exception e) {
@@ -33,36 +100,320 @@ public class FileStorageService {
 		}
 	}
 	
+	/**
+	 * Moves the part the container spooled on the upload volume (see
+	 * StorageConfig#multipartConfigElement) into a partial file, a rename for
+	 * parts over the size threshold, and hashes it from there.
+	 */
 	public String storeFile(MultipartFile file) {
-		String filename = StringUtils.cleanPath(file.getOriginalFilename());
-		
+		String filename = cleanFilename(file.getOriginalFilename());
+		Path partial = null;
 		try {
-			if(filename.contains("..")) {
-				throw new FileStorageException("Sorry! Filename contains invalid path sequence " + filename);
+			partial = Files.createTempFile(this.fileStorageLocation, ".upload-", ".part");
+			// Part#write (transferTo(File)) moves the spooled file; transferTo(Path) would copy it.
+			file.transferTo(partial.toFile());
+			if (fsyncPolicy == FsyncPolicy.DURABLE) {
+				force(partial);
 			}
-			
-			Path targetLocation = this.fileStorageLocation.resolve(filename);
-			Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
-			
+			place(filename, partial, hash(partial), Files.size(partial), file.getContentType());
 			return filename;
 		} catch (Exception e) {
+			deletePartial(partial);
+			throw new FileStorageException("Could not store file " + filename + ". Please try again !", e);
+		}
+	}
+	
+	/**
+	 * Stores the files concurrently on the shared I/O pool, at most
+	 * file.max-concurrent-files-per-request at a time for one request; a file
+	 * the saturated pool turns away is stored on the calling thread. Every
+	 * file gets its own result, in request order; a failure is reported in
+	 * its result instead of aborting the batch.
+	 */
+	public List<UploadFileResponseVO> storeFiles(List<MultipartFile> files) {
+		Semaphore permits = new Semaphore(maxConcurrentFilesPerRequest);
+		List<CompletableFuture<UploadFileResponseVO>> results = new ArrayList<>(files.size());
+		TrafficClass trafficClass = TrafficClass.current();
+		
+		for (MultipartFile file : files) {
+			permits.acquireUninterruptibly();
+			results.add(CompletableFuture
+					.supplyAsync(() -> TrafficClass.callAs(trafficClass,
+							() -> new UploadFileResponseVO(storeFile(file), null, file.getContentType(), file.getSize())), ioExecutor)
+					.exceptionally(e -> failed(file, e))
+					.whenComplete((result, e) -> permits.release()));
+		}
+		return results.stream().map(CompletableFuture::join).toList();
+	}
+	
+	/**
+	 * Parses a multipart/form-data request as it arrives and writes every file
+	 * part straight to the upload volume, hashing it on the same pass; the
+	 * container spools nothing. The parts follow one another on the request
+	 * stream, so they are stored in that order. Every file gets its own
+	 * result: one that cannot be stored is reported there and skipped, while
+	 * a malformed body or one over the size limits fails the request.
+	 */
+	public List<UploadFileResponseVO> storeFiles(HttpServletRequest request, long maxFileSize, long maxRequestSize) {
+		String boundary = MultipartStream.boundary(request.getContentType());
+		if (boundary == null) {
+			throw new InvalidRequestParameterException("The request is not multipart/form-data");
+		}
+		
+		List<UploadFileResponseVO> files = new ArrayList<>();
+		try {
+			var parts = new MultipartStream(request.getInputStream(), boundary, PARSE_BUFFER_SIZE, maxFileSize, maxRequestSize);
+			MultipartStream.Part part;
+			while ((part = parts.next()) != null) {
+				if (!part.isFile() || !StringUtils.hasText(part.filename())) {
+					continue;
+				}
+				try {
+					String filename = cleanFilename(part.filename());
+					long size = storeFile(filename, part.contentType(), part.content());
+					files.add(new UploadFileResponseVO(filename, null, part.contentType(), size));
+				} catch (FileStorageException e) {
+					if (e.getCause() instanceof MultipartException cause) {
+						throw cause;
+					}
+					files.add(failed(part.filename(), part.contentType(), 0, e));
+				}
+			}
+		} catch (MaxUploadSizeExceededException e) {
+			throw e;
+		} catch (MultipartException e) {
+			throw new InvalidRequestParameterException(e.getMessage());
+		} catch (IOException e) {
+			throw new FileStorageException("Could not read the multipart request. Please try again !", e);
+		}
+		return files;
+	}
+	
+	/**
+	 * Writes the stream to a partial file on the upload volume through a
+	 * direct buffer, applies the fsync policy and hands it to the storage
+	 * backend, so readers never see a half-written file. The SHA-256 computed on the same pass
+	 * becomes the ETag, and in the content-addressed layout the partial file
+	 * becomes (or is deduplicated against) the blob for that hash.
+	 */
+	public long storeFile(String filename, InputStream in) {
+		return storeFile(filename, null, in);
+	}
+	
+	public long storeFile(String filename, String contentType, InputStream in) {
+		String cleanFilename = cleanFilename(filename);
+		Path partial = null;
+		MessageDigest digest = sha256();
+		ByteBuffer buffer = bufferPool.acquire();
+		try {
+			partial = Files.createTempFile(this.fileStorageLocation, ".upload-", ".part");
+			long size = 0;
+			ReadableByteChannel source = Channels.newChannel(in);
+			try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+				int read;
+				while ((read = source.read(buffer)) != -1) {
+					size += read;
+					if (!buffer.hasRemaining()) {
+						drain(buffer, channel, digest);
+					}
+				}
+				drain(buffer, channel, digest);
+				if (fsyncPolicy == FsyncPolicy.DURABLE) {
+					channel.force(true);
+				}
+			}
+			place(cleanFilename, partial, HexFormat.of().formatHex(digest.digest()), size, contentType);
+			return size;
+		} catch (Exception e) {
+			deletePartial(partial);
 			throw new FileStorageException("Could not store file " + filename + ". Please try again !", e);
+		} finally {
+			bufferPool.release(buffer);
 		}
 	}
 	
-	public Resource loadFileAsResource(String filename) {
+	/**
+	 * Takes over a file that was already assembled on the upload volume (e.g.
+	 * by a resumable upload) and hands it to the storage backend; on the
+	 * local backend that is a rename, without copying it. The caller hashed
+	 * the content while assembling it.
+	 */
+	public long storeFile(String filename, Path source, String hash) {
+		String cleanFilename = cleanFilename(filename);
 		try {
-			Path filePath = this.fileStorageLocation.resolve(filename).normalize();
-			Resource resource = new UrlResource(filePath.toUri());
-			
-			if(resource.exists()) {
-				return resource;
-			} else {
-				throw new MyFileNotFoundException("File not found");
+			long size = Files.size(source);
+			if (fsyncPolicy == FsyncPolicy.DURABLE) {
+				force(source);
 			}
-			
+			place(cleanFilename, source, hash, size, null);
+			return size;
 		} catch (Exception e) {
+			throw new FileStorageException("Could not store file " + filename + ". Please try again !", e);
+		}
+	}
+	
+	/**
+	 * Local file holding an indexed file's content, derived from its metadata
+	 * alone, or null when the backend can only stream it (see {@link #open}).
+	 */
+	public Path localFile(StoredFile metadata) {
+		try {
+			return storage.localFile(storageKey(metadata));
+		} catch (IOException e) {
 			throw new MyFileNotFoundException("File not found", e);
 		}
 	}
+	
+	public InputStream open(StoredFile metadata) throws IOException {
+		return storage.open(storageKey(metadata));
+	}
+	
+	public InputStream open(StoredFile metadata, long start, long end) throws IOException {
+		return storage.open(storageKey(metadata), start, end);
+	}
+	
+	/**
+	 * Records a read served without opening the file (e.g. from memory).
+	 */
+	public void touch(StoredFile metadata) {
+		storage.touch(storageKey(metadata));
+	}
+	
+	/**
+	 * Describes a file that is not in the index yet (uploaded before it
+	 * existed) from the storage backend. Such files have no ETag.
+	 */
+	public StoredFile probe(String filename) {
+		try {
+			var object = storage.stat(cleanFilename(filename))
+					.orElseThrow(() -> new MyFileNotFoundException("File not found"));
+			var metadata = new StoredFile();
+			metadata.setFileName(filename);
+			metadata.setSize(object.size());
+			metadata.setContentType(FileMetadataService.detectContentType(filename, null));
+			metadata.setUpdatedAt(Date.from(object.lastModified()));
+			return metadata;
+		} catch (IOException e) {
+			throw new MyFileNotFoundException("File not found", e);
+		}
+	}
+	
+	public String storageKey(StoredFile metadata) {
+		return contentAddressedStorage != null && metadata.getHash() != null
+				? ContentAddressedStorage.blobKey(metadata.getHash())
+				: metadata.getFileName();
+	}
+	
+	private void place(String filename, Path partial, String hash, long size, String contentType) throws IOException {
+		if (contentAddressedStorage != null) {
+			contentAddressedStorage.store(filename, partial, hash, size, contentType);
+		} else {
+			// The put and the index update of one name must not interleave with another upload of
+			// that name, or the index could describe the other upload's content. Only that name waits.
+			try (var held = flatLayoutLocks.lock(filename)) {
+				storage.put(filename, partial);
+				metadataService.record(filename, hash, size, contentType);
+			}
+		}
+		hotFileCache.invalidate(filename);
+	}
+	
+	private String cleanFilename(String originalFilename) {
+		String filename = StringUtils.cleanPath(StringUtils.getFilename(originalFilename));
+		if(filename.contains("..")) {
+			throw new FileStorageException("Sorry! Filename contains invalid path sequence " + filename);
+		}
+		return filename;
+	}
+	
+	private static MessageDigest sha256() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	private String hash(Path source) throws IOException {
+		MessageDigest digest = sha256();
+		ByteBuffer buffer = bufferPool.acquire();
+		try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+			while (channel.read(buffer) != -1) {
+				buffer.flip();
+				digest.update(buffer);
+				buffer.clear();
+			}
+		} finally {
+			bufferPool.release(buffer);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+	
+	private UploadFileResponseVO failed(MultipartFile file, Throwable e) {
+		return failed(file.getOriginalFilename(), file.getContentType(), file.getSize(), e);
+	}
+	
+	private UploadFileResponseVO failed(String filename, String contentType, long size, Throwable e) {
+		Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+		logger.warning("Could not store file " + filename + ": " + cause.getMessage());
+		
+		var result = new UploadFileResponseVO(filename, null, contentType, size);
+		result.setError(cause.getMessage());
+		return result;
+	}
+	
+	/**
+	 * Deletes staging files (.upload-*.part, .variant-*.part) that a crash or
+	 * a killed request left in the upload directory. Nothing stages a file
+	 * for anywhere near a day, so older ones are abandoned.
+	 */
+	@Scheduled(fixedDelayString = "${file.gc-interval:PT10M}", initialDelayString = "${file.gc-interval:PT10M}")
+	public void sweepPartials() {
+		Instant cutoff = Instant.now().minus(STALE_PARTIAL_AGE);
+		int swept = 0;
+		try (var partials = Files.newDirectoryStream(fileStorageLocation, ".*.part")) {
+			for (Path partial : partials) {
+				if (Files.isRegularFile(partial) && Files.getLastModifiedTime(partial).toInstant().isBefore(cutoff)) {
+					deletePartial(partial);
+					swept++;
+				}
+			}
+		} catch (IOException e) {
+			logger.warning("Could not sweep partial uploads: " + e.getMessage());
+		}
+		if (swept > 0) {
+			logger.info("Swept " + swept + " abandoned partial uploads");
+		}
+	}
+	
+	@PreDestroy
+	public void shutdown() {
+		ioExecutor.shutdown();
+	}
+	
+	private static void force(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+			channel.force(true);
+		}
+	}
+	
+	private static void drain(ByteBuffer buffer, FileChannel channel, MessageDigest digest) throws IOException {
+		buffer.flip();
+		digest.update(buffer.duplicate());
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+	
+	private void deletePartial(Path partial) {
+		if (partial == null) {
+			return;
+		}
+		try {
+			Files.deleteIfExists(partial);
+		} catch (IOException e) {
+			logger.warning("Could not delete partial upload " + partial);
+		}
+	}
 }
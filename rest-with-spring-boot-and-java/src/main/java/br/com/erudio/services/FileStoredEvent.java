@@ -0,0 +1,10 @@
+package br.com.erudio.services;
+
+import br.com.erudio.model.StoredFile;
+
+/**
+ * Published when a file has been stored; previousHash is the content it
+ * replaced, if any.
+ */
+public record FileStoredEvent(StoredFile file, String previousHash) {
+}
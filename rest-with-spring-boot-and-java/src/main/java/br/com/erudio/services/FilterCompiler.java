@@ -0,0 +1,47 @@
+package br.com.erudio.services;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.erudio.util.filter.FilterField;
+import br.com.erudio.util.filter.FilterNode;
+import br.com.erudio.util.filter.FilterParser;
+import br.com.erudio.util.filter.FilterPlan;
+
+/**
+ * Turns filter expressions into Specifications. Compiled plans are cached by
+ * entity and expression shape, so integrations that repeat the same filter
+ * with different values only pay for parsing and binding.
+ */
+@Service
+public class FilterCompiler {
+
+	private static final int MAX_PLANS = 1000;
+
+	@Value("${filter.max-scan-page-size:50}")
+	private int maxScanPageSize = 50;
+
+	private final Cache<String, FilterPlan<?>> plans = Caffeine.newBuilder()
+			.maximumSize(MAX_PLANS)
+			.build();
+
+	@SuppressWarnings("unchecked")
+	public <T> Specification<T> compile(Class<T> domainClass, Map<String, FilterField> fields, String filter, Pageable pageable) {
+		FilterNode node = FilterParser.parse(filter);
+		var plan = (FilterPlan<T>) plans.get(domainClass.getName() + ":" + node.shape(),
+				shape -> FilterPlan.compile(node, fields));
+		int pageSize = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+		return plan.bind(node.arguments(), pageSize, maxScanPageSize);
+	}
+
+	public long getCachedPlans() {
+		return plans.estimatedSize();
+	}
+}
@@ -0,0 +1,88 @@
+package br.com.erudio.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.model.StoredFile;
+
+/**
+ * Keeps small, frequently downloaded files in off-heap buffers so they are
+ * served without opening, stat-ing or reading the file. The cache is bounded
+ * by the total bytes held; Caffeine's W-TinyLFU policy only admits a new file
+ * over an eviction victim when it is requested more often, so a burst of
+ * one-off downloads does not flush the hot set.
+ */
+@Service
+public class HotFileCache {
+
+	private Logger logger = Logger.getLogger(HotFileCache.class.getName());
+
+	private final long maxFileSize;
+	private final Cache<String, CachedFile> cache;
+
+	@Autowired
+	public HotFileCache(FileStorageConfig fileStorageConfig) {
+		this.maxFileSize = fileStorageConfig.getHotCacheMaxFileSize().toBytes();
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(fileStorageConfig.getHotCacheSize().toBytes())
+				.weigher((String filename, CachedFile file) -> file.content.capacity())
+				.build();
+	}
+
+	/**
+	 * Returns a read-only view of the file content, loading it from source on
+	 * a miss, or null when the file is too large or has no hash to validate the
+	 * cached copy against.
+	 */
+	public ByteBuffer get(StoredFile metadata, InputStreamSource source) {
+		if (metadata.getHash() == null || metadata.getSize() > maxFileSize) {
+			return null;
+		}
+		CachedFile cached = cache.getIfPresent(metadata.getFileName());
+		if (cached == null || !cached.hash.equals(metadata.getHash())) {
+			CachedFile loaded;
+			try {
+				// Read outside the map so the I/O does not hold the lock of the entry (and its neighbours).
+				loaded = load(source, metadata);
+			} catch (UncheckedIOException e) {
+				logger.warning("Could not cache " + metadata.getFileName() + ": " + e.getMessage());
+				return null;
+			}
+			// A concurrent miss may have loaded the same content already; keep that copy, replace a stale one.
+			cached = cache.asMap().merge(metadata.getFileName(), loaded,
+					(current, fresh) -> current.hash.equals(fresh.hash) ? current : fresh);
+		}
+		return cached.content.duplicate();
+	}
+
+	public void invalidate(String filename) {
+		cache.invalidate(filename);
+	}
+
+	private static CachedFile load(InputStreamSource source, StoredFile metadata) {
+		try (InputStream in = source.getInputStream(); ReadableByteChannel channel = Channels.newChannel(in)) {
+			ByteBuffer content = ByteBuffer.allocateDirect(Math.toIntExact(metadata.getSize()));
+			while (content.hasRemaining() && channel.read(content) != -1) {
+			}
+			return new CachedFile(metadata.getHash(), content.flip().asReadOnlyBuffer());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private record CachedFile(String hash, ByteBuffer content) {
+	}
+}
@@ -1,11 +1,13 @@
 package br.com.erudio.services;
 
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.Link;
@@ -17,6 +19,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import br.com.erudio.controllers.PersonController;
+import br.com.erudio.data.vo.v1.BatchVO;
+import br.com.erudio.data.vo.v1.PageVO;
 import br.com.erudio.data.vo.v1.PersonVO;
 import br.com.erudio.data.vo.v2.PersonVOV2;
 import br.com.erudio.exceptions.ResourceNotFoundException;
@@ -24,6 +28,10 @@ import br.com.erudio.mapper.DozerMapper;
 import br.com.erudio.mapper.custom.PersonMapper;
 import br.com.erudio.model.Person;
 import br.com.erudio.repositories.PersonRepository;
+import br.com.erudio.repositories.PersonSpecifications;
+import br.com.erudio.repositories.SparseFieldsetRepository;
+import br.com.erudio.util.SparseFieldset;
+import br.com.erudio.util.filter.FilterField;
 
 @Service
 public class PersonServices {
@@ -38,12 +46,31 @@ public class PersonServices {
 	
 	@Autowired
 	PersonMapper mapper;
+	
+	@Autowired
+	SparseFieldsetRepository fieldsetRepository;
+	
+	@Autowired
+	FilterCompiler filterCompiler;
+	
+	@Autowired
+	BatchLoader batchLoader;
+	
+	private static final List<String> FIELDS = List.of("id", "firstName", "lastName", "address", "gender", "enabled");
+	
+	private static final Map<String, FilterField> FILTER_FIELDS = FilterField.of(
+			FilterField.indexed("id", Long.class),
+			FilterField.unindexed("firstName", String.class),
+			FilterField.unindexed("lastName", String.class),
+			FilterField.unindexed("address", String.class),
+			FilterField.unindexed("gender", String.class),
+			FilterField.unindexed("enabled", Boolean.class));
 
-	public PagedModel<EntityModel<PersonVO>> findAll(Pageable pageable) {
+	public PagedModel<EntityModel<PersonVO>> findAll(Pageable pageable, String filter) {
 
 		logger.info("Finding all people!");
 		
-		var personPage = repository.findAll(pageable);
+		var personPage = repository.findAll(Specification.where(filter(filter, pageable)), pageable);
 		var personVosPage = personPage.map(p-> DozerMapper.parseObject(p, PersonVO.class));
 		
 		personVosPage.map(
@@ -60,7 +87,7 @@ public class PersonServices {
 					return null;
 				});
 
-		Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
+		Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc", filter)).withSelfRel();
 		return assembler.toModel(personVosPage, link);
 	}
 	
@@ -85,10 +112,63 @@ public class PersonServices {
 					return null;
 				});
 		
-		Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc")).withSelfRel();
+		Link link = linkTo(methodOn(PersonController.class).findAll(pageable.getPageNumber(), pageable.getPageSize(), "asc", null)).withSelfRel();
 		return assembler.toModel(personVosPage, link);
 	}
 
+	public PageVO<PersonVO> findAllCompact(Pageable pageable, String filter) {
+
+		logger.info("Finding all people (compact)!");
+		
+		var personPage = repository.findAll(Specification.where(filter(filter, pageable)), pageable);
+		return new PageVO<>(personPage.map(p -> DozerMapper.parseObject(p, PersonVO.class)));
+	}
+	
+	public PageVO<PersonVO> findPersonByNameCompact(String firstName, Pageable pageable) {
+		
+		logger.info("Finding person by name (compact)!");
+		
+		var personPage = repository.findPersonsByName(firstName, pageable);
+		return new PageVO<>(personPage.map(p -> DozerMapper.parseObject(p, PersonVO.class)));
+	}
+
+	public PageVO<Map<String, Object>> findAll(String fields, String filter, Pageable pageable) {
+
+		logger.info("Finding all people with fields " + fields + "!");
+		
+		var selected = SparseFieldset.parse(fields, FIELDS);
+		return new PageVO<>(fieldsetRepository.findAll(Person.class, selected, filter(filter, pageable), pageable));
+	}
+	
+	public PageVO<Map<String, Object>> findPersonByName(String firstName, String fields, Pageable pageable) {
+		
+		logger.info("Finding person by name with fields " + fields + "!");
+		
+		var selected = SparseFieldset.parse(fields, FIELDS);
+		return new PageVO<>(fieldsetRepository.findAll(Person.class, selected,
+				PersonSpecifications.firstNameContains(firstName), pageable));
+	}
+	
+	public Map<String, Object> findById(Long id, String fields) {
+		
+		logger.info("Finding one person with fields " + fields + "!");
+		
+		var selected = SparseFieldset.parse(fields, FIELDS);
+		return fieldsetRepository.findById(Person.class, selected, id)
+			.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
+	}
+
+	public BatchVO<PersonVO> findByIds(List<Long> ids) {
+		
+		logger.info("Finding " + (ids == null ? 0 : ids.size()) + " people by id!");
+		
+		return batchLoader.load(ids, repository::findAllById, Person::getId, entity -> {
+			var vo = DozerMapper.parseObject(entity, PersonVO.class);
+			vo.add(linkTo(PersonController.class).slash(entity.getId()).withSelfRel());
+			return vo;
+		});
+	}
+
 	public PersonVO findById(Long id) throws Exception {
 		
 		logger.info("Finding one person!");
@@ -162,4 +242,8 @@ public class PersonServices {
 				.orElseThrow(() -> new ResourceNotFoundException("No records found for this ID!"));
 		repository.delete(entity);
 	}
+	
+	private Specification<Person> filter(String filter, Pageable pageable) {
+		return filter != null ? filterCompiler.compile(Person.class, FILTER_FIELDS, filter, pageable) : null;
+	}
 }
@@ -0,0 +1,247 @@
+package br.com.erudio.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.config.FileStorageConfig.FsyncPolicy;
+import br.com.erudio.exceptions.FileStorageException;
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.exceptions.ResourceNotFoundException;
+import br.com.erudio.exceptions.UploadOffsetConflictException;
+import br.com.erudio.model.UploadSession;
+import br.com.erudio.repositories.UploadSessionRepository;
+import br.com.erudio.util.DirectBufferPool;
+
+/**
+ * Server side of the tus-style resumable upload: every session owns a
+ * pre-sized partial file that chunks are written into at their offset. The
+ * offset is persisted after every chunk (also when the client disconnects
+ * half way), so an interrupted upload resumes from the last byte received.
+ * The SHA-256 of the upload is kept up to date the same way, its state saved
+ * along with the offset, so the finished file never has to be read again.
+ */
+@Service
+public class ResumableUploadService {
+
+	private static final int CHUNK_SIZE = 64 * 1024;
+	private static final int POOLED_BUFFERS = 16;
+
+	private Logger logger = Logger.getLogger(ResumableUploadService.class.getName());
+
+	@Autowired
+	private UploadSessionRepository repository;
+
+	@Autowired
+	private FileStorageService fileStorageService;
+
+	private final Path sessionsLocation;
+	private final FsyncPolicy fsyncPolicy;
+	private final long maxUploadLength;
+	private final FileStorageConfig fileStorageConfig;
+	private final DirectBufferPool bufferPool;
+	private final Map<String, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+	@Autowired
+	public ResumableUploadService(FileStorageConfig fileStorageConfig) {
+		this.fileStorageConfig = fileStorageConfig;
+		this.sessionsLocation = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize().resolve(".uploads");
+		this.fsyncPolicy = fileStorageConfig.getFsyncPolicy();
+		this.maxUploadLength = fileStorageConfig.getMaxUploadLength().toBytes();
+		this.bufferPool = new DirectBufferPool((int) fileStorageConfig.getBufferSize().toBytes(), POOLED_BUFFERS);
+		try {
+			Files.createDirectories(this.sessionsLocation);
+		} catch (Exception e) {
+			throw new FileStorageException("Could not create the directory where the resumable uploads will be stored!", e);
+		}
+	}
+
+	public UploadSession create(String filename, long uploadLength) {
+		logger.info("Creating a resumable upload!");
+		
+		if (!StringUtils.hasText(filename)) {
+			throw new InvalidRequestParameterException("Upload-Metadata must carry a filename");
+		}
+		if (uploadLength < 0 || uploadLength > maxUploadLength) {
+			throw new InvalidRequestParameterException("Upload-Length must be between 0 and " + maxUploadLength);
+		}
+		
+		var session = new UploadSession();
+		session.setId(UUID.randomUUID().toString());
+		session.setFileName(StringUtils.getFilename(StringUtils.cleanPath(filename)));
+		session.setUploadLength(uploadLength);
+		session.setUploadOffset(0L);
+		session.setCreatedAt(new Date());
+		session.setUpdatedAt(session.getCreatedAt());
+		
+		try {
+			Files.createFile(partialPath(session.getId()));
+		} catch (IOException e) {
+			throw new FileStorageException("Could not create the resumable upload. Please try again !", e);
+		}
+		
+		session = repository.save(session);
+		if (uploadLength == 0) {
+			complete(session);
+		}
+		return session;
+	}
+
+	public UploadSession findById(String id) {
+		return repository.findById(id)
+				.orElseThrow(() -> new ResourceNotFoundException("No upload found for this ID!"));
+	}
+
+	/**
+	 * Writes one chunk at offset and returns the session with its new offset.
+	 * The upload is handed to {@link FileStorageService} once the last byte
+	 * arrives.
+	 */
+	public UploadSession append(String id, long offset, InputStream body) {
+		ReentrantLock lock = locks.computeIfAbsent(id, key -> new ReentrantLock());
+		if (!lock.tryLock()) {
+			throw new UploadOffsetConflictException("Upload " + id + " is already receiving a chunk");
+		}
+		try {
+			var session = findById(id);
+			if (session.getUploadOffset() != offset) {
+				throw new UploadOffsetConflictException("Upload-Offset " + offset
+						+ " does not match the current offset " + session.getUploadOffset());
+			}
+			
+			long written = write(session, offset, body);
+			session.setUploadOffset(offset + written);
+			
+			if (session.getUploadOffset().equals(session.getUploadLength())) {
+				complete(session);
+			}
+			return session;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void terminate(String id) {
+		var session = findById(id);
+		delete(session);
+	}
+
+	@Scheduled(fixedDelayString = "${file.gc-interval:PT10M}", initialDelayString = "${file.gc-interval:PT10M}")
+	public void expireSessions() {
+		Date cutoff = new Date(System.currentTimeMillis() - fileStorageConfig.getUploadSessionTtl().toMillis());
+		var expired = repository.findByUpdatedAtBefore(cutoff);
+		expired.forEach(this::delete);
+		if (!expired.isEmpty()) {
+			logger.info("Expired " + expired.size() + " abandoned resumable uploads");
+		}
+	}
+
+	private long write(UploadSession session, long offset, InputStream body) {
+		long remaining = session.getUploadLength() - offset;
+		long written = 0;
+		SHA256Digest digest = digest(session);
+		ByteBuffer buffer = bufferPool.acquire();
+		try (FileChannel channel = FileChannel.open(partialPath(session.getId()), StandardOpenOption.WRITE)) {
+			byte[] chunk = new byte[Math.min(CHUNK_SIZE, buffer.capacity())];
+			long received = 0;
+			try {
+				int read;
+				while ((read = body.read(chunk, 0, Math.min(chunk.length, buffer.remaining()))) != -1) {
+					if (received + read > remaining) {
+						throw new InvalidRequestParameterException("The chunk runs past Upload-Length " + session.getUploadLength());
+					}
+					buffer.put(chunk, 0, read);
+					received += read;
+					if (!buffer.hasRemaining()) {
+						written += drain(buffer, channel, offset + written, digest, chunk);
+					}
+				}
+			} finally {
+				// Flush what already arrived, also when the client went away mid-chunk.
+				written += drain(buffer, channel, offset + written, digest, chunk);
+			}
+			if (fsyncPolicy == FsyncPolicy.DURABLE) {
+				channel.force(false);
+			}
+			return written;
+		} catch (IOException e) {
+			throw new FileStorageException("Could not write the chunk of upload " + session.getId() + ". Please resume !", e);
+		} finally {
+			bufferPool.release(buffer);
+			if (written > 0) {
+				session.setDigestState(digest.getEncodedState());
+				// Another node may have taken the same offset in the meantime; the client has to ask again.
+				if (repository.advanceOffset(session.getId(), offset, offset + written, session.getDigestState(), new Date()) == 0) {
+					throw new UploadOffsetConflictException("Upload " + session.getId() + " moved past offset " + offset
+							+ " while this chunk was written");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writes the buffered bytes at position and, once they are on the file,
+	 * adds them to the digest, copying through scratch.
+	 */
+	private static long drain(ByteBuffer buffer, FileChannel channel, long position, SHA256Digest digest, byte[] scratch) throws IOException {
+		buffer.flip();
+		long written = 0;
+		while (buffer.hasRemaining()) {
+			written += channel.write(buffer, position + written);
+		}
+		buffer.rewind();
+		while (buffer.hasRemaining()) {
+			int length = Math.min(scratch.length, buffer.remaining());
+			buffer.get(scratch, 0, length);
+			digest.update(scratch, 0, length);
+		}
+		buffer.clear();
+		return written;
+	}
+
+	private static SHA256Digest digest(UploadSession session) {
+		return session.getDigestState() == null ? new SHA256Digest() : new SHA256Digest(session.getDigestState());
+	}
+
+	private void complete(UploadSession session) {
+		SHA256Digest digest = digest(session);
+		byte[] hash = new byte[digest.getDigestSize()];
+		digest.doFinal(hash, 0);
+		fileStorageService.storeFile(session.getFileName(), partialPath(session.getId()), HexFormat.of().formatHex(hash));
+		repository.delete(session);
+		locks.remove(session.getId());
+	}
+
+	private void delete(UploadSession session) {
+		try {
+			Files.deleteIfExists(partialPath(session.getId()));
+		} catch (IOException e) {
+			logger.warning("Could not delete partial upload " + session.getId());
+		}
+		repository.delete(session);
+		locks.remove(session.getId());
+	}
+
+	private Path partialPath(String id) {
+		return sessionsLocation.resolve(id + ".part");
+	}
+}
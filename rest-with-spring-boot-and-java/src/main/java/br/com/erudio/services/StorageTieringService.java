@@ -0,0 +1,74 @@
+package br.com.erudio.services;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.repositories.StoredFileRepository;
+import br.com.erudio.services.storage.StorageBackend;
+import br.com.erudio.services.storage.TieredStorageBackend;
+
+/**
+ * Periodically moves files that were neither written nor read during the
+ * configured idle period to the cold tier.
+ */
+@Service
+@ConditionalOnProperty(name = "file.tiering-enabled", havingValue = "true")
+public class StorageTieringService {
+
+	private static final int BATCH_SIZE = 500;
+
+	private Logger logger = Logger.getLogger(StorageTieringService.class.getName());
+
+	@Autowired
+	FileStorageConfig fileStorageConfig;
+
+	@Autowired
+	StoredFileRepository storedFileRepository;
+
+	@Autowired
+	FileStorageService fileStorageService;
+
+	@Autowired
+	StorageBackend storage;
+
+	@Scheduled(fixedDelayString = "${file.tiering-interval:PT1H}", initialDelayString = "${file.tiering-interval:PT1H}")
+	public void archiveIdleFiles() {
+		if (!(storage instanceof TieredStorageBackend tiered)) {
+			logger.warning("Storage tiering is only supported by the local backend");
+			return;
+		}
+
+		long cutoff = System.currentTimeMillis() - fileStorageConfig.getTieringIdlePeriod().toMillis();
+		int archived = 0;
+		Page<StoredFile> page;
+		int pageNumber = 0;
+		do {
+			page = storedFileRepository.findByUpdatedAtBefore(new Date(cutoff),
+					PageRequest.of(pageNumber++, BATCH_SIZE, Sort.by("id")));
+			for (StoredFile file : page) {
+				try {
+					if (tiered.archive(fileStorageService.storageKey(file), !ZipArchiveService.isCompressed(file.getFileName()), cutoff)) {
+						archived++;
+					}
+				} catch (IOException | RuntimeException e) {
+					logger.warning("Could not archive " + file.getFileName() + ": " + e.getMessage());
+				}
+			}
+		} while (page.hasNext());
+
+		if (archived > 0) {
+			logger.info("Moved " + archived + " idle files to the cold tier (" + tiered.getBytesSaved() + " bytes saved)");
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package br.com.erudio.services;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.logging.Logger;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.exceptions.FileStorageException;
+import br.com.erudio.exceptions.ServiceUnavailableException;
+
+/**
+ * Admits an upload only if its bytes fit both the in-flight budget and the
+ * free space left on the upload volume. Admitted bytes stay reserved until
+ * the request completes, so the uploads already being written keep the disk
+ * space they were admitted with instead of failing halfway when newcomers
+ * fill the volume.
+ */
+@Service
+public class UploadAdmissionService {
+
+	private Logger logger = Logger.getLogger(UploadAdmissionService.class.getName());
+
+	private final FileStore fileStore;
+	private final long maxInFlightBytes;
+	private final long minFreeSpace;
+	private final Duration retryAfter;
+
+	private long reservedBytes;
+
+	@Autowired
+	public UploadAdmissionService(FileStorageConfig fileStorageConfig) {
+		Path uploadDir = Paths.get(fileStorageConfig.getUploadDir()).toAbsolutePath().normalize();
+		try {
+			Files.createDirectories(uploadDir);
+			this.fileStore = Files.getFileStore(uploadDir);
+		} catch (IOException e) {
+			throw new FileStorageException("Could not inspect the volume where the uploaded files will be stored!", e);
+		}
+		this.maxInFlightBytes = fileStorageConfig.getMaxInFlightUploadBytes().toBytes();
+		this.minFreeSpace = fileStorageConfig.getMinFreeSpace().toBytes();
+		this.retryAfter = fileStorageConfig.getUploadRetryAfter();
+	}
+
+	/**
+	 * Reserves bytes for an upload or throws a 503 with Retry-After. A single
+	 * upload larger than the whole budget is still admitted when nothing else
+	 * is in flight, otherwise it could never be admitted at all.
+	 */
+	public synchronized void reserve(long bytes) {
+		if (reservedBytes > 0 && reservedBytes + bytes > maxInFlightBytes) {
+			throw reject("Too many uploads in progress, please retry later!");
+		}
+		checkFreeSpace(bytes);
+		reservedBytes += bytes;
+	}
+
+	public synchronized void release(long bytes) {
+		reservedBytes -= bytes;
+	}
+
+	/**
+	 * Checks that bytes would fit on the volume right now without reserving
+	 * them, e.g. for the declared length of a resumable upload.
+	 */
+	public synchronized void checkFreeSpace(long bytes) {
+		long available;
+		try {
+			available = fileStore.getUsableSpace() - reservedBytes - minFreeSpace;
+		} catch (IOException e) {
+			logger.warning("Could not read the free space of the upload volume: " + e.getMessage());
+			return;
+		}
+		if (bytes > available) {
+			throw reject("Not enough storage space for the upload, please retry later!");
+		}
+	}
+
+	public synchronized long getReservedBytes() {
+		return reservedBytes;
+	}
+
+	private ServiceUnavailableException reject(String message) {
+		logger.warning(message + " (" + reservedBytes + " bytes in flight)");
+		return new ServiceUnavailableException(message, retryAfter);
+	}
+}
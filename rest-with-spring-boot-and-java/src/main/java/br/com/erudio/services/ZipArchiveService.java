@@ -0,0 +1,106 @@
+package br.com.erudio.services;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.attribute.FileTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.model.StoredFile;
+
+/**
+ * Builds ZIP archives of stored files on the fly, straight into the response
+ * stream, so memory use does not depend on the number or size of the files.
+ */
+@Service
+public class ZipArchiveService {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	// Formats that are already compressed; deflating them again costs CPU for no gain.
+	private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+			"zip", "gz", "tgz", "bz2", "xz", "zst", "7z", "rar", "jar", "war",
+			"png", "jpg", "jpeg", "gif", "webp", "avif", "heic",
+			"mp3", "aac", "ogg", "flac", "mp4", "m4a", "m4v", "mkv", "mov", "avi", "webm",
+			"docx", "xlsx", "pptx", "odt", "ods", "epub", "pdf");
+
+	private Logger logger = Logger.getLogger(ZipArchiveService.class.getName());
+
+	@Autowired
+	FileMetadataService metadataService;
+
+	@Autowired
+	FileStorageService fileStorageService;
+
+	/**
+	 * Resolves the files to archive, either the given names (in request order,
+	 * duplicates removed) or every indexed file whose name starts with prefix.
+	 * Runs before the response is committed, so a missing file is still a 404.
+	 */
+	public List<StoredFile> select(List<String> filenames, String prefix) {
+		if (filenames != null && !filenames.isEmpty()) {
+			return new LinkedHashSet<>(filenames).stream()
+					.map(filename -> metadataService.find(filename).orElseGet(() -> fileStorageService.probe(filename)))
+					.toList();
+		}
+		if (!StringUtils.hasText(prefix)) {
+			throw new InvalidRequestParameterException("Either files or prefix must be informed!");
+		}
+		return metadataService.findByPrefix(prefix);
+	}
+
+	public void write(List<StoredFile> files, OutputStream out) throws IOException {
+		logger.info("Streaming " + files.size() + " files as a ZIP archive!");
+
+		var zip = new ZipOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+		for (StoredFile file : files) {
+			var entry = new ZipEntry(file.getFileName());
+			entry.setLastModifiedTime(FileTime.fromMillis(file.getUpdatedAt().getTime()));
+			if (isCompressed(file.getFileName())) {
+				// STORED entries need size and CRC up front: one extra read,
+				// which is cheaper than deflating the file.
+				entry.setMethod(ZipEntry.STORED);
+				entry.setSize(file.getSize());
+				entry.setCompressedSize(file.getSize());
+				try (InputStream in = fileStorageService.open(file)) {
+					entry.setCrc(crc32(in));
+				}
+			}
+			zip.putNextEntry(entry);
+			try (InputStream in = fileStorageService.open(file)) {
+				in.transferTo(zip);
+			}
+			zip.closeEntry();
+		}
+		zip.finish();
+		zip.flush();
+	}
+
+	public static boolean isCompressed(String filename) {
+		String extension = StringUtils.getFilenameExtension(filename);
+		return extension != null && COMPRESSED_EXTENSIONS.contains(extension.toLowerCase(Locale.ROOT));
+	}
+
+	private static long crc32(InputStream in) throws IOException {
+		var crc = new CRC32();
+		byte[] buffer = new byte[BUFFER_SIZE];
+		int read;
+		while ((read = in.read(buffer)) != -1) {
+			crc.update(buffer, 0, read);
+		}
+		return crc.getValue();
+	}
+}
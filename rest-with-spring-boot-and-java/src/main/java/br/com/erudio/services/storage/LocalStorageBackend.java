@@ -0,0 +1,94 @@
+package br.com.erudio.services.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Optional;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.input.BoundedInputStream;
+
+import br.com.erudio.config.FileStorageConfig.FsyncPolicy;
+
+/**
+ * Objects are files under the upload directory, renamed into place from the
+ * staging file so readers never see a partial object.
+ */
+public class LocalStorageBackend implements StorageBackend {
+
+	private Logger logger = Logger.getLogger(LocalStorageBackend.class.getName());
+
+	private final Path root;
+	private final FsyncPolicy fsyncPolicy;
+
+	public LocalStorageBackend(Path root, FsyncPolicy fsyncPolicy) {
+		this.root = root.toAbsolutePath().normalize();
+		this.fsyncPolicy = fsyncPolicy;
+	}
+
+	@Override
+	public void put(String key, Path source) throws IOException {
+		Path target = path(key);
+		Files.createDirectories(target.getParent());
+		Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		if (fsyncPolicy == FsyncPolicy.DURABLE) {
+			forceDirectory(target.getParent());
+		}
+	}
+
+	@Override
+	public Optional<StorageObject> stat(String key) throws IOException {
+		try {
+			var attributes = Files.readAttributes(path(key), BasicFileAttributes.class);
+			return Optional.of(new StorageObject(attributes.size(), attributes.lastModifiedTime().toInstant()));
+		} catch (NoSuchFileException e) {
+			return Optional.empty();
+		}
+	}
+
+	@Override
+	public InputStream open(String key, long start, long end) throws IOException {
+		FileChannel channel = FileChannel.open(path(key), StandardOpenOption.READ);
+		try {
+			InputStream in = Channels.newInputStream(channel.position(start));
+			return end == Long.MAX_VALUE ? in : new BoundedInputStream(in, end - start + 1);
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public void delete(String key) throws IOException {
+		Files.deleteIfExists(path(key));
+	}
+
+	@Override
+	public Path localFile(String key) {
+		return path(key);
+	}
+
+	private Path path(String key) {
+		Path path = root.resolve(key).normalize();
+		if (!path.startsWith(root)) {
+			throw new IllegalArgumentException("Key escapes the storage root: " + key);
+		}
+		return path;
+	}
+
+	private void forceDirectory(Path directory) {
+		try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+			channel.force(true);
+		} catch (IOException e) {
+			// Not every platform can open a directory as a channel (e.g. Windows).
+			logger.fine("Could not fsync " + directory + ": " + e.getMessage());
+		}
+	}
+}
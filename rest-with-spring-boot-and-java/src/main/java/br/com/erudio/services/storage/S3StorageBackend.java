@@ -0,0 +1,234 @@
+package br.com.erudio.services.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import org.apache.commons.io.input.BoundedInputStream;
+import org.springframework.util.FileSystemUtils;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.sync.ResponseTransformer;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Objects live in an S3-compatible bucket, so every node sees every file.
+ * Staged files larger than the part size go up as a multipart upload, one
+ * part at a time straight from the file. Reads use ranged GETs.
+ *
+ * With the local cache enabled, uploads are written through to a cache
+ * directory on the local volume and misses are downloaded into it, so hot
+ * objects are served from local files with sendfile. The cache is bounded by
+ * size and starts empty on every boot.
+ */
+public class S3StorageBackend implements StorageBackend {
+
+	private Logger logger = Logger.getLogger(S3StorageBackend.class.getName());
+
+	private final S3Client s3;
+	private final String bucket;
+	private final long partSize;
+	private final Path cacheLocation;
+	private final Cache<String, Path> cache;
+
+	public S3StorageBackend(S3Client s3, String bucket, long partSize, Path cacheLocation, long cacheSize) {
+		this.s3 = s3;
+		this.bucket = bucket;
+		this.partSize = partSize;
+		this.cacheLocation = cacheLocation;
+		this.cache = cacheLocation == null ? null : Caffeine.newBuilder()
+				.maximumWeight(Math.max(1, cacheSize / 1024))
+				.weigher((String key, Path path) -> (int) Math.min(Integer.MAX_VALUE, size(path) / 1024 + 1))
+				// Synchronous, so a later write-through of the same key cannot be deleted by a late eviction.
+				.evictionListener((String key, Path path, RemovalCause cause) -> deleteQuietly(path))
+				.build();
+		if (cacheLocation != null) {
+			try {
+				FileSystemUtils.deleteRecursively(cacheLocation);
+				Files.createDirectories(cacheLocation);
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not prepare the storage cache at " + cacheLocation, e);
+			}
+		}
+	}
+
+	@Override
+	public void put(String key, Path source) throws IOException {
+		long size = Files.size(source);
+		if (size <= partSize) {
+			s3.putObject(request -> request.bucket(bucket).key(key), RequestBody.fromFile(source));
+		} else {
+			multipartUpload(key, source, size);
+		}
+
+		if (cache == null) {
+			Files.deleteIfExists(source);
+			return;
+		}
+		Path cached = cachePath(key);
+		Files.createDirectories(cached.getParent());
+		Files.move(source, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		cache.put(key, cached);
+	}
+
+	@Override
+	public Optional<StorageObject> stat(String key) {
+		try {
+			var head = s3.headObject(request -> request.bucket(bucket).key(key));
+			return Optional.of(new StorageObject(head.contentLength(), head.lastModified()));
+		} catch (NoSuchKeyException e) {
+			return Optional.empty();
+		} catch (S3Exception e) {
+			if (e.statusCode() == 404) {
+				return Optional.empty();
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public InputStream open(String key, long start, long end) throws IOException {
+		Path cached = cache != null ? cache.getIfPresent(key) : null;
+		if (cached != null) {
+			try {
+				FileChannel channel = FileChannel.open(cached, StandardOpenOption.READ);
+				InputStream in = Channels.newInputStream(channel.position(start));
+				return end == Long.MAX_VALUE ? in : new BoundedInputStream(in, end - start + 1);
+			} catch (NoSuchFileException e) {
+				// Evicted in the meantime; fall through to the bucket.
+			}
+		}
+		var request = GetObjectRequest.builder().bucket(bucket).key(key);
+		if (start > 0 || end != Long.MAX_VALUE) {
+			request.range("bytes=" + start + "-" + (end == Long.MAX_VALUE ? "" : end));
+		}
+		try {
+			return s3.getObject(request.build());
+		} catch (NoSuchKeyException e) {
+			throw new NoSuchFileException(key);
+		}
+	}
+
+	@Override
+	public void delete(String key) {
+		s3.deleteObject(request -> request.bucket(bucket).key(key));
+		if (cache != null) {
+			Path cached = cache.asMap().remove(key);
+			if (cached != null) {
+				deleteQuietly(cached);
+			}
+		}
+	}
+
+	@Override
+	public Path localFile(String key) throws IOException {
+		if (cache == null) {
+			return null;
+		}
+		try {
+			return cache.get(key, this::download);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	private void multipartUpload(String key, Path source, long size) throws IOException {
+		String uploadId = s3.createMultipartUpload(request -> request.bucket(bucket).key(key)).uploadId();
+		try {
+			List<CompletedPart> parts = new ArrayList<>();
+			for (long offset = 0; offset < size; offset += partSize) {
+				int partNumber = parts.size() + 1;
+				long start = offset;
+				long length = Math.min(partSize, size - offset);
+				// The provider is asked for a fresh stream on every attempt, so
+				// retries re-read the part from disk instead of buffering it.
+				var body = RequestBody.fromContentProvider(() -> openSlice(source, start, length), length, "application/octet-stream");
+				String etag = s3.uploadPart(request -> request.bucket(bucket).key(key)
+						.uploadId(uploadId).partNumber(partNumber).contentLength(length), body).eTag();
+				parts.add(CompletedPart.builder().partNumber(partNumber).eTag(etag).build());
+			}
+			s3.completeMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+					.multipartUpload(CompletedMultipartUpload.builder().parts(parts).build()));
+		} catch (RuntimeException e) {
+			try {
+				s3.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+			} catch (RuntimeException abort) {
+				e.addSuppressed(abort);
+			}
+			throw e;
+		}
+	}
+
+	private Path download(String key) {
+		Path cached = cachePath(key);
+		try {
+			Files.createDirectories(cached.getParent());
+			Path partial = cached.resolveSibling(".download-" + UUID.randomUUID() + ".part");
+			try {
+				s3.getObject(request -> request.bucket(bucket).key(key), ResponseTransformer.toFile(partial));
+				Files.move(partial, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(partial);
+			}
+			return cached;
+		} catch (NoSuchKeyException e) {
+			throw new UncheckedIOException(new NoSuchFileException(key));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Path cachePath(String key) {
+		Path path = cacheLocation.resolve(key).normalize();
+		if (!path.startsWith(cacheLocation)) {
+			throw new IllegalArgumentException("Key escapes the storage cache: " + key);
+		}
+		return path;
+	}
+
+	private static InputStream openSlice(Path source, long start, long length) {
+		try {
+			FileChannel channel = FileChannel.open(source, StandardOpenOption.READ);
+			return new BoundedInputStream(Channels.newInputStream(channel.position(start)), length);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static long size(Path path) {
+		try {
+			return Files.size(path);
+		} catch (IOException e) {
+			return 0;
+		}
+	}
+
+	private void deleteQuietly(Path path) {
+		try {
+			Files.deleteIfExists(path);
+		} catch (IOException e) {
+			logger.warning("Could not delete cached object " + path + ": " + e.getMessage());
+		}
+	}
+}
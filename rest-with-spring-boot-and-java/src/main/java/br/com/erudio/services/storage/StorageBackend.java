@@ -0,0 +1,47 @@
+package br.com.erudio.services.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Where stored file contents live. Objects are addressed by a key (the file
+ * name in the flat layout, ab/cd/&lt;sha-256&gt; in the content-addressed one)
+ * and are written whole from a staging file on the local upload volume.
+ */
+public interface StorageBackend {
+
+	/**
+	 * Makes the staged file the content of key, replacing any previous object.
+	 * The source file is consumed.
+	 */
+	void put(String key, Path source) throws IOException;
+
+	Optional<StorageObject> stat(String key) throws IOException;
+
+	/**
+	 * Opens the bytes from start to end, both inclusive; end may be past the
+	 * end of the object.
+	 */
+	InputStream open(String key, long start, long end) throws IOException;
+
+	default InputStream open(String key) throws IOException {
+		return open(key, 0, Long.MAX_VALUE);
+	}
+
+	void delete(String key) throws IOException;
+
+	/**
+	 * Records a read of key that was served without opening it, e.g. from an
+	 * in-memory copy.
+	 */
+	default void touch(String key) {
+	}
+
+	/**
+	 * A local file with the object's content, so it can be served with
+	 * sendfile, or null when the object has to be streamed with open.
+	 */
+	Path localFile(String key) throws IOException;
+}
@@ -0,0 +1,6 @@
+package br.com.erudio.services.storage;
+
+import java.time.Instant;
+
+public record StorageObject(long size, Instant lastModified) {
+}
@@ -0,0 +1,279 @@
+package br.com.erudio.services.storage;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.io.input.BoundedInputStream;
+
+import br.com.erudio.model.ColdObject;
+import br.com.erudio.repositories.ColdObjectRepository;
+import br.com.erudio.util.CompressionSaving;
+import br.com.erudio.util.KeyedLocks;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Two storage tiers behind one key space. Objects are written to the hot
+ * tier; {@link #archive} moves an idle one to the cold tier, gzip-compressed
+ * when that saves enough (see {@link CompressionSaving}). Cold objects are decompressed
+ * on the fly when read and are never served as local files, and storing the
+ * key again brings it back to the hot tier.
+ *
+ * Reads are tracked per key in memory. Keys with no read since startup count
+ * as read at startup, so a restart never makes the whole store look idle.
+ */
+public class TieredStorageBackend implements StorageBackend {
+
+	private static final String GZIP_SUFFIX = ".gz";
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private Logger logger = Logger.getLogger(TieredStorageBackend.class.getName());
+
+	private final StorageBackend hot;
+	private final StorageBackend cold;
+	private final Path stagingLocation;
+	private final ColdObjectRepository repository;
+
+	private final Map<String, ColdObject> coldIndex = new ConcurrentHashMap<>();
+	private final Map<String, Long> lastAccess = new ConcurrentHashMap<>();
+	private final long startedAt = System.currentTimeMillis();
+	private final KeyedLocks locks = new KeyedLocks();
+
+	private final Timer coldReads;
+	private final Counter archived;
+
+	public TieredStorageBackend(StorageBackend hot, StorageBackend cold, Path stagingLocation,
+			ColdObjectRepository repository, MeterRegistry meterRegistry) {
+		this.hot = hot;
+		this.cold = cold;
+		this.stagingLocation = stagingLocation;
+		this.repository = repository;
+		this.coldReads = Timer.builder("file.tiering.cold.reads")
+				.description("Time from opening a cold object until its stream is closed")
+				.register(meterRegistry);
+		this.archived = Counter.builder("file.tiering.archived")
+				.description("Objects moved to the cold tier")
+				.register(meterRegistry);
+		Gauge.builder("file.tiering.cold.objects", coldIndex, Map::size)
+				.register(meterRegistry);
+		Gauge.builder("file.tiering.bytes.saved", this, TieredStorageBackend::getBytesSaved)
+				.description("Original minus stored size of the cold objects")
+				.baseUnit("bytes")
+				.register(meterRegistry);
+	}
+
+	public void loadColdIndex() throws IOException {
+		Files.createDirectories(stagingLocation);
+		repository.findAll().forEach(object -> coldIndex.put(object.getStorageKey(), object));
+		logger.info("Loaded " + coldIndex.size() + " cold objects");
+	}
+
+	@Override
+	public void put(String key, Path source) throws IOException {
+		ColdObject object;
+		try (var held = locks.lock(key)) {
+			hot.put(key, source);
+			touch(key);
+			object = forget(key);
+		}
+		deleteCold(object);
+	}
+
+	@Override
+	public Optional<StorageObject> stat(String key) throws IOException {
+		ColdObject object = coldIndex.get(key);
+		if (object != null) {
+			return Optional.of(new StorageObject(object.getOriginalSize(), object.getArchivedAt().toInstant()));
+		}
+		return hot.stat(key);
+	}
+
+	@Override
+	public InputStream open(String key, long start, long end) throws IOException {
+		touch(key);
+		ColdObject object = coldIndex.get(key);
+		if (object == null) {
+			try {
+				return hot.open(key, start, end);
+			} catch (NoSuchFileException e) {
+				// Archived since the lookup above.
+				object = coldIndex.get(key);
+				if (object == null) {
+					throw e;
+				}
+			}
+		}
+		return openCold(object, start, end);
+	}
+
+	@Override
+	public void delete(String key) throws IOException {
+		ColdObject object;
+		try (var held = locks.lock(key)) {
+			hot.delete(key);
+			object = forget(key);
+		}
+		deleteCold(object);
+		lastAccess.remove(key);
+	}
+
+	@Override
+	public Path localFile(String key) throws IOException {
+		touch(key);
+		return coldIndex.containsKey(key) ? null : hot.localFile(key);
+	}
+
+	@Override
+	public void touch(String key) {
+		lastAccess.put(key, System.currentTimeMillis());
+	}
+
+	public boolean isCold(String key) {
+		return coldIndex.containsKey(key);
+	}
+
+	/**
+	 * Moves key to the cold tier if it has not been read or written since
+	 * idleSince. The cold copy is written and its row saved before the swap,
+	 * outside the key lock; the swap re-checks the last access under it, and
+	 * a read or an overwrite that raced with the copy keeps the object hot and
+	 * discards the copy and its row again.
+	 */
+	public boolean archive(String key, boolean compress, long idleSince) throws IOException {
+		if (coldIndex.containsKey(key) || lastAccess(key) >= idleSince || hot.stat(key).isEmpty()) {
+			return false;
+		}
+
+		var object = new ColdObject();
+		object.setStorageKey(key);
+		Path staged = Files.createTempFile(stagingLocation, ".archive-", ".part");
+		try {
+			long originalSize = copy(key, staged, compress);
+			long storedSize = Files.size(staged);
+			String encoding = compress ? ColdObject.GZIP : ColdObject.IDENTITY;
+			if (compress && !CompressionSaving.isWorthKeeping(originalSize, storedSize)) {
+				copy(key, staged, false);
+				storedSize = Files.size(staged);
+				encoding = ColdObject.IDENTITY;
+			}
+			object.setEncoding(encoding);
+			object.setOriginalSize(originalSize);
+			object.setStoredSize(storedSize);
+			object.setArchivedAt(new Date());
+
+			cold.put(coldKey(object), staged);
+		} finally {
+			Files.deleteIfExists(staged);
+		}
+
+		try {
+			repository.save(object);
+		} catch (RuntimeException e) {
+			deleteCold(object);
+			throw e;
+		}
+
+		boolean swapped;
+		try (var held = locks.lock(key)) {
+			swapped = lastAccess(key) < idleSince && !coldIndex.containsKey(key);
+			if (swapped) {
+				coldIndex.put(key, object);
+				hot.delete(key);
+			}
+		}
+		if (!swapped) {
+			repository.deleteById(key);
+			deleteCold(object);
+			return false;
+		}
+		archived.increment();
+		return true;
+	}
+
+	public long getBytesSaved() {
+		return coldIndex.values().stream()
+				.mapToLong(object -> object.getOriginalSize() - object.getStoredSize())
+				.sum();
+	}
+
+	private long copy(String key, Path target, boolean compress) throws IOException {
+		try (InputStream in = hot.open(key);
+				OutputStream file = Files.newOutputStream(target);
+				OutputStream out = compress ? new GZIPOutputStream(file, BUFFER_SIZE) : file) {
+			return in.transferTo(out);
+		}
+	}
+
+	private InputStream openCold(ColdObject object, long start, long end) throws IOException {
+		long started = System.nanoTime();
+		InputStream in = cold.open(coldKey(object));
+		if (ColdObject.GZIP.equals(object.getEncoding())) {
+			in = new GZIPInputStream(in, BUFFER_SIZE);
+		}
+		in.skipNBytes(start);
+		if (end != Long.MAX_VALUE) {
+			in = new BoundedInputStream(in, end - start + 1);
+		}
+		return new FilterInputStream(in) {
+			private boolean closed;
+
+			@Override
+			public void close() throws IOException {
+				super.close();
+				if (!closed) {
+					closed = true;
+					coldReads.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+				}
+			}
+		};
+	}
+
+	private long lastAccess(String key) {
+		return lastAccess.getOrDefault(key, startedAt);
+	}
+
+	private static String coldKey(ColdObject object) {
+		return ColdObject.GZIP.equals(object.getEncoding())
+				? object.getStorageKey() + GZIP_SUFFIX
+				: object.getStorageKey();
+	}
+
+	/**
+	 * Drops key from the cold tier index and its row; the caller holds the
+	 * key lock and deletes the returned cold copy after releasing it.
+	 */
+	private ColdObject forget(String key) {
+		ColdObject object = coldIndex.get(key);
+		if (object != null) {
+			repository.deleteById(key);
+			coldIndex.remove(key);
+		}
+		return object;
+	}
+
+	private void deleteCold(ColdObject object) {
+		if (object == null) {
+			return;
+		}
+		try {
+			cold.delete(coldKey(object));
+		} catch (IOException | RuntimeException e) {
+			logger.warning("Could not delete the cold copy of " + object.getStorageKey() + ": " + e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,18 @@
+package br.com.erudio.util;
+
+/**
+ * When a compressed copy of a file is worth keeping: it has to save at least
+ * a tenth of the size, or decompressing it on every read costs more than the
+ * bytes it saves.
+ */
+public final class CompressionSaving {
+
+	public static final double MIN_SAVING = 0.1;
+
+	private CompressionSaving() {
+	}
+
+	public static boolean isWorthKeeping(long originalSize, long compressedSize) {
+		return compressedSize <= originalSize * (1 - MIN_SAVING);
+	}
+}
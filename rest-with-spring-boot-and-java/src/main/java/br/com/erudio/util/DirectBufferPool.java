@@ -0,0 +1,31 @@
+package br.com.erudio.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Small bounded pool of direct buffers. Allocating direct memory is slow, so
+ * buffers are reused; when the pool is empty a new one is allocated and, if
+ * the pool is full on release, simply left to the garbage collector.
+ */
+public class DirectBufferPool {
+
+	private final int bufferSize;
+	private final BlockingQueue<ByteBuffer> buffers;
+
+	public DirectBufferPool(int bufferSize, int maxPooled) {
+		this.bufferSize = bufferSize;
+		this.buffers = new ArrayBlockingQueue<>(maxPooled);
+	}
+
+	public ByteBuffer acquire() {
+		ByteBuffer buffer = buffers.poll();
+		return buffer != null ? buffer : ByteBuffer.allocateDirect(bufferSize);
+	}
+
+	public void release(ByteBuffer buffer) {
+		buffer.clear();
+		buffers.offer(buffer);
+	}
+}
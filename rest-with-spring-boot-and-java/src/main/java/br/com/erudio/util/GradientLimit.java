@@ -0,0 +1,94 @@
+package br.com.erudio.util;
+
+/**
+ * A concurrency limit derived from latency, in the spirit of the gradient
+ * limiters of Netflix's concurrency-limits. Samples are aggregated in windows
+ * of {@link #WINDOW} requests; the average latency of a window (short RTT) is
+ * compared with a slowly moving average (long RTT):
+ *
+ * <ul>
+ * <li>while the short RTT stays within {@link #TOLERANCE} of the long one the
+ * limit grows by about sqrt(limit), i.e. a small queue is allowed to probe for
+ * more capacity;</li>
+ * <li>when it rises beyond that, requests are queueing somewhere (threads,
+ * pool, database) and the limit moves towards limit * gradient (the gradient
+ * being at least 0.5), smoothed to lose at most about a tenth per window;</li>
+ * <li>a request that failed for lack of capacity (a timeout) multiplies the
+ * limit by {@link #BACKOFF}, as in AIMD.</li>
+ * </ul>
+ *
+ * A window in which fewer than half of the permits were used carries no
+ * information about capacity and leaves the limit unchanged.
+ */
+public class GradientLimit {
+
+	static final int WINDOW = 20;
+	static final double TOLERANCE = 1.5;
+	static final double SMOOTHING = 0.2;
+	static final double BACKOFF = 0.9;
+	private static final int LONG_WINDOWS = 30;
+
+	private final int minLimit;
+	private final int maxLimit;
+
+	private volatile double limit;
+	private double longRtt;
+	private long windowRttSum;
+	private int windowSamples;
+	private int windowMaxInFlight;
+	private boolean windowDropped;
+
+	public GradientLimit(int initialLimit, int minLimit, int maxLimit) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+	}
+
+	public int getLimit() {
+		return (int) limit;
+	}
+
+	/**
+	 * Records one completed request.
+	 *
+	 * @param rttNanos how long it took
+	 * @param inFlight the requests in flight when it started, itself included
+	 * @param dropped  whether it failed for lack of capacity
+	 */
+	public synchronized void onSample(long rttNanos, int inFlight, boolean dropped) {
+		windowRttSum += rttNanos;
+		windowSamples++;
+		windowMaxInFlight = Math.max(windowMaxInFlight, inFlight);
+		windowDropped |= dropped;
+		if (windowSamples < WINDOW) {
+			return;
+		}
+
+		double shortRtt = (double) windowRttSum / windowSamples;
+		if (longRtt == 0) {
+			longRtt = shortRtt;
+		} else {
+			longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+			if (longRtt / shortRtt > 2) {
+				// Latency dropped a lot: catch up instead of growing for minutes.
+				longRtt = (longRtt + shortRtt) / 2;
+			}
+		}
+
+		double current = limit;
+		double next = current;
+		if (windowDropped) {
+			next = current * BACKOFF;
+		} else if (windowMaxInFlight >= current / 2) {
+			double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+			double target = current * gradient + Math.sqrt(current);
+			next = current * (1 - SMOOTHING) + target * SMOOTHING;
+		}
+		limit = Math.max(minLimit, Math.min(maxLimit, next));
+
+		windowRttSum = 0;
+		windowSamples = 0;
+		windowMaxInFlight = 0;
+		windowDropped = false;
+	}
+}
@@ -0,0 +1,52 @@
+package br.com.erudio.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * One {@link ReentrantLock} per key, created on first use and dropped once
+ * no thread holds or waits for it, so unrelated keys never contend and the
+ * map only holds the keys in use. Unlike a monitor, a thread waiting here
+ * does not pin its carrier when it is virtual.
+ */
+public class KeyedLocks {
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Blocks until the lock of key is held; closing the result releases it.
+	 */
+	public Held lock(String key) {
+		Entry entry = entries.compute(key, (k, current) -> {
+			Entry used = current != null ? current : new Entry();
+			used.users++;
+			return used;
+		});
+		entry.lock.lock();
+		return () -> {
+			entry.lock.unlock();
+			entries.computeIfPresent(key, (k, current) -> --current.users == 0 ? null : current);
+		};
+	}
+
+	/** Number of keys currently locked or waited for. */
+	public int size() {
+		return entries.size();
+	}
+
+	@FunctionalInterface
+	public interface Held extends AutoCloseable {
+
+		@Override
+		void close();
+	}
+
+	private static final class Entry {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		/** Only read and written inside the map's compute functions. */
+		private int users;
+	}
+}
@@ -5,4 +5,7 @@ public class MediaType {
 	public static final String APPLICATION_JSON = "application/json";
 	public static final String APPLICATION_XML = "application/xml";
 	public static final String APPLICATION_YML = "application/x-yaml";
+	public static final String APPLICATION_CBOR = "application/cbor";
+	public static final String APPLICATION_SMILE = "application/x-jackson-smile";
+	public static final String APPLICATION_NDJSON = "application/x-ndjson";
 }
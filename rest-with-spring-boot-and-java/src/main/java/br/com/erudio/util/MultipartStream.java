@@ -0,0 +1,288 @@
+package br.com.erudio.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+
+/**
+ * Reads a multipart/form-data body one part at a time, as it arrives. The
+ * content of a part is a stream over the body itself, so it can be written
+ * to its target without being buffered or spooled first. A part that is not
+ * read to the end is skipped when the next one is requested.
+ *
+ * Size limits (negative for none) are checked while reading and raise
+ * MaxUploadSizeExceededException; a malformed body raises MultipartException.
+ */
+public class MultipartStream {
+
+	private static final int MIN_BUFFER_SIZE = 16 * 1024;
+	private static final int MAX_HEADERS_SIZE = 10 * 1024;
+
+	private final InputStream in;
+	private final byte[] delimiter;
+	private final byte[] buffer;
+	private final long maxPartSize;
+	private final long maxTotalSize;
+	private int head;
+	private int tail;
+	private long totalRead;
+	private PartInputStream current;
+	private boolean finished;
+
+	public MultipartStream(InputStream in, String boundary, int bufferSize, long maxPartSize, long maxTotalSize) {
+		this.in = in;
+		this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+		this.buffer = new byte[Math.max(bufferSize, MIN_BUFFER_SIZE)];
+		this.maxPartSize = maxPartSize;
+		this.maxTotalSize = maxTotalSize;
+		// The first delimiter has no line break before it; read as if it had.
+		buffer[tail++] = '\r';
+		buffer[tail++] = '\n';
+	}
+
+	/**
+	 * The boundary of a multipart Content-Type, or null when there is none.
+	 */
+	public static String boundary(String contentType) {
+		if (contentType == null) {
+			return null;
+		}
+		String boundary;
+		try {
+			boundary = org.springframework.http.MediaType.parseMediaType(contentType).getParameter("boundary");
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		if (boundary != null && boundary.length() >= 2 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+			boundary = boundary.substring(1, boundary.length() - 1);
+		}
+		return boundary == null || boundary.isEmpty() ? null : boundary;
+	}
+
+	/**
+	 * Moves to the next part, skipping what is left of the current one (or
+	 * the preamble); null after the last part.
+	 */
+	public Part next() throws IOException {
+		if (finished) {
+			return null;
+		}
+		if (current == null) {
+			current = new PartInputStream();
+		}
+		current.skipRemaining();
+		current = null;
+
+		if (!fill(2)) {
+			throw new MultipartException("The multipart body ends without a closing boundary");
+		}
+		if (buffer[head] == '-' && buffer[head + 1] == '-') {
+			finished = true;
+			return null;
+		}
+		if (buffer[head] != '\r' || buffer[head + 1] != '\n') {
+			throw new MultipartException("Malformed multipart boundary");
+		}
+		head += 2;
+
+		var headers = readHeaders();
+		String disposition = headers.getFirst(HttpHeaders.CONTENT_DISPOSITION);
+		if (disposition == null) {
+			throw new MultipartException("Multipart part without Content-Disposition");
+		}
+		var contentDisposition = ContentDisposition.parse(disposition);
+		current = new PartInputStream();
+		return new Part(contentDisposition.getName(), contentDisposition.getFilename(),
+				headers.getFirst(HttpHeaders.CONTENT_TYPE), current);
+	}
+
+	private HttpHeaders readHeaders() throws IOException {
+		var headers = new HttpHeaders();
+		int size = 0;
+		while (true) {
+			int end = lineEnd();
+			int length = end - head;
+			size += length + 2;
+			if (size > MAX_HEADERS_SIZE) {
+				throw new MultipartException("Multipart part headers exceed " + MAX_HEADERS_SIZE + " bytes");
+			}
+			String line = new String(buffer, head, length, StandardCharsets.UTF_8);
+			head = end + 2;
+			if (line.isEmpty()) {
+				return headers;
+			}
+			int colon = line.indexOf(':');
+			if (colon <= 0) {
+				throw new MultipartException("Malformed multipart header: " + line);
+			}
+			headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+		}
+	}
+
+	/** Index of the CRLF ending the line at head, reading more as needed. */
+	private int lineEnd() throws IOException {
+		int from = head;
+		while (true) {
+			for (int i = from; i < tail - 1; i++) {
+				if (buffer[i] == '\r' && buffer[i + 1] == '\n') {
+					return i;
+				}
+			}
+			int scanned = Math.max(0, tail - 1 - head);
+			if (tail - head >= MAX_HEADERS_SIZE || !readMore()) {
+				throw new MultipartException("Malformed multipart part headers");
+			}
+			from = head + scanned;
+		}
+	}
+
+	/** Makes sure count bytes are buffered; false if the body ends first. */
+	private boolean fill(int count) throws IOException {
+		while (tail - head < count) {
+			if (!readMore()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Moves the unread bytes to the front and reads more after them. */
+	private boolean readMore() throws IOException {
+		if (head > 0) {
+			System.arraycopy(buffer, head, buffer, 0, tail - head);
+			if (current != null) {
+				current.shifted(head);
+			}
+			tail -= head;
+			head = 0;
+		}
+		int read = in.read(buffer, tail, buffer.length - tail);
+		if (read == -1) {
+			return false;
+		}
+		tail += read;
+		totalRead += read;
+		if (maxTotalSize >= 0 && totalRead > maxTotalSize) {
+			throw new MaxUploadSizeExceededException(maxTotalSize);
+		}
+		return true;
+	}
+
+	public record Part(String name, String filename, String contentType, InputStream content) {
+
+		public boolean isFile() {
+			return filename != null;
+		}
+	}
+
+	/**
+	 * The content of one part: the bytes up to the next delimiter, which is
+	 * consumed when the part ends.
+	 */
+	private class PartInputStream extends InputStream {
+
+		private long read;
+		private boolean done;
+		/** Index of the next delimiter in the buffer, or -1 if not found yet. */
+		private int delimiterAt = -1;
+		/** No delimiter starts before this index. */
+		private int scannedTo = head;
+
+		@Override
+		public int read() throws IOException {
+			byte[] one = new byte[1];
+			return read(one, 0, 1) == -1 ? -1 : one[0] & 0xff;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (done) {
+				return -1;
+			}
+			if (len == 0) {
+				return 0;
+			}
+			while (true) {
+				int available;
+				int found = findDelimiter();
+				if (found >= 0) {
+					available = found - head;
+					if (available == 0) {
+						head += delimiter.length;
+						done = true;
+						return -1;
+					}
+				} else {
+					// The end of the buffer may hold the start of a delimiter.
+					available = tail - head - (delimiter.length - 1);
+					if (available <= 0) {
+						if (!readMore()) {
+							throw new MultipartException("The multipart body ends in the middle of a part");
+						}
+						continue;
+					}
+				}
+				int count = Math.min(len, available);
+				System.arraycopy(buffer, head, b, off, count);
+				head += count;
+				read += count;
+				if (maxPartSize >= 0 && read > maxPartSize) {
+					throw new MaxUploadSizeExceededException(maxPartSize);
+				}
+				return count;
+			}
+		}
+
+		@Override
+		public int available() {
+			if (done) {
+				return 0;
+			}
+			int found = delimiterAt >= 0 ? delimiterAt : tail - (delimiter.length - 1);
+			return Math.max(0, found - head);
+		}
+
+		void skipRemaining() throws IOException {
+			byte[] skipped = new byte[8192];
+			while (read(skipped, 0, skipped.length) != -1) {
+				// Discarded.
+			}
+		}
+
+		void shifted(int offset) {
+			if (delimiterAt >= 0) {
+				delimiterAt -= offset;
+			}
+			scannedTo = Math.max(0, scannedTo - offset);
+		}
+
+		private int findDelimiter() {
+			if (delimiterAt >= 0) {
+				return delimiterAt;
+			}
+			int last = tail - delimiter.length;
+			for (int i = Math.max(head, scannedTo); i <= last; i++) {
+				if (matchesDelimiter(i)) {
+					delimiterAt = i;
+					return i;
+				}
+			}
+			scannedTo = Math.max(scannedTo, last + 1);
+			return -1;
+		}
+
+		private boolean matchesDelimiter(int at) {
+			for (int i = 0; i < delimiter.length; i++) {
+				if (buffer[at + i] != delimiter[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+}
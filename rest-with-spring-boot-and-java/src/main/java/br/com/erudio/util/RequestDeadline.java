@@ -0,0 +1,113 @@
+package br.com.erudio.util;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The point in time after which the client of the current request no longer
+ * waits for the answer. It is bound to the request thread, and the statements
+ * running on its behalf are registered so they can be cancelled when the
+ * deadline passes instead of running to completion for nobody.
+ */
+public final class RequestDeadline {
+
+	/**
+	 * Request attribute with the System.nanoTime() at which the request was
+	 * received; the deadline counts from there, not from when a thread got to it.
+	 */
+	public static final String RECEIVED_AT = RequestDeadline.class.getName() + ".RECEIVED_AT";
+
+	private static final Logger logger = Logger.getLogger(RequestDeadline.class.getName());
+
+	private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+	private static final ScheduledThreadPoolExecutor CANCELLER = new ScheduledThreadPoolExecutor(1, runnable -> {
+		var thread = new Thread(runnable, "request-deadline");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	static {
+		CANCELLER.setRemoveOnCancelPolicy(true);
+	}
+
+	private final long deadlineNanos;
+	private final Set<Statement> running = ConcurrentHashMap.newKeySet();
+	private volatile boolean expired;
+	private ScheduledFuture<?> canceller;
+
+	private RequestDeadline(Duration timeout, long startNanos) {
+		this.deadlineNanos = startNanos + timeout.toNanos();
+	}
+
+	public static RequestDeadline start(Duration timeout) {
+		return start(timeout, System.nanoTime());
+	}
+
+	public static RequestDeadline start(Duration timeout, long startNanos) {
+		var deadline = new RequestDeadline(timeout, startNanos);
+		CURRENT.set(deadline);
+		return deadline;
+	}
+
+	public static RequestDeadline current() {
+		return CURRENT.get();
+	}
+
+	public static void clear() {
+		var deadline = CURRENT.get();
+		if (deadline != null) {
+			CURRENT.remove();
+			deadline.close();
+		}
+	}
+
+	public long remainingMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+	}
+
+	public boolean isExpired() {
+		return expired || deadlineNanos - System.nanoTime() <= 0;
+	}
+
+	/**
+	 * Tracks a statement while it executes; the first one arms the timer that
+	 * cancels whatever is still running when the deadline passes.
+	 */
+	public synchronized void register(Statement statement) {
+		running.add(statement);
+		if (canceller == null) {
+			canceller = CANCELLER.schedule(this::expire, deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+	}
+
+	public void unregister(Statement statement) {
+		running.remove(statement);
+	}
+
+	void expire() {
+		expired = true;
+		for (Statement statement : running) {
+			try {
+				statement.cancel();
+			} catch (SQLException e) {
+				logger.log(Level.FINE, "Could not cancel a statement past its deadline", e);
+			}
+		}
+	}
+
+	private synchronized void close() {
+		if (canceller != null) {
+			canceller.cancel(false);
+		}
+		running.clear();
+	}
+}
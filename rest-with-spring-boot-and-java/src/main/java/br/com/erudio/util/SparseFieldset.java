@@ -0,0 +1,26 @@
+package br.com.erudio.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+
+public class SparseFieldset {
+
+	public static List<String> parse(String fields, List<String> allowedFields) {
+		List<String> selected = new ArrayList<>();
+		selected.add("id");
+		
+		for (String field : fields.split(",")) {
+			var name = field.trim();
+			if (name.isEmpty() || selected.contains(name)) {
+				continue;
+			}
+			if (!allowedFields.contains(name)) {
+				throw new InvalidRequestParameterException("Unknown field '" + name + "'! Allowed fields: " + allowedFields);
+			}
+			selected.add(name);
+		}
+		return selected;
+	}
+}
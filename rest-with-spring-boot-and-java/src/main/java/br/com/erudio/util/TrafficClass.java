@@ -0,0 +1,67 @@
+package br.com.erudio.util;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * The classes of traffic kept apart by the bulkheads: each has its own
+ * request executor and its own slice of the connection pool. The class of the
+ * request being served is bound to the thread serving it.
+ */
+public enum TrafficClass {
+
+	AUTH, CRUD, FILE;
+
+	private static final ThreadLocal<TrafficClass> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * The class of a request path, or null for paths outside the bulkheads
+	 * (documentation, actuator, error pages).
+	 */
+	public static TrafficClass of(String path) {
+		if (path.startsWith("/auth/")) {
+			return AUTH;
+		}
+		if (path.startsWith("/api/file/")) {
+			return FILE;
+		}
+		if (path.startsWith("/api/")) {
+			return CRUD;
+		}
+		return null;
+	}
+
+	public static TrafficClass current() {
+		return CURRENT.get();
+	}
+
+	public static void set(TrafficClass trafficClass) {
+		CURRENT.set(trafficClass);
+	}
+
+	public static void clear() {
+		CURRENT.remove();
+	}
+
+	/**
+	 * Runs work on behalf of the given class, e.g. a task a request hands to
+	 * another pool, so its queries use the connections of that class.
+	 */
+	public static <T> T callAs(TrafficClass trafficClass, Supplier<T> work) {
+		TrafficClass previous = CURRENT.get();
+		CURRENT.set(trafficClass);
+		try {
+			return work.get();
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	public String key() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,27 @@
+package br.com.erudio.util.filter;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An attribute that may be used in filters, with its Java type and whether
+ * the database has an index leading with its column.
+ */
+public record FilterField(String name, Class<?> type, boolean indexed) {
+
+	public static FilterField indexed(String name, Class<?> type) {
+		return new FilterField(name, type, true);
+	}
+
+	public static FilterField unindexed(String name, Class<?> type) {
+		return new FilterField(name, type, false);
+	}
+
+	public static Map<String, FilterField> of(FilterField... fields) {
+		Map<String, FilterField> byName = new LinkedHashMap<>();
+		for (FilterField field : fields) {
+			byName.put(field.name(), field);
+		}
+		return Map.copyOf(byName);
+	}
+}
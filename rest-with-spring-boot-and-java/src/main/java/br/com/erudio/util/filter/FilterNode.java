@@ -0,0 +1,59 @@
+package br.com.erudio.util.filter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Syntax tree of a filter expression. The shape of a tree is the expression
+ * with every argument replaced by a placeholder; expressions with the same
+ * shape compile to the same plan.
+ */
+public sealed interface FilterNode {
+
+	String shape();
+
+	/** The arguments of the comparisons, in the order the plan binds them. */
+	List<String> arguments();
+
+	record And(List<FilterNode> children) implements FilterNode {
+
+		@Override
+		public String shape() {
+			return children.stream().map(FilterNode::shape).collect(Collectors.joining(";", "(", ")"));
+		}
+
+		@Override
+		public List<String> arguments() {
+			return children.stream().flatMap(child -> child.arguments().stream()).toList();
+		}
+	}
+
+	record Or(List<FilterNode> children) implements FilterNode {
+
+		@Override
+		public String shape() {
+			return children.stream().map(FilterNode::shape).collect(Collectors.joining(",", "(", ")"));
+		}
+
+		@Override
+		public List<String> arguments() {
+			return children.stream().flatMap(child -> child.arguments().stream()).toList();
+		}
+	}
+
+	record Comparison(String selector, FilterOperator operator, List<String> values) implements FilterNode {
+
+		@Override
+		public String shape() {
+			String placeholders = values.size() == 1 && !operator.isMultiValued()
+					? "?"
+					: values.stream().map(value -> "?").collect(Collectors.joining(",", "(", ")"));
+			return selector + operator.getSymbol() + placeholders;
+		}
+
+		@Override
+		public List<String> arguments() {
+			return values;
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package br.com.erudio.util.filter;
+
+import java.util.List;
+
+public enum FilterOperator {
+
+	EQUAL("==", "=="),
+	NOT_EQUAL("!=", "!="),
+	LESS_THAN("=lt=", "<"),
+	LESS_THAN_OR_EQUAL("=le=", "<="),
+	GREATER_THAN("=gt=", ">"),
+	GREATER_THAN_OR_EQUAL("=ge=", ">="),
+	LIKE("=like=", null),
+	IN("=in=", null),
+	NOT_IN("=out=", null);
+
+	private final String symbol;
+	private final String alias;
+
+	FilterOperator(String symbol, String alias) {
+		this.symbol = symbol;
+		this.alias = alias;
+	}
+
+	public String getSymbol() {
+		return symbol;
+	}
+
+	public boolean isMultiValued() {
+		return this == IN || this == NOT_IN;
+	}
+
+	public boolean isOrdering() {
+		return this == LESS_THAN || this == LESS_THAN_OR_EQUAL || this == GREATER_THAN || this == GREATER_THAN_OR_EQUAL;
+	}
+
+	/** The symbol and, for comparisons, the shorthand (e.g. "=le=" and "<="). */
+	List<String> spellings() {
+		return alias != null ? List.of(symbol, alias) : List.of(symbol);
+	}
+}
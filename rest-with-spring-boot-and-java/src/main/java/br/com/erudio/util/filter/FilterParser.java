@@ -0,0 +1,175 @@
+package br.com.erudio.util.filter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+
+/**
+ * Parses RSQL-style filter expressions:
+ *
+ * <pre>
+ * or         = and { "," and }
+ * and        = constraint { ";" constraint }
+ * constraint = "(" or ")" | selector operator arguments
+ * arguments  = "(" value { "," value } ")" | value
+ * value      = unreserved characters | 'quoted' | "quoted"
+ * </pre>
+ *
+ * e.g. {@code gender==F;lastName=like=Sil*;enabled==true} or
+ * {@code (price=lt=20,price=gt=80);author=in=(Crockford,'Robert C. Martin')}.
+ */
+public class FilterParser {
+
+	public static final int MAX_LENGTH = 2000;
+	public static final int MAX_COMPARISONS = 32;
+	private static final int MAX_DEPTH = 8;
+	private static final String RESERVED = "\"'();,=!<>~ ";
+
+	private final String input;
+	private int position;
+	private int comparisons;
+
+	private FilterParser(String input) {
+		this.input = input;
+	}
+
+	public static FilterNode parse(String filter) {
+		if (filter == null || filter.isBlank()) {
+			throw new InvalidRequestParameterException("The filter is empty!");
+		}
+		if (filter.length() > MAX_LENGTH) {
+			throw new InvalidRequestParameterException("The filter is longer than " + MAX_LENGTH + " characters!");
+		}
+		var parser = new FilterParser(filter.trim());
+		FilterNode node = parser.or(0);
+		if (parser.position < parser.input.length()) {
+			throw parser.error("Unexpected '" + parser.input.charAt(parser.position) + "'");
+		}
+		return node;
+	}
+
+	private FilterNode or(int depth) {
+		List<FilterNode> children = new ArrayList<>();
+		children.add(and(depth));
+		while (accept(',')) {
+			children.add(and(depth));
+		}
+		return children.size() == 1 ? children.get(0) : new FilterNode.Or(children);
+	}
+
+	private FilterNode and(int depth) {
+		List<FilterNode> children = new ArrayList<>();
+		children.add(constraint(depth));
+		while (accept(';')) {
+			children.add(constraint(depth));
+		}
+		return children.size() == 1 ? children.get(0) : new FilterNode.And(children);
+	}
+
+	private FilterNode constraint(int depth) {
+		if (accept('(')) {
+			if (depth == MAX_DEPTH) {
+				throw error("Groups are nested deeper than " + MAX_DEPTH + " levels");
+			}
+			FilterNode group = or(depth + 1);
+			expect(')');
+			return group;
+		}
+		if (++comparisons > MAX_COMPARISONS) {
+			throw error("More than " + MAX_COMPARISONS + " comparisons");
+		}
+		String selector = selector();
+		FilterOperator operator = operator();
+		List<String> values = new ArrayList<>();
+		if (operator.isMultiValued()) {
+			expect('(');
+			values.add(value());
+			while (accept(',')) {
+				values.add(value());
+			}
+			expect(')');
+		} else {
+			values.add(value());
+		}
+		return new FilterNode.Comparison(selector, operator, values);
+	}
+
+	private String selector() {
+		int start = position;
+		while (position < input.length() && Character.isLetterOrDigit(input.charAt(position))) {
+			position++;
+		}
+		if (start == position || !Character.isLetter(input.charAt(start))) {
+			throw error("Expected a field name");
+		}
+		return input.substring(start, position);
+	}
+
+	private FilterOperator operator() {
+		String rest = input.substring(position);
+		FilterOperator found = null;
+		int length = 0;
+		for (FilterOperator operator : FilterOperator.values()) {
+			for (String spelling : operator.spellings()) {
+				if (rest.startsWith(spelling) && spelling.length() > length) {
+					found = operator;
+					length = spelling.length();
+				}
+			}
+		}
+		if (found == null) {
+			throw error("Expected an operator");
+		}
+		position += length;
+		return found;
+	}
+
+	private String value() {
+		if (position < input.length() && (input.charAt(position) == '\'' || input.charAt(position) == '"')) {
+			return quoted(input.charAt(position));
+		}
+		int start = position;
+		while (position < input.length() && RESERVED.indexOf(input.charAt(position)) < 0) {
+			position++;
+		}
+		if (start == position) {
+			throw error("Expected a value");
+		}
+		return input.substring(start, position);
+	}
+
+	private String quoted(char quote) {
+		var value = new StringBuilder();
+		position++;
+		while (position < input.length()) {
+			char c = input.charAt(position++);
+			if (c == quote) {
+				return value.toString();
+			}
+			if (c == '\\' && position < input.length()) {
+				c = input.charAt(position++);
+			}
+			value.append(c);
+		}
+		throw error("Unterminated quoted value");
+	}
+
+	private boolean accept(char c) {
+		if (position < input.length() && input.charAt(position) == c) {
+			position++;
+			return true;
+		}
+		return false;
+	}
+
+	private void expect(char c) {
+		if (!accept(c)) {
+			throw error("Expected '" + c + "'");
+		}
+	}
+
+	private InvalidRequestParameterException error(String message) {
+		return new InvalidRequestParameterException(message + " at position " + position + " of the filter!");
+	}
+}
@@ -0,0 +1,197 @@
+package br.com.erudio.util.filter;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * A filter expression compiled against the filterable fields of an entity:
+ * selectors are resolved, operators checked against the field types and the
+ * Criteria construction fixed. Binding the arguments of an expression of the
+ * same shape only converts the values and applies the cost guard.
+ *
+ * Strings are compared as stored, so the column collation decides case
+ * sensitivity; =like= takes * as wildcard. Dates are whole days (ISO
+ * yyyy-MM-dd): == matches the whole day and the orderings compare days.
+ */
+public final class FilterPlan<T> {
+
+	private static final char ESCAPE = '\\';
+
+	private final CompiledNode root;
+	private final List<Slot> slots;
+
+	private FilterPlan(CompiledNode root, List<Slot> slots) {
+		this.root = root;
+		this.slots = slots;
+	}
+
+	public static <T> FilterPlan<T> compile(FilterNode node, Map<String, FilterField> fields) {
+		List<Slot> slots = new ArrayList<>();
+		CompiledNode root = compile(node, fields, slots);
+		return new FilterPlan<>(root, List.copyOf(slots));
+	}
+
+	/**
+	 * Binds the arguments of an expression of this plan's shape. A leading
+	 * wildcard on a field without index cannot be answered from an index, so
+	 * it is only allowed for pages of at most maxScanPageSize rows.
+	 */
+	public Specification<T> bind(List<String> arguments, int pageSize, int maxScanPageSize) {
+		List<Object> values = new ArrayList<>(arguments.size());
+		for (int i = 0; i < arguments.size(); i++) {
+			Slot slot = slots.get(i);
+			String raw = arguments.get(i);
+			if (slot.operator() == FilterOperator.LIKE) {
+				if (raw.startsWith("*") && !slot.field().indexed() && pageSize > maxScanPageSize) {
+					throw new InvalidRequestParameterException("A leading wildcard on '" + slot.field().name()
+							+ "' scans the whole table; use a page size of at most " + maxScanPageSize + "!");
+				}
+				values.add(likePattern(raw));
+			} else {
+				values.add(convert(raw, slot.field()));
+			}
+		}
+		return (root, query, cb) -> this.root.build(root, cb, values.iterator());
+	}
+
+	private static CompiledNode compile(FilterNode node, Map<String, FilterField> fields, List<Slot> slots) {
+		if (node instanceof FilterNode.And and) {
+			List<CompiledNode> children = and.children().stream().map(child -> compile(child, fields, slots)).toList();
+			return (root, cb, values) -> cb.and(build(children, root, cb, values));
+		}
+		if (node instanceof FilterNode.Or or) {
+			List<CompiledNode> children = or.children().stream().map(child -> compile(child, fields, slots)).toList();
+			return (root, cb, values) -> cb.or(build(children, root, cb, values));
+		}
+		var comparison = (FilterNode.Comparison) node;
+		FilterField field = fields.get(comparison.selector());
+		if (field == null) {
+			throw new InvalidRequestParameterException("Unknown filter field '" + comparison.selector()
+					+ "'! Allowed fields: " + fields.keySet());
+		}
+		FilterOperator operator = comparison.operator();
+		check(field, operator);
+		for (int i = 0; i < comparison.values().size(); i++) {
+			slots.add(new Slot(field, operator));
+		}
+		return comparison(field, operator, comparison.values().size());
+	}
+
+	private static Predicate[] build(List<CompiledNode> children, Root<?> root, CriteriaBuilder cb, Iterator<Object> values) {
+		Predicate[] predicates = new Predicate[children.size()];
+		for (int i = 0; i < predicates.length; i++) {
+			predicates[i] = children.get(i).build(root, cb, values);
+		}
+		return predicates;
+	}
+
+	private static void check(FilterField field, FilterOperator operator) {
+		Class<?> type = field.type();
+		boolean allowed = switch (operator) {
+			case EQUAL, NOT_EQUAL -> true;
+			case LIKE -> type == String.class;
+			case IN, NOT_IN -> type != Boolean.class && type != Date.class;
+			default -> type != Boolean.class;
+		};
+		if (!allowed) {
+			throw new InvalidRequestParameterException("Operator " + operator.getSymbol()
+					+ " cannot be used on '" + field.name() + "'!");
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static CompiledNode comparison(FilterField field, FilterOperator operator, int arity) {
+		String name = field.name();
+		if (field.type() == Date.class) {
+			return (root, cb, values) -> {
+				Path<Date> path = root.get(name);
+				LocalDate day = (LocalDate) values.next();
+				return switch (operator) {
+					case EQUAL -> cb.and(cb.greaterThanOrEqualTo(path, startOf(day)), cb.lessThan(path, startOf(day.plusDays(1))));
+					case NOT_EQUAL -> cb.or(cb.lessThan(path, startOf(day)), cb.greaterThanOrEqualTo(path, startOf(day.plusDays(1))));
+					case LESS_THAN -> cb.lessThan(path, startOf(day));
+					case LESS_THAN_OR_EQUAL -> cb.lessThan(path, startOf(day.plusDays(1)));
+					case GREATER_THAN -> cb.greaterThanOrEqualTo(path, startOf(day.plusDays(1)));
+					default -> cb.greaterThanOrEqualTo(path, startOf(day));
+				};
+			};
+		}
+		return (root, cb, values) -> {
+			Expression path = root.get(name);
+			return switch (operator) {
+				case EQUAL -> cb.equal(path, values.next());
+				case NOT_EQUAL -> cb.notEqual(path, values.next());
+				case LESS_THAN -> cb.lessThan(path, (Comparable) values.next());
+				case LESS_THAN_OR_EQUAL -> cb.lessThanOrEqualTo(path, (Comparable) values.next());
+				case GREATER_THAN -> cb.greaterThan(path, (Comparable) values.next());
+				case GREATER_THAN_OR_EQUAL -> cb.greaterThanOrEqualTo(path, (Comparable) values.next());
+				case LIKE -> cb.like(path, (String) values.next(), ESCAPE);
+				case IN, NOT_IN -> {
+					var in = cb.in(path);
+					for (int i = 0; i < arity; i++) {
+						in.value(values.next());
+					}
+					yield operator == FilterOperator.IN ? in : cb.not(in);
+				}
+			};
+		};
+	}
+
+	private static Object convert(String raw, FilterField field) {
+		Class<?> type = field.type();
+		try {
+			if (type == String.class) {
+				return raw;
+			}
+			if (type == Long.class) {
+				return Long.valueOf(raw);
+			}
+			if (type == Integer.class) {
+				return Integer.valueOf(raw);
+			}
+			if (type == Double.class) {
+				return Double.valueOf(raw);
+			}
+			if (type == Date.class) {
+				return LocalDate.parse(raw);
+			}
+			if (type == Boolean.class && (raw.equals("true") || raw.equals("false"))) {
+				return Boolean.valueOf(raw);
+			}
+		} catch (NumberFormatException | DateTimeParseException e) {
+			// Reported below.
+		}
+		throw new InvalidRequestParameterException("Invalid value '" + raw + "' for filter field '" + field.name() + "'!");
+	}
+
+	private static String likePattern(String raw) {
+		return raw.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_").replace('*', '%');
+	}
+
+	private static Date startOf(LocalDate day) {
+		return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
+	}
+
+	private record Slot(FilterField field, FilterOperator operator) {
+	}
+
+	@FunctionalInterface
+	private interface CompiledNode {
+		Predicate build(Root<?> root, CriteriaBuilder cb, Iterator<Object> values);
+	}
+}
@@ -0,0 +1,21 @@
+CREATE TABLE `file_blobs` (
+  `hash` char(64) NOT NULL,
+  `size` bigint NOT NULL,
+  `ref_count` int NOT NULL DEFAULT 0,
+  `created_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`hash`),
+  KEY `idx_file_blobs_ref_count` (`ref_count`)
+);
+
+CREATE TABLE `stored_files` (
+  `id` bigint NOT NULL AUTO_INCREMENT,
+  `file_name` varchar(255) NOT NULL,
+  `hash` char(64) NOT NULL,
+  `size` bigint NOT NULL,
+  `created_at` datetime(6) NOT NULL,
+  `updated_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_stored_files_file_name` (`file_name`),
+  KEY `idx_stored_files_hash` (`hash`),
+  CONSTRAINT `fk_stored_files_file_blobs` FOREIGN KEY (`hash`) REFERENCES `file_blobs` (`hash`)
+);
@@ -0,0 +1,10 @@
+CREATE TABLE `upload_sessions` (
+  `id` char(36) NOT NULL,
+  `file_name` varchar(255) NOT NULL,
+  `upload_length` bigint NOT NULL,
+  `upload_offset` bigint NOT NULL DEFAULT 0,
+  `created_at` datetime(6) NOT NULL,
+  `updated_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`id`),
+  KEY `idx_upload_sessions_updated_at` (`updated_at`)
+);
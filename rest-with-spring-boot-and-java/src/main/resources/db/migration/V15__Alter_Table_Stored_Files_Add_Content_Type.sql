@@ -0,0 +1,5 @@
+ALTER TABLE `stored_files`
+	DROP FOREIGN KEY `fk_stored_files_file_blobs`;
+
+ALTER TABLE `stored_files`
+	ADD COLUMN `content_type` varchar(100) NOT NULL DEFAULT 'application/octet-stream' AFTER `size`;
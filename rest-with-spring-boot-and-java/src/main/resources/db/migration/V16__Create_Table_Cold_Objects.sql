@@ -0,0 +1,8 @@
+CREATE TABLE `cold_objects` (
+  `storage_key` varchar(255) NOT NULL,
+  `encoding` varchar(10) NOT NULL,
+  `original_size` bigint NOT NULL,
+  `stored_size` bigint NOT NULL,
+  `archived_at` datetime(6) NOT NULL,
+  PRIMARY KEY (`storage_key`)
+);
@@ -0,0 +1,2 @@
+ALTER TABLE `stored_files`
+	ADD COLUMN `gzip_size` bigint NULL AFTER `content_type`;
@@ -0,0 +1,13 @@
+-- Cut longer values explicitly first: under strict mode the narrower columns below would
+-- reject them and fail the migration, without it they would be cut with only a warning.
+UPDATE `books` SET `author` = LEFT(`author`, 180) WHERE CHAR_LENGTH(`author`) > 180;
+UPDATE `books` SET `title` = LEFT(`title`, 250) WHERE CHAR_LENGTH(`title`) > 250;
+UPDATE `books` SET `author` = '' WHERE `author` IS NULL;
+
+ALTER TABLE `books`
+	DEFAULT CHARSET=utf8mb4,
+	MODIFY `author` varchar(180) CHARACTER SET utf8mb4 NOT NULL,
+	MODIFY `title` varchar(250) CHARACTER SET utf8mb4 NULL,
+	ADD INDEX `idx_books_author` (`author`, `id`),
+	ADD INDEX `idx_books_price` (`price`, `id`),
+	ADD INDEX `idx_books_launch_date` (`launch_date`, `id`);
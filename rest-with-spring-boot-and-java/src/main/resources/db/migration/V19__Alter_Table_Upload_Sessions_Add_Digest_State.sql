@@ -0,0 +1,2 @@
+ALTER TABLE `upload_sessions`
+	ADD COLUMN `digest_state` varbinary(128) NULL AFTER `upload_offset`;
@@ -0,0 +1,120 @@
+package br.com.erudio.benchmarks;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.StreamUtils;
+
+/**
+ * Time to push a whole file to a loopback socket, either copied through heap
+ * buffers (what a Resource body does) or with FileChannel.transferTo
+ * (sendfile). Throughput in MB/s is fileSize / score.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=br.com.erudio.benchmarks.FileTransferBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileTransferBenchmark {
+
+	@Param({"1", "100", "1024"})
+	private int fileSizeMb;
+
+	private Path file;
+	private ServerSocketChannel server;
+	private SocketChannel client;
+	private OutputStream clientStream;
+
+	@Setup
+	public void setUp() throws Exception {
+		file = Files.createTempFile("transfer-", ".bin");
+		byte[] block = new byte[1024 * 1024];
+		for (int i = 0; i < block.length; i++) {
+			block[i] = (byte) (i * 31);
+		}
+		try (OutputStream out = Files.newOutputStream(file)) {
+			for (int i = 0; i < fileSizeMb; i++) {
+				out.write(block);
+			}
+		}
+
+		server = ServerSocketChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		Thread sink = new Thread(this::drain, "transfer-sink");
+		sink.setDaemon(true);
+		sink.start();
+		client = SocketChannel.open(server.getLocalAddress());
+		clientStream = Channels.newOutputStream(client);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		client.close();
+		server.close();
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public long heapCopy() throws Exception {
+		try (InputStream in = Files.newInputStream(file)) {
+			return StreamUtils.copy(in, clientStream);
+		}
+	}
+
+	@Benchmark
+	public long transferTo() throws Exception {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			long size = channel.size();
+			long position = 0;
+			while (position < size) {
+				position += channel.transferTo(position, size - position, client);
+			}
+			return position;
+		}
+	}
+
+	private void drain() {
+		try (SocketChannel accepted = server.accept()) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(1024 * 1024);
+			while (accepted.read(buffer) != -1) {
+				buffer.clear();
+			}
+		} catch (Exception e) {
+			// benchmark finished
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(FileTransferBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
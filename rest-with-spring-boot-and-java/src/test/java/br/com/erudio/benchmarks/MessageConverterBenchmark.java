@@ -0,0 +1,132 @@
+package br.com.erudio.benchmarks;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.PagedModel.PageMetadata;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.xml.MappingJackson2XmlHttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+import br.com.erudio.data.vo.v1.BookVO;
+import br.com.erudio.data.vo.v1.PageVO;
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.serialization.converter.XmlJackson2HttpMessageConverter;
+import br.com.erudio.serialization.converter.YamlJackson2HttpMessageConverter;
+import br.com.erudio.unittests.mapper.mocks.MockBook;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+
+/**
+ * Writes HAL pages and reads compact pages of people and books through the
+ * stock Jackson converters and through the tuned XML and YAML converters.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=br.com.erudio.benchmarks.MessageConverterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageConverterBenchmark {
+
+	@Param({"person", "book"})
+	private String resource;
+
+	@Param({"json", "xml-default", "xml-tuned", "yaml-default", "yaml-tuned"})
+	private String converter;
+
+	@Param({"12", "100"})
+	private int pageSize;
+
+	private AbstractJackson2HttpMessageConverter messageConverter;
+	private MediaType mediaType;
+
+	private PagedModel<?> halPage;
+	private Type halPageType;
+	private byte[] compactPage;
+	private Type compactPageType;
+
+	@Setup
+	public void setUp() throws Exception {
+		messageConverter = switch (converter) {
+			case "json" -> new MappingJackson2HttpMessageConverter();
+			case "xml-default" -> new MappingJackson2XmlHttpMessageConverter(Jackson2ObjectMapperBuilder.xml().build());
+			case "xml-tuned" -> new XmlJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+			case "yaml-default" -> new AbstractJackson2HttpMessageConverter(
+					new YAMLMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL),
+					MediaType.parseMediaType("application/x-yaml")) {};
+			case "yaml-tuned" -> new YamlJackson2HttpMessageConverter();
+			default -> throw new IllegalArgumentException(converter);
+		};
+		mediaType = messageConverter.getSupportedMediaTypes().get(0);
+
+		List<Object> vos = new ArrayList<>();
+		for (int i = 0; i < pageSize; i++) {
+			vos.add("person".equals(resource) ? new MockPerson().mockVO(i) : new MockBook().mockVO(i));
+		}
+		Class<?> voClass = "person".equals(resource) ? PersonVO.class : BookVO.class;
+		String path = "person".equals(resource) ? "/api/person/v1/" : "/api/books/v1/";
+
+		List<EntityModel<Object>> models = new ArrayList<>();
+		for (int i = 0; i < vos.size(); i++) {
+			models.add(EntityModel.of(vos.get(i), Link.of(path + i)));
+		}
+		halPage = PagedModel.of(models, new PageMetadata(pageSize, 0, 1000), Link.of(path + "?page=0"));
+		halPageType = ResolvableType.forClassWithGenerics(PagedModel.class,
+				ResolvableType.forClassWithGenerics(EntityModel.class, voClass)).getType();
+
+		compactPageType = ResolvableType.forClassWithGenerics(PageVO.class, voClass).getType();
+		var output = new MockHttpOutputMessage();
+		messageConverter.write(new PageVO<>(new PageImpl<>(vos, PageRequest.of(0, pageSize), 1000)),
+				compactPageType, mediaType, output);
+		compactPage = output.getBodyAsBytes();
+	}
+
+	@Benchmark
+	public byte[] writeHalPage() throws Exception {
+		var output = new MockHttpOutputMessage();
+		messageConverter.write(halPage, halPageType, mediaType, output);
+		return output.getBodyAsBytes();
+	}
+
+	@Benchmark
+	public Object readCompactPage() throws Exception {
+		return messageConverter.read(compactPageType, null, new MockHttpInputMessage(compactPage));
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(MessageConverterBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,87 @@
+package br.com.erudio.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop load generator for a running instance. Start the API once with
+ * spring.threads.virtual.enabled=false and once with true, run this against
+ * both and compare the reported throughput and latency percentiles.
+ *
+ * Arguments: baseUrl path bearerToken concurrency durationSeconds, e.g.
+ * http://localhost:80 /api/person/v1?size=12 eyJ... 400 60
+ */
+public class ThroughputLoadTest {
+
+	public static void main(String[] args) throws Exception {
+		var baseUrl = args.length > 0 ? args[0] : "http://localhost:80";
+		var path = args.length > 1 ? args[1] : "/api/person/v1?size=12";
+		var token = args.length > 2 ? args[2] : "";
+		var concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 200;
+		var duration = Duration.ofSeconds(args.length > 4 ? Long.parseLong(args[4]) : 30);
+
+		var client = HttpClient.newBuilder()
+				.executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(Duration.ofSeconds(5))
+				.build();
+		var request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+				.header("Authorization", "Bearer " + token)
+				.header("Accept", "application/json")
+				.GET()
+				.build();
+
+		var succeeded = new AtomicLong();
+		var failed = new AtomicLong();
+		List<List<Long>> latencies = new ArrayList<>();
+		var deadline = System.nanoTime() + duration.toNanos();
+
+		try (var workers = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < concurrency; i++) {
+				List<Long> workerLatencies = new ArrayList<>();
+				latencies.add(workerLatencies);
+				workers.submit(() -> {
+					while (System.nanoTime() < deadline) {
+						long start = System.nanoTime();
+						try {
+							var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+							if (response.statusCode() == 200) {
+								succeeded.incrementAndGet();
+							} else {
+								failed.incrementAndGet();
+							}
+						} catch (Exception e) {
+							failed.incrementAndGet();
+						}
+						workerLatencies.add(System.nanoTime() - start);
+					}
+				});
+			}
+		}
+
+		List<Long> all = new ArrayList<>();
+		latencies.forEach(all::addAll);
+		Collections.sort(all);
+
+		System.out.printf("%d clients for %ds against %s%n", concurrency, duration.toSeconds(), path);
+		System.out.printf("throughput: %.1f req/s (%d ok, %d failed)%n",
+				succeeded.get() / (double) duration.toSeconds(), succeeded.get(), failed.get());
+		System.out.printf("latency ms: p50=%.1f p99=%.1f max=%.1f%n",
+				percentile(all, 0.50), percentile(all, 0.99), percentile(all, 1.0));
+	}
+
+	private static double percentile(List<Long> sorted, double percentile) {
+		if (sorted.isEmpty()) {
+			return 0;
+		}
+		int index = (int) Math.min(sorted.size() - 1, Math.ceil(percentile * sorted.size()) - 1);
+		return sorted.get(Math.max(index, 0)) / 1_000_000.0;
+	}
+}
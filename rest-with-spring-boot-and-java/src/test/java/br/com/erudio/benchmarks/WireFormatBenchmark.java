@@ -0,0 +1,113 @@
+package br.com.erudio.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+import br.com.erudio.data.vo.v1.PageVO;
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+
+/**
+ * Encode/decode cost of a page of people in JSON, CBOR and Smile. The payload
+ * size of each format is printed once per fork during setup.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=br.com.erudio.benchmarks.WireFormatBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+	private static final TypeReference<PageVO<PersonVO>> PAGE_TYPE = new TypeReference<>() {};
+
+	@Param({"12", "100"})
+	private int pageSize;
+
+	private final ObjectMapper json = new ObjectMapper();
+	private final ObjectMapper cbor = new CBORMapper();
+	private final ObjectMapper smile = new SmileMapper();
+
+	private PageVO<PersonVO> page;
+	private byte[] jsonBytes;
+	private byte[] cborBytes;
+	private byte[] smileBytes;
+
+	@Setup
+	public void setUp() throws Exception {
+		var mock = new MockPerson();
+		List<PersonVO> content = new ArrayList<>();
+		for (int i = 0; i < pageSize; i++) {
+			content.add(mock.mockVO(i));
+		}
+		page = new PageVO<>(new PageImpl<>(content, PageRequest.of(0, pageSize), 1000));
+
+		jsonBytes = json.writeValueAsBytes(page);
+		cborBytes = cbor.writeValueAsBytes(page);
+		smileBytes = smile.writeValueAsBytes(page);
+
+		System.out.printf("%nPayload size for %d people: json=%d cbor=%d smile=%d bytes%n",
+				pageSize, jsonBytes.length, cborBytes.length, smileBytes.length);
+	}
+
+	@Benchmark
+	public byte[] encodeJson() throws Exception {
+		return json.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] encodeCbor() throws Exception {
+		return cbor.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public byte[] encodeSmile() throws Exception {
+		return smile.writeValueAsBytes(page);
+	}
+
+	@Benchmark
+	public PageVO<PersonVO> decodeJson() throws Exception {
+		return json.readValue(jsonBytes, PAGE_TYPE);
+	}
+
+	@Benchmark
+	public PageVO<PersonVO> decodeCbor() throws Exception {
+		return cbor.readValue(cborBytes, PAGE_TYPE);
+	}
+
+	@Benchmark
+	public PageVO<PersonVO> decodeSmile() throws Exception {
+		return smile.readValue(smileBytes, PAGE_TYPE);
+	}
+
+	public static void main(String[] args) throws Exception {
+		new Runner(new OptionsBuilder()
+				.include(WireFormatBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
@@ -0,0 +1,164 @@
+package br.com.erudio.integrationtests.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.ColumnMapRowMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import br.com.erudio.model.Book;
+import br.com.erudio.repositories.BookRepository;
+import br.com.erudio.repositories.BookSpecifications;
+
+/**
+ * Runs the book filters against MySQL with the Flyway schema and asserts, with
+ * EXPLAIN on the SQL Hibernate generates, that each one is answered from its
+ * index, without a full table scan or a filesort.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "br.com.erudio.integrationtests.repositories.BookRepositoryExplainTest$SqlCapture")
+@AutoConfigureTestDatabase(replace = Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class BookRepositoryExplainTest {
+
+	private static final int PAGE_SIZE = 12;
+
+	@Container
+	@ServiceConnection
+	static MySQLContainer<?> mysql = new MySQLContainer<>("mysql:8.0.33");
+
+	private static boolean seeded;
+
+	@Autowired
+	BookRepository repository;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void seed() {
+		if (seeded) {
+			return;
+		}
+		// 10 000 books: 500 authors, prices from 10.00 to 99.90, one launch per day since 2000.
+		jdbcTemplate.update("""
+				INSERT INTO books (author, launch_date, price, title)
+				SELECT CONCAT('Author ', LPAD(n MOD 500, 3, '0')), DATE_ADD('2000-01-01', INTERVAL n DAY),
+				       10 + (n MOD 900) / 10, CONCAT('Title ', n)
+				FROM (SELECT a.d + b.d * 10 + c.d * 100 + e.d * 1000 AS n
+				      FROM (SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+				            UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) a,
+				           (SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+				            UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) b,
+				           (SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+				            UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) c,
+				           (SELECT 0 d UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+				            UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) e) numbers
+				""");
+		jdbcTemplate.execute("ANALYZE TABLE books");
+		seeded = true;
+	}
+
+	@Test
+	void testUnfilteredPageUsesAuthorIndex() {
+		var plan = explain(null, sortFor(null, null, null, null, null));
+		assertUsesIndex(plan, "idx_books_author");
+	}
+
+	@Test
+	void testAuthorFilterUsesAuthorIndex() {
+		var plan = explain(BookSpecifications.authorStartsWith("Author 01"),
+				sortFor("Author 01", null, null, null, null), "Author 01%");
+		assertUsesIndex(plan, "idx_books_author");
+	}
+
+	@Test
+	void testPriceFilterUsesPriceIndex() {
+		var plan = explain(BookSpecifications.priceBetween(20.0, 25.0),
+				sortFor(null, 20.0, 25.0, null, null), 20.0, 25.0);
+		assertUsesIndex(plan, "idx_books_price");
+	}
+
+	@Test
+	void testLaunchDateFilterUsesLaunchDateIndex() {
+		var from = LocalDate.of(2005, 1, 1);
+		var to = LocalDate.of(2005, 12, 31);
+		var plan = explain(BookSpecifications.launchedBetween(from, to),
+				sortFor(null, null, null, from, to), Date.valueOf(from), Date.valueOf(to.plusDays(1)));
+		assertUsesIndex(plan, "idx_books_launch_date");
+	}
+
+	private Sort sortFor(String author, Double minPrice, Double maxPrice,
+			LocalDate launchedFrom, LocalDate launchedTo) {
+		return BookSpecifications.sortFor(Direction.ASC, author, minPrice, maxPrice, launchedFrom, launchedTo);
+	}
+
+	/**
+	 * Runs the query through the repository, then EXPLAINs the page query
+	 * Hibernate sent with the given parameters; the remaining placeholders
+	 * are the LIMIT/OFFSET.
+	 */
+	private List<Map<String, Object>> explain(Specification<Book> spec,
+			Sort sort, Object... parameters) {
+		SqlCapture.statements.clear();
+		repository.findAll(Specification.where(spec), PageRequest.of(0, PAGE_SIZE, sort));
+
+		String sql = SqlCapture.statements.stream()
+				.filter(statement -> statement.contains("order by"))
+				.findFirst()
+				.orElseThrow();
+		long placeholders = sql.chars().filter(c -> c == '?').count();
+		return jdbcTemplate.query("EXPLAIN " + sql, statement -> {
+			for (int i = 0; i < placeholders; i++) {
+				statement.setObject(i + 1, i < parameters.length ? parameters[i] : PAGE_SIZE);
+			}
+		}, new ColumnMapRowMapper());
+	}
+
+	private static void assertUsesIndex(List<Map<String, Object>> plan, String index) {
+		assertEquals(1, plan.size());
+		var row = plan.get(0);
+		assertNotEquals("ALL", row.get("type"), "full table scan: " + row);
+		assertEquals(index, row.get("key"), "unexpected index: " + row);
+		var extra = (String) row.get("Extra");
+		assertFalse(extra != null && extra.contains("filesort"), "filesort: " + row);
+	}
+
+	public static class SqlCapture implements StatementInspector {
+
+		private static final long serialVersionUID = 1L;
+
+		static final List<String> statements = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			statements.add(sql);
+			return sql;
+		}
+	}
+}
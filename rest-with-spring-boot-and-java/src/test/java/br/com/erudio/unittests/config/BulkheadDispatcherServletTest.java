@@ -0,0 +1,229 @@
+package br.com.erudio.unittests.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.AnnotationConfigWebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.erudio.config.BulkheadConfig;
+import br.com.erudio.config.BulkheadDispatcherServlet;
+import br.com.erudio.config.RequestDeadlineConfig;
+import br.com.erudio.config.RequestDeadlineInterceptor;
+import br.com.erudio.services.BulkheadExecutors;
+import br.com.erudio.util.RequestDeadline;
+import br.com.erudio.util.TrafficClass;
+import io.micrometer.core.instrument.MeterRegistry;
+
+class BulkheadDispatcherServletTest {
+
+	private static final Duration MAX_TIMEOUT = Duration.ofMillis(1500);
+
+	@TempDir
+	Path baseDir;
+
+	private Tomcat tomcat;
+	private BulkheadExecutors executors;
+	private TestController controller;
+	private HttpClient client;
+	private int port;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		var config = new BulkheadConfig();
+		config.setCrud(new BulkheadConfig.Partition(1, 1, 1, Duration.ofSeconds(10)));
+		executors = new BulkheadExecutors(config, new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class));
+
+		var webContext = new AnnotationConfigWebApplicationContext();
+		webContext.register(WebTestConfig.class);
+		var servlet = new BulkheadDispatcherServlet(executors, new ObjectMapper(), config, MAX_TIMEOUT);
+		servlet.setApplicationContext(webContext);
+
+		tomcat = new Tomcat();
+		tomcat.setBaseDir(baseDir.toString());
+		tomcat.setPort(0);
+		Context context = tomcat.addContext("", null);
+		Wrapper wrapper = Tomcat.addServlet(context, "dispatcher", servlet);
+		wrapper.setAsyncSupported(true);
+		wrapper.setLoadOnStartup(1);
+		context.addServletMappingDecoded("/", "dispatcher");
+		tomcat.getConnector();
+		tomcat.start();
+		port = tomcat.getConnector().getLocalPort();
+
+		controller = webContext.getBean(TestController.class);
+		client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		controller.release.countDown();
+		tomcat.stop();
+		tomcat.destroy();
+		executors.shutdown();
+	}
+
+	@Test
+	void testServesOnTheBulkheadOfItsClass() throws Exception {
+		var response = get("/api/test/thread").get(5, TimeUnit.SECONDS);
+
+		assertEquals(200, response.statusCode());
+		assertTrue(response.body().startsWith("bulkhead-crud-"), response.body());
+		assertTrue(response.body().endsWith("CRUD"), response.body());
+	}
+
+	@Test
+	void testRejectsWith503WhenSaturated() throws Exception {
+		var running = get("/api/test/block");
+		assertTrue(controller.started.await(5, TimeUnit.SECONDS));
+		var queued = get("/api/test/thread");
+		awaitQueued();
+
+		var rejected = get("/api/test/thread").get(5, TimeUnit.SECONDS);
+
+		assertEquals(503, rejected.statusCode());
+		assertEquals("1", rejected.headers().firstValue("Retry-After").orElse(null));
+		assertTrue(rejected.body().contains("Too many crud requests in progress"), rejected.body());
+
+		controller.release.countDown();
+		assertEquals(200, running.get(5, TimeUnit.SECONDS).statusCode());
+		assertEquals(200, queued.get(5, TimeUnit.SECONDS).statusCode());
+	}
+
+	@Test
+	void testAnswers503WhenQueuedPastMaxTimeout() throws Exception {
+		var running = get("/api/test/block");
+		assertTrue(controller.started.await(5, TimeUnit.SECONDS));
+
+		var queued = get("/api/test/thread").get(5, TimeUnit.SECONDS);
+
+		assertEquals(503, queued.statusCode());
+		assertTrue(queued.body().contains("Waited too long for a crud thread"), queued.body());
+
+		// The running request has the timeout of its class, not the queue's.
+		Thread.sleep(MAX_TIMEOUT.toMillis());
+		controller.release.countDown();
+		var response = running.get(5, TimeUnit.SECONDS);
+		assertEquals(200, response.statusCode());
+		assertEquals("released", response.body());
+	}
+
+	@Test
+	void testDeadlineIncludesTheQueueWait() throws Exception {
+		get("/api/test/block");
+		assertTrue(controller.started.await(5, TimeUnit.SECONDS));
+		var queued = get("/api/test/deadline");
+		awaitQueued();
+		Thread.sleep(500);
+		controller.release.countDown();
+
+		var response = queued.get(5, TimeUnit.SECONDS);
+
+		assertEquals(200, response.statusCode());
+		long remaining = Long.parseLong(response.body());
+		assertTrue(remaining <= 10000 - 500, "remaining " + remaining);
+	}
+
+	@Test
+	void testStreamingResponseBody() throws Exception {
+		var response = get("/api/test/stream").get(5, TimeUnit.SECONDS);
+
+		assertEquals(200, response.statusCode());
+		assertEquals("streamed", response.body());
+	}
+
+	private CompletableFuture<HttpResponse<String>> get(String path) {
+		var request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+		return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+	}
+
+	private void awaitQueued() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (executors.getQueuedCount(TrafficClass.CRUD) == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertEquals(1, executors.getQueuedCount(TrafficClass.CRUD));
+	}
+
+	@Configuration
+	@EnableWebMvc
+	static class WebTestConfig implements WebMvcConfigurer {
+
+		@Bean
+		RequestDeadlineConfig requestDeadlineConfig() {
+			return new RequestDeadlineConfig();
+		}
+
+		@Bean
+		RequestDeadlineInterceptor requestDeadlineInterceptor() {
+			return new RequestDeadlineInterceptor();
+		}
+
+		@Bean
+		TestController testController() {
+			return new TestController();
+		}
+
+		@Override
+		public void addInterceptors(InterceptorRegistry registry) {
+			registry.addInterceptor(requestDeadlineInterceptor());
+		}
+	}
+
+	@RestController
+	static class TestController {
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@GetMapping("/api/test/thread")
+		String thread() {
+			return Thread.currentThread().getName() + " " + TrafficClass.current();
+		}
+
+		@GetMapping("/api/test/block")
+		String block() throws InterruptedException {
+			started.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return "released";
+		}
+
+		@GetMapping("/api/test/deadline")
+		String deadline() {
+			return String.valueOf(RequestDeadline.current().remainingMillis());
+		}
+
+		@GetMapping("/api/test/stream")
+		StreamingResponseBody stream() {
+			return out -> out.write("streamed".getBytes(StandardCharsets.UTF_8));
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package br.com.erudio.unittests.controllers;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import br.com.erudio.controllers.FileController;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.services.CompressedVariantService;
+import br.com.erudio.services.FileMetadataService;
+import br.com.erudio.services.FileStorageService;
+import br.com.erudio.services.HotFileCache;
+import br.com.erudio.services.ZipArchiveService;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FileControllerTest {
+
+	private static final byte[] CONTENT = "abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII);
+	private static final Instant UPDATED_AT = Instant.parse("2024-03-01T10:15:30Z");
+	private static final String URL = "/api/file/v1/downloadFile/alphabet.txt";
+
+	@InjectMocks
+	FileController controller;
+
+	@Mock
+	FileStorageService service;
+
+	@Mock
+	FileMetadataService metadataService;
+
+	@Mock
+	HotFileCache hotFileCache;
+
+	@Mock
+	ZipArchiveService zipArchiveService;
+
+	@Mock
+	CompressedVariantService compressedVariantService;
+
+	@TempDir
+	Path uploadDir;
+
+	MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		var metadata = new StoredFile();
+		metadata.setFileName("alphabet.txt");
+		metadata.setContentType("text/plain");
+		metadata.setSize((long) CONTENT.length);
+		metadata.setHash("abc123");
+		metadata.setUpdatedAt(Date.from(UPDATED_AT));
+
+		when(metadataService.find("alphabet.txt")).thenReturn(Optional.of(metadata));
+		when(service.localFile(metadata)).thenReturn(Files.write(uploadDir.resolve("alphabet.txt"), CONTENT));
+		when(service.open(any(), anyLong(), anyLong())).thenAnswer(invocation -> new ByteArrayInputStream(
+				Arrays.copyOfRange(CONTENT, (int) (long) invocation.getArgument(1), (int) (long) invocation.getArgument(2) + 1)));
+
+		mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+	}
+
+	@Test
+	void testWholeFile() throws Exception {
+		mockMvc.perform(get(URL))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+				.andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+				.andExpect(content().bytes(CONTENT));
+	}
+
+	@Test
+	void testSingleRange() throws Exception {
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/26"))
+				.andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 4))
+				.andExpect(content().string("cdef"));
+	}
+
+	@Test
+	void testSuffixRange() throws Exception {
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=-3"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 23-25/26"))
+				.andExpect(content().string("xyz"));
+	}
+
+	@Test
+	void testMultipleRanges() throws Exception {
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=0-1,24-25"))
+				.andExpect(status().isPartialContent())
+				.andExpect(header().string(HttpHeaders.CONTENT_TYPE, containsString("multipart/byteranges")))
+				.andExpect(content().string(containsString("Content-Range: bytes 0-1/26")))
+				.andExpect(content().string(containsString("Content-Range: bytes 24-25/26")))
+				.andExpect(content().string(containsString("yz")));
+	}
+
+	@Test
+	void testUnsatisfiableRange() throws Exception {
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=30-40"))
+				.andExpect(status().isRequestedRangeNotSatisfiable())
+				.andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */26"));
+	}
+
+	@Test
+	void testMalformedRangeIsIgnored() throws Exception {
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=abc"))
+				.andExpect(status().isOk())
+				.andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+				.andExpect(content().bytes(CONTENT));
+	}
+
+	@Test
+	void testIfRangeWithCurrentEtag() throws Exception {
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"abc123\""))
+				.andExpect(status().isPartialContent())
+				.andExpect(content().string("cdef"));
+	}
+
+	@Test
+	void testIfRangeWithStaleEtagSendsWholeFile() throws Exception {
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"old\""))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(CONTENT));
+	}
+
+	@Test
+	void testIfRangeWithWeakEtagSendsWholeFile() throws Exception {
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "W/\"abc123\""))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(CONTENT));
+	}
+
+	@Test
+	void testIfRangeWithDate() throws Exception {
+		var headers = new HttpHeaders();
+		headers.setDate(HttpHeaders.IF_RANGE, UPDATED_AT.toEpochMilli());
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5").headers(headers))
+				.andExpect(status().isPartialContent())
+				.andExpect(content().string("cdef"));
+
+		headers.setDate(HttpHeaders.IF_RANGE, UPDATED_AT.minusSeconds(60).toEpochMilli());
+		mockMvc.perform(get(URL).header(HttpHeaders.RANGE, "bytes=2-5").headers(headers))
+				.andExpect(status().isOk())
+				.andExpect(content().bytes(CONTENT));
+	}
+}
@@ -0,0 +1,115 @@
+package br.com.erudio.unittests.controllers;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.controllers.ResumableUploadController;
+import br.com.erudio.exceptions.UploadOffsetConflictException;
+import br.com.erudio.exceptions.handler.CustomizedResponseEntityExceptionHandler;
+import br.com.erudio.model.UploadSession;
+import br.com.erudio.services.ResumableUploadService;
+
+@ExtendWith(MockitoExtension.class)
+class ResumableUploadControllerTest {
+
+	private static final String URL = "/api/file/v1/uploads";
+
+	@InjectMocks
+	ResumableUploadController controller;
+
+	@Mock
+	ResumableUploadService service;
+
+	@Spy
+	FileStorageConfig fileStorageConfig = new FileStorageConfig();
+
+	MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		mockMvc = MockMvcBuilders.standaloneSetup(controller)
+				.setControllerAdvice(new CustomizedResponseEntityExceptionHandler())
+				.build();
+	}
+
+	@Test
+	void testMissingTusResumableIsRejected() throws Exception {
+		mockMvc.perform(patch(URL + "/abc").header("Upload-Offset", "0")
+				.contentType("application/offset+octet-stream").content(new byte[10]))
+				.andExpect(status().isPreconditionFailed())
+				.andExpect(header().string("Tus-Version", "1.0.0"));
+
+		verifyNoInteractions(service);
+	}
+
+	@Test
+	void testUnsupportedTusResumableIsRejected() throws Exception {
+		mockMvc.perform(post(URL).header("Tus-Resumable", "0.2.2").header("Upload-Length", "10"))
+				.andExpect(status().isPreconditionFailed())
+				.andExpect(header().string("Tus-Version", "1.0.0"));
+		mockMvc.perform(delete(URL + "/abc"))
+				.andExpect(status().isPreconditionFailed());
+
+		verifyNoInteractions(service);
+	}
+
+	@Test
+	void testOffset() throws Exception {
+		when(service.findById("abc")).thenReturn(session(40));
+
+		mockMvc.perform(head(URL + "/abc").header("Tus-Resumable", "1.0.0"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Tus-Resumable", "1.0.0"))
+				.andExpect(header().string("Upload-Offset", "40"))
+				.andExpect(header().string("Upload-Length", "100"));
+	}
+
+	@Test
+	void testAppend() throws Exception {
+		when(service.append(eq("abc"), eq(40L), any())).thenReturn(session(50));
+
+		mockMvc.perform(patch(URL + "/abc").header("Tus-Resumable", "1.0.0").header("Upload-Offset", "40")
+				.contentType("application/offset+octet-stream").content(new byte[10]))
+				.andExpect(status().isNoContent())
+				.andExpect(header().string("Upload-Offset", "50"));
+	}
+
+	@Test
+	void testLostOffsetRaceIsAConflict() throws Exception {
+		when(service.append(eq("abc"), anyLong(), any()))
+				.thenThrow(new UploadOffsetConflictException("Upload abc moved past offset 40 while this chunk was written"));
+
+		mockMvc.perform(patch(URL + "/abc").header("Tus-Resumable", "1.0.0").header("Upload-Offset", "40")
+				.contentType("application/offset+octet-stream").content(new byte[10]))
+				.andExpect(status().isConflict());
+	}
+
+	private static UploadSession session(long offset) {
+		var session = new UploadSession();
+		session.setId("abc");
+		session.setFileName("movie.mp4");
+		session.setUploadLength(100L);
+		session.setUploadOffset(offset);
+		return session;
+	}
+}
@@ -0,0 +1,271 @@
+package br.com.erudio.unittests.reactive;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.reactive.context.AnnotationConfigReactiveWebApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.r2dbc.core.RowsFetchSpec;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.config.EnableWebFlux;
+
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.reactive.controllers.ReactiveBookController;
+import br.com.erudio.reactive.controllers.ReactivePersonController;
+import br.com.erudio.reactive.exceptions.handler.ReactiveResponseEntityExceptionHandler;
+import br.com.erudio.reactive.repositories.ReactiveBookRepository;
+import br.com.erudio.reactive.repositories.ReactivePersonRepository;
+import br.com.erudio.reactive.services.ReactiveBookServices;
+import br.com.erudio.reactive.services.ReactivePersonServices;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Runs the reactive controllers, services and repositories against a
+ * DatabaseClient that answers the repositories' SQL from in-memory rows, so
+ * the column mapping, paging links and error handling are exercised.
+ */
+class ReactiveControllersTest {
+
+	private final List<Map<String, Object>> people = new ArrayList<>();
+	private final List<Map<String, Object>> books = new ArrayList<>();
+
+	private AnnotationConfigReactiveWebApplicationContext context;
+	private WebTestClient client;
+
+	@BeforeEach
+	void setUp() {
+		people.add(person(1L, "Ayrton", "Senna"));
+		people.add(person(2L, "Leandro", "Costa"));
+		people.add(person(3L, "Nelson", "Piquet"));
+		books.add(book(1L, "Robert C. Martin", "Clean Code", "77.00"));
+
+		DatabaseClient databaseClient = mock(DatabaseClient.class);
+		when(databaseClient.sql(anyString())).thenAnswer(invocation -> statement(invocation.getArgument(0)));
+
+		context = new AnnotationConfigReactiveWebApplicationContext();
+		context.registerBean(DatabaseClient.class, () -> databaseClient);
+		context.register(WebFluxConfig.class,
+				ReactivePersonRepository.class, ReactivePersonServices.class, ReactivePersonController.class,
+				ReactiveBookRepository.class, ReactiveBookServices.class, ReactiveBookController.class,
+				ReactiveResponseEntityExceptionHandler.class);
+		context.refresh();
+
+		client = WebTestClient.bindToApplicationContext(context).build();
+	}
+
+	@AfterEach
+	void tearDown() {
+		context.close();
+	}
+
+	@Test
+	void testFindAllPeople() {
+		client.get().uri("/api/person/v1?page=0&size=2")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content.length()").isEqualTo(2)
+				.jsonPath("$.content[0].firstName").isEqualTo("Ayrton")
+				.jsonPath("$.content[1].lastName").isEqualTo("Costa")
+				.jsonPath("$.page.totalElements").isEqualTo(3)
+				.jsonPath("$.page.totalPages").isEqualTo(2)
+				.jsonPath("$.links[*].href").value(hasItem(endsWith("/api/person/v1?page=1&size=2&direction=asc")));
+	}
+
+	@Test
+	void testStreamAllPeople() {
+		client.get().uri("/api/person/v1?size=3")
+				.accept(MediaType.APPLICATION_NDJSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+				.expectBodyList(PersonVO.class).hasSize(3);
+	}
+
+	@Test
+	void testFindPersonsByName() {
+		client.get().uri("/api/person/v1/findPersonByName/LEAN")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content.length()").isEqualTo(1)
+				.jsonPath("$.content[0].firstName").isEqualTo("Leandro")
+				.jsonPath("$.page.totalElements").isEqualTo(1);
+	}
+
+	@Test
+	void testFindPersonById() {
+		client.get().uri("/api/person/v1/1")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.id").isEqualTo(1)
+				.jsonPath("$.firstName").isEqualTo("Ayrton")
+				.jsonPath("$.enabled").isEqualTo(true)
+				.jsonPath("$.links[0].href").value(endsWith("/api/person/v1/1"));
+	}
+
+	@Test
+	void testLinksFollowForwardedHeaders() {
+		client.get().uri("/api/person/v1/1")
+				.accept(MediaType.APPLICATION_JSON)
+				.header("X-Forwarded-Proto", "https")
+				.header("X-Forwarded-Host", "api.erudio.com.br")
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.links[0].href").isEqualTo("https://api.erudio.com.br/api/person/v1/1");
+	}
+
+	@Test
+	void testPersonNotFound() {
+		client.get().uri("/api/person/v1/99")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isNotFound()
+				.expectBody()
+				.jsonPath("$.message").isEqualTo("No records found for this ID!");
+	}
+
+	@Test
+	void testCreateIsNotServed() {
+		client.post().uri("/api/person/v1")
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("{\"firstName\":\"Ayrton\"}")
+				.exchange()
+				.expectStatus().isEqualTo(HttpStatus.METHOD_NOT_ALLOWED)
+				.expectHeader().valueEquals(HttpHeaders.ALLOW, "GET");
+	}
+
+	@Test
+	void testFindAllBooks() {
+		client.get().uri("/api/books/v1")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.content[0].title").isEqualTo("Clean Code")
+				.jsonPath("$.content[0].price").isEqualTo(77.0)
+				.jsonPath("$.page.totalElements").isEqualTo(1);
+	}
+
+	@Test
+	void testFindBookById() {
+		client.get().uri("/api/books/v1/1")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isOk()
+				.expectBody()
+				.jsonPath("$.author").isEqualTo("Robert C. Martin")
+				.jsonPath("$.launchDate").exists()
+				.jsonPath("$.links[0].href").value(endsWith("/api/books/v1/1"));
+	}
+
+	@Test
+	void testBookNotFound() {
+		client.get().uri("/api/books/v1/99")
+				.accept(MediaType.APPLICATION_JSON)
+				.exchange()
+				.expectStatus().isNotFound();
+	}
+
+	@SuppressWarnings("unchecked")
+	private GenericExecuteSpec statement(String sql) {
+		Map<String, Object> bindings = new HashMap<>();
+		GenericExecuteSpec spec = mock(GenericExecuteSpec.class);
+		when(spec.bind(anyString(), any())).thenAnswer(invocation -> {
+			bindings.put(invocation.getArgument(0), invocation.getArgument(1));
+			return spec;
+		});
+		when(spec.map(any(Function.class))).thenAnswer(invocation -> {
+			Function<Readable, Object> mapper = invocation.getArgument(0);
+			Flux<Object> rows = Flux.defer(() -> Flux.fromIterable(query(sql, bindings))).map(mapper);
+			RowsFetchSpec<Object> fetch = mock(RowsFetchSpec.class);
+			when(fetch.all()).thenReturn(rows);
+			when(fetch.one()).thenReturn(rows.singleOrEmpty());
+			return fetch;
+		});
+		return spec;
+	}
+
+	private List<Readable> query(String sql, Map<String, Object> bindings) {
+		var rows = (sql.contains("FROM person") ? people : books).stream()
+				.filter(row -> !bindings.containsKey("id") || row.get("id").equals(bindings.get("id")))
+				.filter(row -> !bindings.containsKey("firstName") || ((String) row.get("first_name")).toLowerCase()
+						.contains(((String) bindings.get("firstName")).toLowerCase()))
+				.toList();
+		if (sql.startsWith("SELECT COUNT(*)")) {
+			return List.of(row(Map.of("count", (long) rows.size())));
+		}
+		long offset = ((Number) bindings.getOrDefault("offset", 0L)).longValue();
+		int limit = ((Number) bindings.getOrDefault("limit", Integer.MAX_VALUE)).intValue();
+		return rows.stream().skip(offset).limit(limit).map(ReactiveControllersTest::row).toList();
+	}
+
+	private static Map<String, Object> person(Long id, String firstName, String lastName) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("id", id);
+		row.put("first_name", firstName);
+		row.put("last_name", lastName);
+		row.put("address", "Address " + id);
+		row.put("gender", "Male");
+		row.put("enabled", Boolean.TRUE);
+		return row;
+	}
+
+	private static Map<String, Object> book(Long id, String author, String title, String price) {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("id", id);
+		row.put("author", author);
+		row.put("launch_date", LocalDateTime.of(2009, 1, 10, 0, 0));
+		row.put("price", new BigDecimal(price));
+		row.put("title", title);
+		return row;
+	}
+
+	private static Readable row(Map<String, Object> values) {
+		var columns = List.copyOf(values.values());
+		return new Readable() {
+
+			@Override
+			public <T> T get(int index, Class<T> type) {
+				return type.cast(columns.get(index));
+			}
+
+			@Override
+			public <T> T get(String name, Class<T> type) {
+				return type.cast(values.get(name));
+			}
+		};
+	}
+
+	@Configuration
+	@EnableWebFlux
+	static class WebFluxConfig {
+	}
+}
@@ -0,0 +1,149 @@
+package br.com.erudio.unittests.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
+
+import br.com.erudio.model.Person;
+import br.com.erudio.repositories.SparseFieldsetRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SparseFieldsetRepositoryTest {
+
+	@InjectMocks
+	SparseFieldsetRepository repository;
+
+	@Mock
+	EntityManager entityManager;
+
+	@Mock
+	CriteriaBuilder cb;
+
+	@Mock
+	CriteriaQuery<Tuple> query;
+
+	@Mock
+	Root<Person> root;
+
+	@Mock
+	Path<Object> path;
+
+	@Mock
+	TypedQuery<Tuple> typedQuery;
+
+	@BeforeEach
+	void setUp() {
+		when(entityManager.getCriteriaBuilder()).thenReturn(cb);
+		when(cb.createTupleQuery()).thenReturn(query);
+		when(query.from(Person.class)).thenReturn(root);
+		when(root.get(anyString())).thenReturn(path);
+		when(path.alias(anyString())).thenReturn(path);
+		when(entityManager.createQuery(query)).thenReturn(typedQuery);
+	}
+
+	@Test
+	void testFindByIdProjectsTupleInFieldOrder() {
+		when(typedQuery.getResultList()).thenReturn(List.of(tuple(1L, "Ayrton")));
+
+		var result = repository.findById(Person.class, List.of("id", "firstName"), 1L);
+
+		assertTrue(result.isPresent());
+		assertEquals(List.of("id", "firstName"), List.copyOf(result.get().keySet()));
+		assertEquals(1L, result.get().get("id"));
+		assertEquals("Ayrton", result.get().get("firstName"));
+		verify(path).alias("id");
+		verify(path).alias("firstName");
+	}
+
+	@Test
+	void testFindByIdWithoutRow() {
+		when(typedQuery.getResultList()).thenReturn(List.of());
+
+		assertEquals(Optional.empty(), repository.findById(Person.class, List.of("id"), 1L));
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void testFindAllSelectsOnlyRequestedFields() {
+		when(typedQuery.getResultList()).thenReturn(List.of(tuple(1L, "Ayrton"), tuple(2L, "Leandro")));
+
+		var page = repository.findAll(Person.class, List.of("id", "firstName"), null, PageRequest.of(0, 10));
+
+		assertEquals(2, page.getTotalElements());
+		assertEquals("Leandro", page.getContent().get(1).get("firstName"));
+		verify(query).multiselect(any(List.class));
+		verify(typedQuery).setFirstResult(0);
+		verify(typedQuery).setMaxResults(10);
+		// A short first page is its own count.
+		verify(cb, never()).count(any());
+	}
+
+	private static Tuple tuple(Long id, String firstName) {
+		return new Tuple() {
+
+			@Override
+			public Object get(String alias) {
+				return switch (alias) {
+					case "id" -> id;
+					case "firstName" -> firstName;
+					default -> throw new IllegalArgumentException(alias);
+				};
+			}
+
+			@Override
+			public <X> X get(String alias, Class<X> type) {
+				return type.cast(get(alias));
+			}
+
+			@Override
+			public <X> X get(int i, Class<X> type) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Object get(int i) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public <X> X get(jakarta.persistence.TupleElement<X> tupleElement) {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public Object[] toArray() {
+				return new Object[] { id, firstName };
+			}
+
+			@Override
+			public List<jakarta.persistence.TupleElement<?>> getElements() {
+				return List.of();
+			}
+		};
+	}
+}
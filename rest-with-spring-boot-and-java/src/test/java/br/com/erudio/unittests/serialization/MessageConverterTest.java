@@ -0,0 +1,108 @@
+package br.com.erudio.unittests.serialization;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import br.com.erudio.data.vo.v1.PersonVO;
+import br.com.erudio.serialization.converter.XmlJackson2HttpMessageConverter;
+import br.com.erudio.serialization.converter.YamlJackson2HttpMessageConverter;
+import br.com.erudio.unittests.mapper.mocks.MockPerson;
+
+public class MessageConverterTest {
+
+	MockPerson input;
+
+	@BeforeEach
+	public void setUp() {
+		input = new MockPerson();
+	}
+
+	@Test
+	public void xmlRoundTripTest() throws Exception {
+		var converter = new XmlJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+		
+		var body = write(converter, MediaType.APPLICATION_XML);
+		assertTrue(body.contains("<firstName>First Name Test1</firstName>"));
+		
+		assertPerson(read(converter, body));
+		assertPerson(read(converter, body));
+	}
+
+	@Test
+	public void yamlRoundTripTest() throws Exception {
+		var converter = new YamlJackson2HttpMessageConverter();
+		
+		var body = write(converter, MediaType.parseMediaType("application/x-yaml"));
+		assertTrue(body.contains("firstName: \"First Name Test1\""));
+		
+		assertPerson(read(converter, body));
+		assertPerson(read(converter, body));
+	}
+
+	@Test
+	public void xmlRejectsExternalEntitiesTest() throws Exception {
+		var converter = new XmlJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json());
+		var body = "<?xml version=\"1.0\"?><!DOCTYPE p [<!ENTITY x SYSTEM \"file:///etc/passwd\">]>"
+				+ "<PersonVO><firstName>&x;</firstName></PersonVO>";
+		
+		assertThrows(HttpMessageNotReadableException.class, () -> read(converter, body));
+	}
+
+	@Test
+	public void nonUtf8CharsetIsHonouredTest() throws Exception {
+		var converter = new YamlJackson2HttpMessageConverter();
+		var person = input.mockVO(1);
+		person.setFirstName("Jo\u00e3o");
+		var output = new MockHttpOutputMessage();
+		
+		converter.write(person, PersonVO.class, MediaType.parseMediaType("application/x-yaml;charset=UTF-16BE"), output);
+		
+		assertTrue(output.getBodyAsString(StandardCharsets.UTF_16BE).contains("firstName: \"Jo\u00e3o\""));
+	}
+
+	@Test
+	public void jsonViewsAndFiltersAreAppliedTest() throws Exception {
+		var converter = new YamlJackson2HttpMessageConverter();
+		var value = new MappingJacksonValue(Map.of("firstName", "Leandro"));
+		value.setFilters(new SimpleFilterProvider().setFailOnUnknownId(false));
+		var output = new MockHttpOutputMessage();
+		
+		converter.write(value, MediaType.parseMediaType("application/x-yaml"), output);
+		
+		assertTrue(output.getBodyAsString().contains("firstName: \"Leandro\""));
+	}
+
+	private String write(AbstractJackson2HttpMessageConverter converter, MediaType mediaType) throws Exception {
+		var output = new MockHttpOutputMessage();
+		converter.write(input.mockVO(1), PersonVO.class, mediaType, output);
+		return output.getBodyAsString();
+	}
+
+	private PersonVO read(AbstractJackson2HttpMessageConverter converter, String body) throws Exception {
+		return (PersonVO) converter.read(PersonVO.class, null, new MockHttpInputMessage(body.getBytes()));
+	}
+
+	private void assertPerson(PersonVO person) {
+		assertEquals(Long.valueOf(1L), person.getKey());
+		assertEquals("First Name Test1", person.getFirstName());
+		assertEquals("Last Name Test1", person.getLastName());
+		assertEquals("Addres Test1", person.getAddress());
+		assertEquals("Female", person.getGender());
+	}
+}
@@ -0,0 +1,62 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.services.BatchLoader;
+
+class BatchLoaderTest {
+
+	private BatchLoader loader;
+	private List<List<Long>> queries;
+
+	@BeforeEach
+	void setUp() {
+		loader = new BatchLoader();
+		ReflectionTestUtils.setField(loader, "maxIds", 5);
+		ReflectionTestUtils.setField(loader, "chunkSize", 2);
+		queries = new ArrayList<>();
+	}
+
+	/**
+	 * Pretends the even ids exist and returns them in id order, like an IN
+	 * query would.
+	 */
+	private final Function<List<Long>, List<Long>> finder = ids -> {
+		queries.add(List.copyOf(ids));
+		return ids.stream().filter(id -> id % 2 == 0).sorted().toList();
+	};
+
+	@Test
+	void testPreservesRequestOrderAndReportsMissingIds() {
+		var result = loader.load(List.of(8L, 3L, 2L, 8L, 6L), finder, Function.identity(), id -> "#" + id);
+
+		assertEquals(List.of("#8", "#2", "#6"), result.getContent());
+		assertEquals(List.of(3L), result.getNotFound());
+	}
+
+	@Test
+	void testQueriesInChunks() {
+		loader.load(List.of(1L, 2L, 3L, 4L, 5L), finder, Function.identity(), Function.identity());
+
+		assertEquals(List.of(List.of(1L, 2L), List.of(3L, 4L), List.of(5L)), queries);
+	}
+
+	@Test
+	void testRejectsEmptyAndOversizedBatches() {
+		assertThrows(InvalidRequestParameterException.class,
+				() -> loader.load(List.of(), finder, Function.identity(), Function.identity()));
+		assertThrows(InvalidRequestParameterException.class,
+				() -> loader.load(List.of(1L, 2L, 3L, 4L, 5L, 6L), finder, Function.identity(), Function.identity()));
+		assertEquals(0, queries.size());
+	}
+}
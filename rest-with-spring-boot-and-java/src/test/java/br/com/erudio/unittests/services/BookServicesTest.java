@@ -1,8 +1,13 @@
 package br.com.erudio.unittests.services;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,11 +19,19 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
 
 import br.com.erudio.data.vo.v1.BookVO;
 import br.com.erudio.model.Book;
 import br.com.erudio.repositories.BookRepository;
+import br.com.erudio.services.FilterCompiler;
 import br.com.erudio.services.BookServices;
+import br.com.erudio.services.BookStatisticsService;
 import br.com.erudio.unittests.mapper.mocks.MockBook;
 
 @TestInstance(Lifecycle.PER_CLASS)
@@ -32,6 +45,12 @@ class BookServicesTest {
 	
 	@Mock
 	BookRepository repository;
+	
+	@Mock
+	FilterCompiler filterCompiler;
+	
+	@Mock
+	BookStatisticsService statistics;
 
 	@BeforeEach
 	void setUpMocks() throws Exception {
@@ -66,6 +85,42 @@ class BookServicesTest {
 	}
 
 
+	@Test
+	void testFindAllCompact() {
+		List<Book> list = input.mockEntityList();
+		Pageable pageable = PageRequest.of(0, 14, Sort.by(Direction.ASC, "author"));
+		when(repository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(list, pageable, list.size()));
+		
+		var result = service.findAllCompact(null, null, null, null, null, null, pageable);
+		
+		assertNotNull(result);
+		assertEquals(14, result.getContent().size());
+		assertEquals(14, result.getTotalElements());
+		assertEquals(1, result.getTotalPages());
+		
+		var bookOne = result.getContent().get(1);
+		
+		assertEquals(Long.valueOf(1L), bookOne.getKey());
+		assertTrue(bookOne.getLinks().isEmpty());
+		assertEquals("Author Test1", bookOne.getAuthor());
+		assertEquals("Title Test1", bookOne.getTitle());
+	}
+
+	@Test
+	void testFindAllCompactAppliesFilter() {
+		List<Book> list = input.mockEntityList().subList(1, 2);
+		Pageable pageable = PageRequest.of(0, 14, Sort.by(Direction.ASC, "author"));
+		Specification<Book> spec = (root, query, cb) -> null;
+		when(filterCompiler.compile(eq(Book.class), anyMap(), eq("author == 'Author Test1'"), eq(pageable))).thenReturn(spec);
+		when(repository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(list, pageable, list.size()));
+		
+		var result = service.findAllCompact(null, null, null, null, null, "author == 'Author Test1'", pageable);
+		
+		verify(filterCompiler).compile(eq(Book.class), anyMap(), eq("author == 'Author Test1'"), eq(pageable));
+		assertEquals(1, result.getContent().size());
+		assertEquals("Author Test1", result.getContent().get(0).getAuthor());
+	}
+
 	@Test
 	void testCreate() throws Exception {
 		Book entity = input.mockEntity(1);
@@ -0,0 +1,120 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.erudio.model.Book;
+import br.com.erudio.repositories.BookRepository;
+import br.com.erudio.services.BookStatisticsService;
+
+@ExtendWith(MockitoExtension.class)
+class BookStatisticsServiceTest {
+
+	@InjectMocks
+	BookStatisticsService statistics;
+
+	@Mock
+	BookRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		when(repository.countByPrice()).thenReturn(List.of(new Object[] {49.0, 1L}, new Object[] {77.0, 2L}));
+		when(repository.countByAuthor()).thenReturn(List.of(new Object[] {"Michael C. Feathers", 1L}, new Object[] {"Robert C. Martin", 2L}));
+		when(repository.countByLaunchDate()).thenReturn(List.of(new Object[] {launchDate(2009), 2L}, new Object[] {launchDate(2017), 1L}));
+		statistics.rebuild();
+	}
+
+	@Test
+	void testRebuildFromDatabase() {
+		var stats = statistics.getStatistics();
+
+		assertEquals(3, stats.getCount());
+		assertEquals(49.0, stats.getMinPrice());
+		assertEquals(77.0, stats.getMaxPrice());
+		assertEquals(67.67, stats.getAvgPrice());
+		assertEquals(Map.of("Michael C. Feathers", 1, "Robert C. Martin", 2), stats.getBooksPerAuthor());
+		assertEquals(Map.of(2009, 2, 2017, 1), stats.getBooksPerLaunchYear());
+	}
+
+	@Test
+	void testIncrementalUpdates() {
+		var cheap = book("Crockford", 19.9, 2008);
+		statistics.add(cheap);
+		assertEquals(19.9, statistics.getStatistics().getMinPrice());
+
+		statistics.remove(cheap);
+		statistics.remove(book("Michael C. Feathers", 49.0, 2017));
+
+		var stats = statistics.getStatistics();
+		assertEquals(2, stats.getCount());
+		assertEquals(77.0, stats.getMinPrice());
+		assertEquals(77.0, stats.getAvgPrice());
+		assertEquals(Map.of("Robert C. Martin", 2), stats.getBooksPerAuthor());
+		assertEquals(Map.of(2009, 2), stats.getBooksPerLaunchYear());
+	}
+
+	@Test
+	void testEmptyCatalog() {
+		statistics.remove(book("Michael C. Feathers", 49.0, 2017));
+		statistics.remove(book("Robert C. Martin", 77.0, 2009));
+		statistics.remove(book("Robert C. Martin", 77.0, 2009));
+
+		var stats = statistics.getStatistics();
+		assertEquals(0, stats.getCount());
+		assertNull(stats.getMinPrice());
+		assertEquals(Map.of(), stats.getBooksPerAuthor());
+	}
+
+	@Test
+	void testRemoveOfUncountedBookLeavesCountsAlone() {
+		statistics.remove(book("Crockford", 19.9, 2008));
+
+		var stats = statistics.getStatistics();
+		assertEquals(3, stats.getCount());
+		assertEquals(49.0, stats.getMinPrice());
+		assertEquals(77.0, stats.getMaxPrice());
+		assertEquals(67.67, stats.getAvgPrice());
+		assertEquals(Map.of("Michael C. Feathers", 1, "Robert C. Martin", 2), stats.getBooksPerAuthor());
+		assertEquals(Map.of(2009, 2, 2017, 1), stats.getBooksPerLaunchYear());
+	}
+
+	@Test
+	void testLaunchYearAroundNewYearMatchesRebuild() {
+		var newYearsEve = new Date(Instant.parse("2017-12-31T23:30:00Z").toEpochMilli());
+		when(repository.countByLaunchDate()).thenReturn(List.<Object[]>of(new Object[] {newYearsEve, 1L}));
+		statistics.rebuild();
+		var book = book("Crockford", 19.9, 2017);
+		book.setLaunchDate(newYearsEve);
+
+		statistics.remove(book);
+
+		assertEquals(Map.of(), statistics.getStatistics().getBooksPerLaunchYear());
+	}
+
+	private static Book book(String author, double price, int year) {
+		var book = new Book();
+		book.setAuthor(author);
+		book.setPrice(price);
+		book.setLaunchDate(launchDate(year));
+		return book;
+	}
+
+	private static Date launchDate(int year) {
+		return Date.from(LocalDate.of(year, 6, 1).atStartOfDay(ZoneOffset.UTC).toInstant());
+	}
+}
@@ -0,0 +1,85 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import br.com.erudio.config.BulkheadConfig;
+import br.com.erudio.services.BulkheadExecutors;
+import br.com.erudio.util.TrafficClass;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class BulkheadExecutorsTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private BulkheadExecutors executors;
+
+	@BeforeEach
+	void setUp() {
+		var config = new BulkheadConfig();
+		config.setFile(new BulkheadConfig.Partition(1, 1, 1));
+		config.setCrud(new BulkheadConfig.Partition(2, 2, 2));
+		meterRegistry = new SimpleMeterRegistry();
+		var beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("meterRegistry", meterRegistry);
+		executors = new BulkheadExecutors(config, beanFactory.getBeanProvider(MeterRegistry.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		executors.shutdown();
+	}
+
+	@Test
+	void testRunsWithTrafficClassBound() throws Exception {
+		var bound = new AtomicReference<TrafficClass>();
+		var done = new CountDownLatch(1);
+
+		assertTrue(executors.execute(TrafficClass.CRUD, () -> {
+			bound.set(TrafficClass.current());
+			done.countDown();
+		}));
+
+		assertTrue(done.await(5, TimeUnit.SECONDS));
+		assertEquals(TrafficClass.CRUD, bound.get());
+	}
+
+	@Test
+	void testSaturatedClassIsRejectedWithoutAffectingOthers() throws Exception {
+		var started = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var crudDone = new CountDownLatch(1);
+
+		assertTrue(executors.execute(TrafficClass.FILE, () -> {
+			started.countDown();
+			await(release);
+		}));
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertTrue(executors.execute(TrafficClass.FILE, () -> {}));
+
+		assertFalse(executors.execute(TrafficClass.FILE, () -> {}));
+		assertTrue(executors.execute(TrafficClass.CRUD, crudDone::countDown));
+		assertTrue(crudDone.await(5, TimeUnit.SECONDS));
+		assertEquals(1.0, meterRegistry.get("bulkhead.rejected").tag("class", "file").counter().count());
+
+		release.countDown();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.services.CompressedVariantService;
+import br.com.erudio.services.FileMetadataService;
+import br.com.erudio.services.FileStorageService;
+import br.com.erudio.services.storage.LocalStorageBackend;
+
+class CompressedVariantServiceTest {
+
+	private static final String HASH = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+	@TempDir
+	Path uploadDir;
+
+	FileMetadataService metadataService = mock(FileMetadataService.class);
+	LocalStorageBackend storage;
+	CompressedVariantService service;
+
+	@BeforeEach
+	void setUp() {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		storage = new LocalStorageBackend(uploadDir, config.getFsyncPolicy());
+
+		var fileStorageService = new FileStorageService(config);
+		ReflectionTestUtils.setField(fileStorageService, "storage", storage);
+
+		service = new CompressedVariantService(config);
+		ReflectionTestUtils.setField(service, "fileStorageService", fileStorageService);
+		ReflectionTestUtils.setField(service, "metadataService", metadataService);
+		ReflectionTestUtils.setField(service, "storage", storage);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.shutdown();
+	}
+
+	@Test
+	void testGenerateStoresSmallerVariant() throws Exception {
+		byte[] content = "id;title;author\n1;Refactoring;Martin Fowler\n".repeat(500).getBytes(StandardCharsets.UTF_8);
+		var metadata = store("books.csv", "text/csv", content);
+
+		long gzipSize = service.generate(metadata);
+
+		assertTrue(gzipSize > 0 && gzipSize < content.length / 10);
+		verify(metadataService).recordVariant(HASH, gzipSize);
+		try (InputStream in = new GZIPInputStream(service.openVariant(metadata))) {
+			assertArrayEquals(content, in.readAllBytes());
+		}
+	}
+
+	@Test
+	void testGenerateSkipsIncompressibleContent() throws Exception {
+		byte[] content = new byte[20_000];
+		new Random(3).nextBytes(content);
+		var metadata = store("noise.txt", "text/plain", content);
+
+		assertEquals(-1, service.generate(metadata));
+		verify(metadataService).recordVariant(HASH, -1);
+		try (var files = Files.walk(uploadDir)) {
+			assertEquals(1, files.filter(Files::isRegularFile).count());
+		}
+	}
+
+	@Test
+	void testAcceptsGzip() {
+		assertTrue(CompressedVariantService.acceptsGzip("gzip, deflate, br"));
+		assertTrue(CompressedVariantService.acceptsGzip("br;q=1.0, gzip;q=0.8"));
+		assertTrue(CompressedVariantService.acceptsGzip("*"));
+		assertFalse(CompressedVariantService.acceptsGzip("gzip;q=0, *"));
+		assertFalse(CompressedVariantService.acceptsGzip("identity"));
+		assertFalse(CompressedVariantService.acceptsGzip(null));
+	}
+
+	@Test
+	void testIsCompressible() {
+		assertTrue(CompressedVariantService.isCompressible("text/csv"));
+		assertTrue(CompressedVariantService.isCompressible("application/json"));
+		assertTrue(CompressedVariantService.isCompressible("application/vnd.api+json"));
+		assertTrue(CompressedVariantService.isCompressible("application/xml"));
+		assertFalse(CompressedVariantService.isCompressible("image/png"));
+		assertFalse(CompressedVariantService.isCompressible("application/zip"));
+	}
+
+	private StoredFile store(String filename, String contentType, byte[] content) throws Exception {
+		storage.put(filename, Files.write(Files.createTempFile(uploadDir, ".upload-", ".part"), content));
+		var metadata = new StoredFile();
+		metadata.setFileName(filename);
+		metadata.setHash(HASH);
+		metadata.setSize((long) content.length);
+		metadata.setContentType(contentType);
+		return metadata;
+	}
+}
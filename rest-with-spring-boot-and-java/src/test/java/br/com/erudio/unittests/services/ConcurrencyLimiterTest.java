@@ -0,0 +1,108 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import br.com.erudio.config.ConcurrencyLimitConfig;
+import br.com.erudio.services.ConcurrencyLimiter;
+import br.com.erudio.services.ConcurrencyLimiter.Partition;
+import br.com.erudio.services.ConcurrencyLimiter.Permit;
+import br.com.erudio.services.ConcurrencyLimiter.Priority;
+import br.com.erudio.util.GradientLimit;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConcurrencyLimiterTest {
+
+	private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private SimpleMeterRegistry meterRegistry;
+	private ConcurrencyLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		var config = new ConcurrencyLimitConfig();
+		config.setApi(new ConcurrencyLimitConfig.Partition(8, 2, 100));
+		config.setSignin(new ConcurrencyLimitConfig.Partition(2, 1, 10));
+		meterRegistry = new SimpleMeterRegistry();
+		var beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("meterRegistry", meterRegistry);
+		limiter = new ConcurrencyLimiter(config, beanFactory.getBeanProvider(MeterRegistry.class));
+	}
+
+	@Test
+	void testWritesAreShedBeforeReads() {
+		List<Permit> permits = new ArrayList<>();
+		for (int i = 0; i < 6; i++) {
+			permits.add(limiter.tryAcquire(Partition.API, Priority.WRITE));
+		}
+		assertTrue(permits.stream().allMatch(permit -> permit != null));
+
+		assertNull(limiter.tryAcquire(Partition.API, Priority.WRITE));
+		assertNotNull(limiter.tryAcquire(Partition.API, Priority.READ));
+		assertNotNull(limiter.tryAcquire(Partition.API, Priority.READ));
+		assertNull(limiter.tryAcquire(Partition.API, Priority.READ));
+		assertEquals(1.0, meterRegistry.counter("http.concurrency.rejected", "partition", "api", "priority", "write").count());
+		assertEquals(8, limiter.getInFlight(Partition.API));
+
+		permits.get(0).release(false);
+		assertNotNull(limiter.tryAcquire(Partition.API, Priority.READ));
+	}
+
+	@Test
+	void testSigninHasItsOwnPartition() {
+		for (int i = 0; i < 8; i++) {
+			limiter.tryAcquire(Partition.API, Priority.READ);
+		}
+		assertNotNull(limiter.tryAcquire(Partition.SIGNIN, Priority.WRITE));
+		assertNotNull(limiter.tryAcquire(Partition.SIGNIN, Priority.WRITE));
+		assertNull(limiter.tryAcquire(Partition.SIGNIN, Priority.WRITE));
+		assertEquals(0.0, meterRegistry.counter("http.concurrency.rejected", "partition", "api", "priority", "write").count());
+	}
+
+	@Test
+	void testLimitGrowsWhileLatencyIsSteady() {
+		var limit = new GradientLimit(10, 1, 100);
+		for (int i = 0; i < 1000; i++) {
+			limit.onSample(10 * MILLIS, limit.getLimit(), false);
+		}
+		assertTrue(limit.getLimit() > 20, "limit " + limit.getLimit());
+	}
+
+	@Test
+	void testLimitShrinksWhenLatencyRises() {
+		var limit = new GradientLimit(50, 1, 100);
+		for (int i = 0; i < 20; i++) {
+			limit.onSample(10 * MILLIS, 50, false);
+		}
+		int before = limit.getLimit();
+		for (int i = 0; i < 200; i++) {
+			limit.onSample(40 * MILLIS, before, false);
+		}
+		assertTrue(limit.getLimit() < before * 0.7, "limit " + limit.getLimit());
+	}
+
+	@Test
+	void testLimitBacksOffOnDropsAndIgnoresIdleWindows() {
+		var limit = new GradientLimit(50, 1, 100);
+		for (int i = 0; i < 20; i++) {
+			limit.onSample(10 * MILLIS, 50, i == 0);
+		}
+		assertEquals(45, limit.getLimit());
+
+		for (int i = 0; i < 200; i++) {
+			limit.onSample(10 * MILLIS, 3, false);
+		}
+		assertEquals(45, limit.getLimit());
+	}
+}
@@ -0,0 +1,193 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionManager;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.exceptions.FileStorageException;
+import br.com.erudio.model.FileBlob;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.repositories.FileBlobRepository;
+import br.com.erudio.repositories.StoredFileRepository;
+import br.com.erudio.services.ContentAddressedStorage;
+import br.com.erudio.services.FileMetadataService;
+import br.com.erudio.services.FileStorageService;
+import br.com.erudio.services.HotFileCache;
+import br.com.erudio.services.storage.LocalStorageBackend;
+
+@ExtendWith(MockitoExtension.class)
+class ContentAddressedStorageTest {
+
+	@TempDir
+	Path uploadDir;
+
+	@Mock
+	FileBlobRepository blobRepository;
+
+	@Mock
+	StoredFileRepository storedFileRepository;
+
+	@Mock
+	PlatformTransactionManager transactionManager;
+
+	FileMetadataService metadataService;
+	ContentAddressedStorage storage;
+	FileStorageService service;
+
+	@BeforeEach
+	void setUp() {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+
+		metadataService = new FileMetadataService();
+		ReflectionTestUtils.setField(metadataService, "repository", storedFileRepository);
+		ReflectionTestUtils.setField(metadataService, "eventPublisher", (ApplicationEventPublisher) event -> {});
+		lenient().when(storedFileRepository.save(any(StoredFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+		var storageBackend = new LocalStorageBackend(uploadDir, config.getFsyncPolicy());
+		storage = new ContentAddressedStorage();
+		ReflectionTestUtils.setField(storage, "storage", storageBackend);
+		ReflectionTestUtils.setField(storage, "blobRepository", blobRepository);
+		ReflectionTestUtils.setField(storage, "metadataService", metadataService);
+		ReflectionTestUtils.setField(storage, "transactionManager", transactionManager);
+
+		// Runs store in a transaction, so its after-commit put and rollback cleanup happen.
+		var transactional = new ProxyFactory(storage);
+		transactional.setProxyTargetClass(true);
+		TransactionManager noOpTransactionManager = new NoOpTransactionManager();
+		transactional.addAdvice(new TransactionInterceptor(noOpTransactionManager, new AnnotationTransactionAttributeSource()));
+
+		service = new FileStorageService(config);
+		ReflectionTestUtils.setField(service, "hotFileCache", new HotFileCache(config));
+		ReflectionTestUtils.setField(service, "contentAddressedStorage", transactional.getProxy());
+		ReflectionTestUtils.setField(service, "storage", storageBackend);
+	}
+
+	@Test
+	void testDuplicateUploadsShareOneBlob() throws Exception {
+		String hash = sha256("same content");
+
+		service.storeFile("a.txt", stream("same content"));
+		service.storeFile("b.txt", stream("same content"));
+
+		verify(blobRepository, times(2)).acquire(hash, 12);
+		verify(storedFileRepository, times(2)).save(any(StoredFile.class));
+
+		Path blob = uploadDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+		assertEquals("same content", Files.readString(blob));
+		try (var files = Files.list(uploadDir)) {
+			assertTrue(files.noneMatch(file -> file.getFileName().toString().endsWith(".part")));
+		}
+	}
+
+	@Test
+	void testOverwriteReleasesPreviousBlob() throws Exception {
+		String oldHash = sha256("old content");
+		var existing = new StoredFile();
+		existing.setFileName("a.txt");
+		existing.setHash(oldHash);
+		when(storedFileRepository.findByFileNameForUpdate("a.txt")).thenReturn(Optional.of(existing));
+
+		service.storeFile("a.txt", stream("new content"));
+
+		verify(blobRepository).release(oldHash);
+		assertEquals(sha256("new content"), existing.getHash());
+		assertEquals("text/plain", existing.getContentType());
+		assertEquals(sha256("new content"), metadataService.find("a.txt").get().getHash());
+	}
+
+	@Test
+	void testCollectGarbageDeletesUnreferencedBlob() throws Exception {
+		String hash = sha256("orphan");
+		service.storeFile("orphan.txt", stream("orphan"));
+		Path blob = uploadDir.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+		assertTrue(Files.exists(blob));
+
+		var fileBlob = new FileBlob();
+		fileBlob.setHash(hash);
+		when(blobRepository.findUnreferenced(any(Pageable.class))).thenReturn(List.of(hash));
+		when(blobRepository.findUnreferencedForUpdate(hash)).thenReturn(Optional.of(fileBlob));
+
+		storage.collectGarbage();
+
+		assertFalse(Files.exists(blob));
+		verify(blobRepository).delete(fileBlob);
+	}
+
+	@Test
+	void testRollbackLeavesNoBlob() throws Exception {
+		String hash = sha256("rolled back");
+		when(storedFileRepository.save(any(StoredFile.class))).thenThrow(new IllegalStateException("deadlock"));
+
+		assertThrows(FileStorageException.class, () -> service.storeFile("a.txt", stream("rolled back")));
+
+		assertFalse(Files.exists(uploadDir.resolve(hash.substring(0, 2))));
+		try (var files = Files.list(uploadDir)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	private static ByteArrayInputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String sha256(String content) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+				.digest(content.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@SuppressWarnings("serial")
+	static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+		@Override
+		protected Object doGetTransaction() {
+			return new Object();
+		}
+
+		@Override
+		protected void doBegin(Object transaction, TransactionDefinition definition) {
+		}
+
+		@Override
+		protected void doCommit(DefaultTransactionStatus status) {
+		}
+
+		@Override
+		protected void doRollback(DefaultTransactionStatus status) {
+		}
+	}
+}
@@ -0,0 +1,110 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import br.com.erudio.config.DeadlineAwareDataSource;
+import br.com.erudio.util.RequestDeadline;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class DeadlineAwareDataSourceTest {
+
+	private SimpleMeterRegistry meterRegistry;
+	private PreparedStatement target;
+	private DeadlineAwareDataSource dataSource;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		meterRegistry = new SimpleMeterRegistry();
+		target = mock(PreparedStatement.class);
+		var connection = mock(Connection.class);
+		when(connection.prepareStatement(anyString())).thenReturn(target);
+		var pool = mock(DataSource.class);
+		when(pool.getConnection()).thenReturn(connection);
+		var beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("meterRegistry", meterRegistry);
+		ObjectProvider<MeterRegistry> provider = beanFactory.getBeanProvider(MeterRegistry.class);
+		dataSource = new DeadlineAwareDataSource(pool, provider);
+	}
+
+	@AfterEach
+	void clearDeadline() {
+		RequestDeadline.clear();
+	}
+
+	@Test
+	void testWithoutDeadlineStatementsAreUntouched() throws SQLException {
+		var resultSet = mock(ResultSet.class);
+		when(target.executeQuery()).thenReturn(resultSet);
+
+		assertSame(resultSet, dataSource.getConnection().prepareStatement("select 1").executeQuery());
+		verify(target, never()).setQueryTimeout(org.mockito.ArgumentMatchers.anyInt());
+	}
+
+	@Test
+	void testQueryTimeoutIsTheTimeLeft() throws SQLException {
+		RequestDeadline.start(Duration.ofMillis(2500));
+
+		dataSource.getConnection().prepareStatement("select 1").executeQuery();
+
+		verify(target).setQueryTimeout(3);
+	}
+
+	@Test
+	void testStatementIsNotSentAfterTheDeadline() throws Exception {
+		RequestDeadline.start(Duration.ofMillis(1));
+		Thread.sleep(5);
+
+		var statement = dataSource.getConnection().prepareStatement("select 1");
+		assertThrows(SQLTimeoutException.class, statement::executeQuery);
+
+		verify(target, never()).executeQuery();
+		assertEquals(1.0, meterRegistry.counter("db.statements.cancelled", "reason", "deadline").count());
+	}
+
+	@Test
+	void testRunningStatementIsCancelledAtTheDeadline() throws Exception {
+		var cancelled = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			cancelled.countDown();
+			return null;
+		}).when(target).cancel();
+		when(target.executeQuery()).thenAnswer(invocation -> {
+			if (!cancelled.await(5, TimeUnit.SECONDS)) {
+				throw new AssertionError("not cancelled");
+			}
+			throw new SQLException("Statement cancelled due to client request", "70100");
+		});
+		RequestDeadline.start(Duration.ofMillis(100));
+
+		var statement = dataSource.getConnection().prepareStatement("select sleep(10)");
+		assertThrows(SQLTimeoutException.class, statement::executeQuery);
+
+		assertEquals(1.0, meterRegistry.counter("db.statements.cancelled", "reason", "deadline").count());
+	}
+}
@@ -0,0 +1,270 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartFile;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.config.FileStorageConfig.FsyncPolicy;
+import br.com.erudio.exceptions.FileStorageException;
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.services.FileMetadataService;
+import br.com.erudio.services.FileStorageService;
+import br.com.erudio.services.HotFileCache;
+import br.com.erudio.services.storage.LocalStorageBackend;
+
+public class FileStorageServiceTest {
+
+	private static final String BOUNDARY = "----erudio-boundary";
+
+	@TempDir
+	Path uploadDir;
+
+	FileMetadataService metadataService = mock(FileMetadataService.class);
+	FileStorageService service;
+
+	@BeforeEach
+	public void setUp() {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setBufferSize(DataSize.ofKilobytes(16));
+		config.setFsyncPolicy(FsyncPolicy.DURABLE);
+		service = new FileStorageService(config);
+		ReflectionTestUtils.setField(service, "hotFileCache", new HotFileCache(config));
+		ReflectionTestUtils.setField(service, "metadataService", metadataService);
+		ReflectionTestUtils.setField(service, "storage", new LocalStorageBackend(uploadDir, FsyncPolicy.DURABLE));
+	}
+
+	@Test
+	public void testStoreFilesStreaming() throws Exception {
+		byte[] content = new byte[100_000];
+		new Random(42).nextBytes(content);
+
+		var request = multipartRequest(
+				formField("description", "ignored"),
+				filePart("file", "report.bin", content),
+				filePart("empty", "", new byte[0]));
+		var files = service.storeFiles(request, -1, -1);
+
+		assertEquals(1, files.size());
+		assertEquals("report.bin", files.get(0).getFileName());
+		assertEquals("application/octet-stream", files.get(0).getFileType());
+		assertEquals(content.length, files.get(0).getSize());
+		assertArrayEquals(content, Files.readAllBytes(uploadDir.resolve("report.bin")));
+		verify(metadataService).record("report.bin", HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)),
+				content.length, "application/octet-stream");
+		try (var left = Files.list(uploadDir)) {
+			assertEquals(List.of(uploadDir.resolve("report.bin")), left.toList());
+		}
+	}
+
+	@Test
+	public void testStoreFilesStreamingReportsFailuresPerFile() throws Exception {
+		var request = multipartRequest(
+				filePart("files", "a.txt", "a".getBytes()),
+				filePart("files", "bad..name.txt", "b".getBytes()),
+				filePart("files", "c.txt", "ccc".getBytes()));
+
+		var results = service.storeFiles(request, -1, -1);
+
+		assertEquals(List.of("a.txt", "bad..name.txt", "c.txt"), results.stream().map(r -> r.getFileName()).toList());
+		assertNull(results.get(0).getError());
+		assertNotNull(results.get(1).getError());
+		assertNull(results.get(2).getError());
+		assertEquals("ccc", Files.readString(uploadDir.resolve("c.txt")));
+	}
+
+	@Test
+	public void testStoreFilesStreamingOverSizeLimit() throws Exception {
+		var request = multipartRequest(filePart("file", "big.bin", new byte[10_000]));
+
+		assertThrows(MaxUploadSizeExceededException.class, () -> service.storeFiles(request, 1_000, -1));
+
+		try (var left = Files.list(uploadDir)) {
+			assertEquals(0, left.count());
+		}
+	}
+
+	@Test
+	public void testStoreFilesStreamingRejectsMalformedBody() throws Exception {
+		var request = new MockHttpServletRequest("POST", "/api/file/v1/uploadFileStream");
+		request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+		request.setContent(("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"cut.bin\"\r\n\r\ncut")
+				.getBytes(StandardCharsets.US_ASCII));
+
+		assertThrows(InvalidRequestParameterException.class, () -> service.storeFiles(request, -1, -1));
+	}
+
+	@Test
+	public void testStoreFileMovesSpooledPart(@TempDir Path spoolDir) throws Exception {
+		Path spooled = Files.writeString(spoolDir.resolve("upload_0001.tmp"), "spooled content");
+		var part = new MockMultipartFile("file", "notes.txt", "text/plain", new byte[0]) {
+			@Override
+			public void transferTo(File dest) throws IOException {
+				Files.move(spooled, dest.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			@Override
+			public void transferTo(Path dest) throws IOException {
+				throw new AssertionError("Copies the part instead of moving it");
+			}
+		};
+
+		service.storeFile(part);
+
+		assertFalse(Files.exists(spooled));
+		assertEquals("spooled content", Files.readString(uploadDir.resolve("notes.txt")));
+		verify(metadataService).record("notes.txt", HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+				.digest("spooled content".getBytes(StandardCharsets.UTF_8))), 15, "text/plain");
+	}
+
+	@Test
+	public void testStoreFileFailureLeavesNoPartialFile() throws Exception {
+		var part = new MockMultipartFile("file", "big.bin", "application/octet-stream", new byte[10]) {
+			@Override
+			public void transferTo(File dest) throws IOException {
+				throw new IOException("connection reset");
+			}
+		};
+
+		assertThrows(FileStorageException.class, () -> service.storeFile(part));
+
+		try (var files = Files.list(uploadDir)) {
+			assertEquals(0, files.count());
+		}
+	}
+
+	@Test
+	public void testStoreFilesReportsFailuresPerFile() throws Exception {
+		var broken = new MockMultipartFile("files", "broken.bin", "application/octet-stream", new byte[10]) {
+			@Override
+			public void transferTo(File dest) throws IOException {
+				throw new IOException("disk on fire");
+			}
+		};
+		List<MultipartFile> files = List.of(
+				new MockMultipartFile("files", "a.txt", "text/plain", "a".getBytes()),
+				broken,
+				new MockMultipartFile("files", "c.txt", "text/plain", "ccc".getBytes()));
+
+		var results = service.storeFiles(files);
+
+		assertEquals(List.of("a.txt", "broken.bin", "c.txt"), results.stream().map(r -> r.getFileName()).toList());
+		assertNull(results.get(0).getError());
+		assertNotNull(results.get(1).getError());
+		assertNull(results.get(2).getError());
+		assertEquals("ccc", Files.readString(uploadDir.resolve("c.txt")));
+	}
+
+	@Test
+	public void testStoreFilesOnSaturatedPoolRunsOnCaller() throws Exception {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setIoThreads(1);
+		config.setMaxConcurrentFilesPerRequest(8);
+		var saturated = new FileStorageService(config);
+		ReflectionTestUtils.setField(saturated, "hotFileCache", new HotFileCache(config));
+		ReflectionTestUtils.setField(saturated, "metadataService", metadataService);
+		ReflectionTestUtils.setField(saturated, "storage", new LocalStorageBackend(uploadDir, config.getFsyncPolicy()));
+		List<MultipartFile> files = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			files.add(new MockMultipartFile("files", i + ".txt", "text/plain", ("file " + i).getBytes()));
+		}
+
+		try {
+			var results = saturated.storeFiles(files);
+
+			for (int i = 0; i < 8; i++) {
+				assertNull(results.get(i).getError());
+				assertEquals("file " + i, Files.readString(uploadDir.resolve(i + ".txt")));
+			}
+		} finally {
+			saturated.shutdown();
+		}
+	}
+
+	@Test
+	public void testStoreFilesAfterShutdownRunsOnCaller() throws Exception {
+		service.shutdown();
+		List<MultipartFile> files = List.of(new MockMultipartFile("files", "late.txt", "text/plain", "late".getBytes()));
+
+		var results = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> service.storeFiles(files));
+
+		assertNull(results.get(0).getError());
+		assertEquals("late", Files.readString(uploadDir.resolve("late.txt")));
+	}
+
+	@Test
+	public void testSweepPartialsDeletesOnlyAbandonedStagingFiles() throws Exception {
+		Path abandoned = Files.writeString(uploadDir.resolve(".upload-1.part"), "crashed");
+		Files.setLastModifiedTime(abandoned, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+		Path inFlight = Files.writeString(uploadDir.resolve(".upload-2.part"), "uploading");
+		Path stored = Files.writeString(uploadDir.resolve("old.part"), "a stored file");
+		Files.setLastModifiedTime(stored, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+		service.sweepPartials();
+
+		assertFalse(Files.exists(abandoned));
+		assertTrue(Files.exists(inFlight));
+		assertTrue(Files.exists(stored));
+	}
+
+	private static MockHttpServletRequest multipartRequest(byte[]... parts) throws IOException {
+		var body = new ByteArrayOutputStream();
+		for (byte[] part : parts) {
+			body.write(("--" + BOUNDARY + "\r\n").getBytes(StandardCharsets.US_ASCII));
+			body.write(part);
+			body.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+		}
+		body.write(("--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+		var request = new MockHttpServletRequest("POST", "/api/file/v1/uploadFileStream");
+		request.setContentType("multipart/form-data; boundary=" + BOUNDARY);
+		request.setContent(body.toByteArray());
+		return request;
+	}
+
+	private static byte[] formField(String name, String value) {
+		return ("Content-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static byte[] filePart(String name, String filename, byte[] content) throws IOException {
+		var part = new ByteArrayOutputStream();
+		part.write(("Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + filename + "\"\r\n"
+				+ "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+		part.write(content);
+		return part.toByteArray();
+	}
+}
@@ -0,0 +1,108 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.services.HotFileCache;
+
+class HotFileCacheTest {
+
+	@TempDir
+	Path uploadDir;
+
+	HotFileCache cache;
+
+	@BeforeEach
+	void setUp() {
+		var config = new FileStorageConfig();
+		config.setHotCacheSize(DataSize.ofKilobytes(64));
+		config.setHotCacheMaxFileSize(DataSize.ofKilobytes(8));
+		cache = new HotFileCache(config);
+	}
+
+	@Test
+	void testServesFromMemoryUntilHashChanges() throws Exception {
+		Path file = Files.writeString(uploadDir.resolve("logo.svg"), "<svg/>");
+		var metadata = metadata("logo.svg", "h1", 6);
+
+		assertEquals("<svg/>", text(cache.get(metadata, () -> Files.newInputStream(file))));
+
+		Files.writeString(file, "<svg>new</svg>");
+		assertEquals("<svg/>", text(cache.get(metadata, () -> Files.newInputStream(file))));
+
+		assertEquals("<svg>new</svg>", text(cache.get(metadata("logo.svg", "h2", 14), () -> Files.newInputStream(file))));
+	}
+
+	@Test
+	void testInvalidateDropsEntry() throws Exception {
+		Path file = Files.writeString(uploadDir.resolve("template.txt"), "v1");
+		var metadata = metadata("template.txt", "h1", 2);
+		cache.get(metadata, () -> Files.newInputStream(file));
+
+		Files.writeString(file, "v2");
+		cache.invalidate("template.txt");
+
+		assertEquals("v2", text(cache.get(metadata, () -> Files.newInputStream(file))));
+	}
+
+	@Test
+	void testLoadDoesNotBlockTheEntry() throws Exception {
+		Path file = Files.writeString(uploadDir.resolve("slow.txt"), "slow");
+		var loading = new CountDownLatch(1);
+		var release = new CountDownLatch(1);
+		var load = CompletableFuture.supplyAsync(() -> text(cache.get(metadata("slow.txt", "h1", 4), () -> {
+			loading.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return Files.newInputStream(file);
+		})));
+		assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+		// Would wait for the slow read if it ran inside the map's compute.
+		CompletableFuture.runAsync(() -> cache.invalidate("slow.txt")).get(1, TimeUnit.SECONDS);
+
+		release.countDown();
+		assertEquals("slow", load.get(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void testSkipsLargeAndUnhashedFiles() throws Exception {
+		Path file = Files.write(uploadDir.resolve("big.bin"), new byte[16 * 1024]);
+
+		assertNull(cache.get(metadata("big.bin", "h1", 16 * 1024), () -> Files.newInputStream(file)));
+		assertNull(cache.get(metadata("big.bin", null, 10), () -> Files.newInputStream(file)));
+	}
+
+	private static StoredFile metadata(String filename, String hash, long size) {
+		var metadata = new StoredFile();
+		metadata.setFileName(filename);
+		metadata.setHash(hash);
+		metadata.setSize(size);
+		return metadata;
+	}
+
+	private static String text(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.get(bytes);
+		return StandardCharsets.UTF_8.decode(ByteBuffer.wrap(bytes)).toString();
+	}
+}
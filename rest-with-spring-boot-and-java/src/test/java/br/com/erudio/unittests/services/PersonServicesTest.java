@@ -1,8 +1,12 @@
 package br.com.erudio.unittests.services;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -14,10 +18,17 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Direction;
+import org.springframework.data.jpa.domain.Specification;
 
 import br.com.erudio.data.vo.v1.PersonVO;
 import br.com.erudio.model.Person;
 import br.com.erudio.repositories.PersonRepository;
+import br.com.erudio.services.FilterCompiler;
 import br.com.erudio.services.PersonServices;
 import br.com.erudio.unittests.mapper.mocks.MockPerson;
 
@@ -32,6 +43,9 @@ class PersonServicesTest {
 	
 	@Mock
 	PersonRepository repository;
+	
+	@Mock
+	FilterCompiler filterCompiler;
 
 	@BeforeEach
 	void setUpMocks() throws Exception {
@@ -65,6 +79,44 @@ class PersonServicesTest {
 	}
 
 
+	@Test
+	void testFindAllCompact() {
+		List<Person> list = input.mockEntityList();
+		Pageable pageable = PageRequest.of(0, 14, Sort.by(Direction.ASC, "firstName"));
+		when(repository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(list, pageable, list.size()));
+		
+		var result = service.findAllCompact(pageable, null);
+		
+		assertNotNull(result);
+		assertEquals(14, result.getContent().size());
+		assertEquals(14, result.getTotalElements());
+		assertEquals(1, result.getTotalPages());
+		
+		var personOne = result.getContent().get(1);
+		
+		assertEquals(Long.valueOf(1L), personOne.getKey());
+		assertTrue(personOne.getLinks().isEmpty());
+		assertEquals("Addres Test1", personOne.getAddress());
+		assertEquals("First Name Test1", personOne.getFirstName());
+		assertEquals("Last Name Test1", personOne.getLastName());
+		assertEquals("Female", personOne.getGender());
+	}
+
+	@Test
+	void testFindAllCompactAppliesFilter() {
+		List<Person> list = input.mockEntityList().subList(1, 2);
+		Pageable pageable = PageRequest.of(0, 14, Sort.by(Direction.ASC, "firstName"));
+		Specification<Person> spec = (root, query, cb) -> null;
+		when(filterCompiler.compile(eq(Person.class), anyMap(), eq("gender == 'Female'"), eq(pageable))).thenReturn(spec);
+		when(repository.findAll(any(Specification.class), eq(pageable))).thenReturn(new PageImpl<>(List.of(), pageable, 0));
+		when(repository.findAll(spec, pageable)).thenReturn(new PageImpl<>(list, pageable, list.size()));
+		
+		var result = service.findAllCompact(pageable, "gender == 'Female'");
+		
+		assertEquals(1, result.getContent().size());
+		assertEquals("First Name Test1", result.getContent().get(0).getFirstName());
+	}
+
 	@Test
 	void testCreate() throws Exception {
 		Person entity = input.mockEntity(1);
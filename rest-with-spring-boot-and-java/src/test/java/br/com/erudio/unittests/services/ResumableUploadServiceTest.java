@@ -0,0 +1,151 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.exceptions.FileStorageException;
+import br.com.erudio.exceptions.UploadOffsetConflictException;
+import br.com.erudio.model.UploadSession;
+import br.com.erudio.repositories.UploadSessionRepository;
+import br.com.erudio.services.FileMetadataService;
+import br.com.erudio.services.FileStorageService;
+import br.com.erudio.services.HotFileCache;
+import br.com.erudio.services.storage.LocalStorageBackend;
+import br.com.erudio.services.ResumableUploadService;
+
+@ExtendWith(MockitoExtension.class)
+class ResumableUploadServiceTest {
+
+	@TempDir
+	Path uploadDir;
+
+	@Mock
+	UploadSessionRepository repository;
+
+	@Mock
+	FileMetadataService metadataService;
+
+	ResumableUploadService service;
+
+	byte[] content = new byte[300_000];
+
+	@BeforeEach
+	void setUp() {
+		new Random(7).nextBytes(content);
+
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+
+		service = new ResumableUploadService(config);
+		ReflectionTestUtils.setField(service, "repository", repository);
+		var fileStorageService = new FileStorageService(config);
+		ReflectionTestUtils.setField(fileStorageService, "hotFileCache", new HotFileCache(config));
+		ReflectionTestUtils.setField(fileStorageService, "metadataService", metadataService);
+		ReflectionTestUtils.setField(fileStorageService, "storage", new LocalStorageBackend(uploadDir, config.getFsyncPolicy()));
+		ReflectionTestUtils.setField(service, "fileStorageService", fileStorageService);
+
+		when(repository.save(any(UploadSession.class))).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void testResumeAfterInterruptedChunk() throws Exception {
+		var session = service.create("movie.mp4", content.length);
+		when(repository.findById(session.getId())).thenReturn(Optional.of(session));
+		when(repository.advanceOffset(anyString(), anyLong(), anyLong(), any(), any())).thenAnswer(invocation -> {
+			session.setUploadOffset(invocation.getArgument(2));
+			session.setDigestState(invocation.getArgument(3));
+			return 1;
+		});
+
+		// The connection drops after 100 000 bytes of the first chunk.
+		assertThrows(FileStorageException.class,
+				() -> service.append(session.getId(), 0, failingAfter(100_000)));
+		assertEquals(100_000L, session.getUploadOffset());
+
+		assertThrows(UploadOffsetConflictException.class,
+				() -> service.append(session.getId(), 0, new ByteArrayInputStream(content)));
+
+		var result = service.append(session.getId(), 100_000,
+				new ByteArrayInputStream(Arrays.copyOfRange(content, 100_000, content.length)));
+
+		assertEquals((long) content.length, result.getUploadOffset());
+		assertArrayEquals(content, Files.readAllBytes(uploadDir.resolve("movie.mp4")));
+		assertFalse(Files.exists(uploadDir.resolve(".uploads").resolve(session.getId() + ".part")));
+		verify(repository).delete(session);
+		// Hashed chunk by chunk across the interruption.
+		verify(metadataService).record(eq("movie.mp4"), eq(HexFormat.of().formatHex(
+				MessageDigest.getInstance("SHA-256").digest(content))), eq((long) content.length), isNull());
+	}
+
+	@Test
+	void testLostOffsetRaceIsAConflict() throws Exception {
+		var session = service.create("movie.mp4", content.length);
+		when(repository.findById(session.getId())).thenReturn(Optional.of(session));
+		// Another node advanced the offset while this chunk was being written.
+		when(repository.advanceOffset(anyString(), anyLong(), anyLong(), any(), any())).thenReturn(0);
+
+		assertThrows(UploadOffsetConflictException.class,
+				() -> service.append(session.getId(), 0, new ByteArrayInputStream(content)));
+
+		verify(repository, never()).delete(session);
+		assertFalse(Files.exists(uploadDir.resolve("movie.mp4")));
+	}
+
+	@Test
+	void testEmptyUploadIsStoredWithTheEmptyHash() throws Exception {
+		service.create("empty.txt", 0);
+
+		verify(metadataService).record(eq("empty.txt"), eq(HexFormat.of().formatHex(
+				MessageDigest.getInstance("SHA-256").digest())), eq(0L), isNull());
+		assertEquals(0, Files.size(uploadDir.resolve("empty.txt")));
+	}
+
+	private InputStream failingAfter(int bytes) {
+		var delegate = new ByteArrayInputStream(Arrays.copyOf(content, bytes));
+		return new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new UnsupportedOperationException();
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) throws IOException {
+				int read = delegate.read(b, off, len);
+				if (read == -1) {
+					throw new IOException("Connection reset by peer");
+				}
+				return read;
+			}
+		};
+	}
+}
@@ -0,0 +1,135 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import br.com.erudio.services.storage.S3StorageBackend;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+class S3StorageBackendTest {
+
+	@TempDir
+	Path uploadDir;
+
+	// The SDK's convenience overloads are default methods that build the
+	// request and delegate, so they have to run for real.
+	S3Client s3 = mock(S3Client.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+
+	byte[] content = new byte[25];
+
+	@BeforeEach
+	void setUp() {
+		new Random(11).nextBytes(content);
+		doReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build())
+			.when(s3).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+		doReturn(CompleteMultipartUploadResponse.builder().build())
+			.when(s3).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+	}
+
+	@Test
+	void testLargeFileIsUploadedInParts() throws Exception {
+		var uploaded = new ByteArrayOutputStream();
+		doAnswer(invocation -> {
+			UploadPartRequest request = invocation.getArgument(0);
+			RequestBody body = invocation.getArgument(1);
+			try (var in = body.contentStreamProvider().newStream()) {
+				uploaded.write(in.readAllBytes());
+			}
+			return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+		}).when(s3).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+
+		var backend = new S3StorageBackend(s3, "bucket", 10, null, 0);
+		Path source = Files.write(uploadDir.resolve("staged.part"), content);
+		backend.put("movie.mp4", source);
+
+		var complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+		verify(s3).completeMultipartUpload(complete.capture());
+		assertEquals("upload-1", complete.getValue().uploadId());
+		assertEquals(3, complete.getValue().multipartUpload().parts().size());
+		assertEquals("etag-3", complete.getValue().multipartUpload().parts().get(2).eTag());
+		assertArrayEquals(content, uploaded.toByteArray());
+		assertFalse(Files.exists(source));
+	}
+
+	@Test
+	void testFailedPartAbortsUpload() throws Exception {
+		doThrow(S3Exception.builder().message("slow down").statusCode(503).build())
+			.when(s3).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+		doReturn(null).when(s3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+
+		var backend = new S3StorageBackend(s3, "bucket", 10, null, 0);
+		Path source = Files.write(uploadDir.resolve("staged.part"), content);
+
+		assertThrows(S3Exception.class, () -> backend.put("movie.mp4", source));
+		verify(s3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+	}
+
+	@Test
+	void testOpenRangeUsesRangedGet() throws Exception {
+		doReturn(new ResponseInputStream<>(GetObjectResponse.builder().build(),
+				AbortableInputStream.create(new ByteArrayInputStream(content, 10, 10))))
+			.when(s3).getObject(any(GetObjectRequest.class));
+
+		var backend = new S3StorageBackend(s3, "bucket", 10, null, 0);
+		try (var in = backend.open("movie.mp4", 10, 19)) {
+			in.readAllBytes();
+		}
+
+		var request = ArgumentCaptor.forClass(GetObjectRequest.class);
+		verify(s3).getObject(request.capture());
+		assertEquals("bytes=10-19", request.getValue().range());
+	}
+
+	@Test
+	void testWriteThroughCacheServesLocalCopy() throws Exception {
+		doReturn(PutObjectResponse.builder().build())
+			.when(s3).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+
+		var backend = new S3StorageBackend(s3, "bucket", 1024, uploadDir.resolve(".cache"), 1024 * 1024);
+		backend.put("ab/cd/abcd", Files.write(uploadDir.resolve("staged.part"), content));
+
+		Path cached = backend.localFile("ab/cd/abcd");
+		assertArrayEquals(content, Files.readAllBytes(cached));
+		try (var in = backend.open("ab/cd/abcd", 20, 24)) {
+			assertEquals(5, in.readAllBytes().length);
+		}
+		verify(s3, never()).getObject(any(GetObjectRequest.class));
+	}
+}
@@ -0,0 +1,127 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import br.com.erudio.config.FileStorageConfig.FsyncPolicy;
+import br.com.erudio.model.ColdObject;
+import br.com.erudio.repositories.ColdObjectRepository;
+import br.com.erudio.services.storage.LocalStorageBackend;
+import br.com.erudio.services.storage.TieredStorageBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TieredStorageBackendTest {
+
+	@TempDir
+	Path hotDir;
+
+	@TempDir
+	Path coldDir;
+
+	ColdObjectRepository repository = mock(ColdObjectRepository.class);
+	SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	TieredStorageBackend storage;
+
+	byte[] content = "all work and no play makes jack a dull boy\n".repeat(1000).getBytes(StandardCharsets.UTF_8);
+
+	@BeforeEach
+	void setUp() throws Exception {
+		storage = new TieredStorageBackend(new LocalStorageBackend(hotDir, FsyncPolicy.FAST),
+				new LocalStorageBackend(coldDir, FsyncPolicy.FAST), coldDir, repository, meterRegistry);
+		storage.loadColdIndex();
+		storage.put("notes.txt", write(content));
+	}
+
+	@Test
+	void testArchivedObjectIsReadTransparently() throws Exception {
+		assertTrue(storage.archive("notes.txt", true, Long.MAX_VALUE));
+
+		assertTrue(storage.isCold("notes.txt"));
+		assertFalse(Files.exists(hotDir.resolve("notes.txt")));
+		assertTrue(Files.size(coldDir.resolve("notes.txt.gz")) < content.length / 10);
+		assertNull(storage.localFile("notes.txt"));
+		assertEquals(content.length, storage.stat("notes.txt").orElseThrow().size());
+		assertTrue(storage.getBytesSaved() > 0);
+		assertEquals(1, meterRegistry.get("file.tiering.archived").counter().count());
+
+		try (InputStream in = storage.open("notes.txt")) {
+			assertArrayEquals(content, in.readAllBytes());
+		}
+		try (InputStream in = storage.open("notes.txt", 1000, 1099)) {
+			assertArrayEquals(Arrays.copyOfRange(content, 1000, 1100), in.readAllBytes());
+		}
+		assertEquals(2, meterRegistry.get("file.tiering.cold.reads").timer().count());
+	}
+
+	@Test
+	void testRecentlyReadObjectStaysHot() throws Exception {
+		long idleSince = System.currentTimeMillis() - 1000;
+		storage.open("notes.txt").close();
+
+		assertFalse(storage.archive("notes.txt", true, idleSince));
+		assertTrue(Files.exists(hotDir.resolve("notes.txt")));
+	}
+
+	@Test
+	void testPutBringsObjectBackHot() throws Exception {
+		storage.archive("notes.txt", true, Long.MAX_VALUE);
+
+		byte[] updated = "fresh".getBytes(StandardCharsets.UTF_8);
+		storage.put("notes.txt", write(updated));
+
+		assertFalse(storage.isCold("notes.txt"));
+		assertFalse(Files.exists(coldDir.resolve("notes.txt.gz")));
+		assertArrayEquals(updated, Files.readAllBytes(storage.localFile("notes.txt")));
+		verify(repository).deleteById("notes.txt");
+	}
+
+	@Test
+	void testFailedRowSaveDiscardsColdCopy() throws Exception {
+		when(repository.save(any(ColdObject.class))).thenThrow(new IllegalStateException("connection lost"));
+
+		assertThrows(IllegalStateException.class, () -> storage.archive("notes.txt", true, Long.MAX_VALUE));
+
+		assertFalse(storage.isCold("notes.txt"));
+		assertFalse(Files.exists(coldDir.resolve("notes.txt.gz")));
+		assertArrayEquals(content, Files.readAllBytes(hotDir.resolve("notes.txt")));
+	}
+
+	@Test
+	void testReadDuringArchiveKeepsObjectHotAndDiscardsCopy() throws Exception {
+		// A download arrives after the cold copy is saved, before the swap.
+		when(repository.save(any(ColdObject.class))).thenAnswer(invocation -> {
+			storage.touch("notes.txt");
+			return invocation.getArgument(0);
+		});
+		Thread.sleep(5);
+
+		assertFalse(storage.archive("notes.txt", true, System.currentTimeMillis()));
+
+		assertFalse(storage.isCold("notes.txt"));
+		assertFalse(Files.exists(coldDir.resolve("notes.txt.gz")));
+		assertTrue(Files.exists(hotDir.resolve("notes.txt")));
+		verify(repository).deleteById("notes.txt");
+	}
+
+	private Path write(byte[] bytes) throws Exception {
+		return Files.write(Files.createTempFile(coldDir, "upload-", ".part"), bytes);
+	}
+}
@@ -0,0 +1,61 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import br.com.erudio.config.FileStorageConfig;
+import br.com.erudio.exceptions.ServiceUnavailableException;
+import br.com.erudio.services.UploadAdmissionService;
+
+class UploadAdmissionServiceTest {
+
+	@TempDir
+	Path uploadDir;
+
+	@Test
+	void testInFlightBudgetIsEnforcedAndReleased() {
+		var admission = new UploadAdmissionService(config(DataSize.ofMegabytes(300), DataSize.ofBytes(0)));
+		long upload = DataSize.ofMegabytes(200).toBytes();
+
+		admission.reserve(upload);
+		var rejected = assertThrows(ServiceUnavailableException.class, () -> admission.reserve(upload));
+		assertEquals(Duration.ofSeconds(7), rejected.getRetryAfter());
+
+		admission.release(upload);
+		assertDoesNotThrow(() -> admission.reserve(upload));
+		assertEquals(upload, admission.getReservedBytes());
+	}
+
+	@Test
+	void testSingleUploadLargerThanBudgetIsAdmittedWhenIdle() {
+		var admission = new UploadAdmissionService(config(DataSize.ofMegabytes(1), DataSize.ofBytes(0)));
+
+		assertDoesNotThrow(() -> admission.reserve(DataSize.ofMegabytes(2).toBytes()));
+	}
+
+	@Test
+	void testRejectsWhenVolumeWouldDropBelowMinFreeSpace() {
+		var admission = new UploadAdmissionService(config(DataSize.ofTerabytes(1024), DataSize.ofTerabytes(1024)));
+
+		assertThrows(ServiceUnavailableException.class, () -> admission.reserve(1));
+		assertThrows(ServiceUnavailableException.class, () -> admission.checkFreeSpace(1));
+		assertEquals(0, admission.getReservedBytes());
+	}
+
+	private FileStorageConfig config(DataSize maxInFlight, DataSize minFreeSpace) {
+		var config = new FileStorageConfig();
+		config.setUploadDir(uploadDir.toString());
+		config.setMaxInFlightUploadBytes(maxInFlight);
+		config.setMinFreeSpace(minFreeSpace);
+		config.setUploadRetryAfter(Duration.ofSeconds(7));
+		return config;
+	}
+}
@@ -0,0 +1,103 @@
+package br.com.erudio.unittests.services;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.model.StoredFile;
+import br.com.erudio.services.FileMetadataService;
+import br.com.erudio.services.FileStorageService;
+import br.com.erudio.services.ZipArchiveService;
+
+@ExtendWith(MockitoExtension.class)
+class ZipArchiveServiceTest {
+
+	@TempDir
+	Path uploadDir;
+
+	@Mock
+	FileMetadataService metadataService;
+
+	@Mock
+	FileStorageService fileStorageService;
+
+	@InjectMocks
+	ZipArchiveService service;
+
+	@Test
+	void testWriteDeflatesTextAndStoresCompressedFiles() throws Exception {
+		byte[] text = "hello hello hello hello".repeat(100).getBytes();
+		byte[] image = new byte[50_000];
+		new Random(3).nextBytes(image);
+		Files.write(uploadDir.resolve("notes.txt"), text);
+		Files.write(uploadDir.resolve("photo.JPG"), image);
+		when(fileStorageService.open(any(StoredFile.class)))
+			.thenAnswer(invocation -> Files.newInputStream(uploadDir.resolve(invocation.<StoredFile>getArgument(0).getFileName())));
+
+		var out = new ByteArrayOutputStream();
+		service.write(List.of(storedFile("notes.txt", text.length), storedFile("photo.JPG", image.length)), out);
+
+		try (var zip = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+			ZipEntry entry = zip.getNextEntry();
+			assertEquals("notes.txt", entry.getName());
+			assertEquals(ZipEntry.DEFLATED, entry.getMethod());
+			assertArrayEquals(text, zip.readAllBytes());
+
+			entry = zip.getNextEntry();
+			assertEquals("photo.JPG", entry.getName());
+			assertEquals(ZipEntry.STORED, entry.getMethod());
+			assertArrayEquals(image, zip.readAllBytes());
+
+			assertNull(zip.getNextEntry());
+		}
+	}
+
+	@Test
+	void testSelectKeepsRequestOrderWithoutDuplicates() {
+		when(metadataService.find("b.txt")).thenReturn(Optional.of(storedFile("b.txt")));
+		when(metadataService.find("a.txt")).thenReturn(Optional.of(storedFile("a.txt")));
+
+		var selected = service.select(List.of("b.txt", "a.txt", "b.txt"), null);
+
+		assertEquals(List.of("b.txt", "a.txt"), selected.stream().map(StoredFile::getFileName).toList());
+	}
+
+	@Test
+	void testSelectRequiresFilesOrPrefix() {
+		assertThrows(InvalidRequestParameterException.class, () -> service.select(List.of(), " "));
+	}
+
+	private static StoredFile storedFile(String filename) {
+		return storedFile(filename, 0);
+	}
+
+	private static StoredFile storedFile(String filename, long size) {
+		var storedFile = new StoredFile();
+		storedFile.setFileName(filename);
+		storedFile.setSize(size);
+		storedFile.setUpdatedAt(new Date());
+		return storedFile;
+	}
+}
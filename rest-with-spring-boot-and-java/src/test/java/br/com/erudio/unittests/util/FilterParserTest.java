@@ -0,0 +1,92 @@
+package br.com.erudio.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.util.filter.FilterField;
+import br.com.erudio.util.filter.FilterNode;
+import br.com.erudio.util.filter.FilterOperator;
+import br.com.erudio.util.filter.FilterParser;
+import br.com.erudio.util.filter.FilterPlan;
+
+class FilterParserTest {
+
+	private static final Map<String, FilterField> FIELDS = FilterField.of(
+			FilterField.indexed("author", String.class),
+			FilterField.unindexed("title", String.class),
+			FilterField.indexed("price", Double.class),
+			FilterField.indexed("launchDate", Date.class),
+			FilterField.unindexed("enabled", Boolean.class));
+
+	@Test
+	void testParseAndShape() {
+		var node = FilterParser.parse("gender==F;lastName=like=Sil*;enabled==true");
+
+		assertTrue(node instanceof FilterNode.And);
+		assertEquals("(gender==?;lastName=like=?;enabled==?)", node.shape());
+		assertEquals(List.of("F", "Sil*", "true"), node.arguments());
+	}
+
+	@Test
+	void testSameShapeForDifferentValues() {
+		var first = FilterParser.parse("(price<20,price=gt=80);author=in=(Crockford,'Robert C. Martin')");
+		var second = FilterParser.parse("(price=lt=5,price>99.5);author=in=(\"Kent Beck\",Fowler)");
+
+		assertEquals(first.shape(), second.shape());
+		assertEquals("((price=lt=?,price=gt=?);author=in=(?,?))", first.shape());
+		assertEquals(List.of("20", "80", "Crockford", "Robert C. Martin"), first.arguments());
+		var or = (FilterNode.Or) ((FilterNode.And) first).children().get(0);
+		assertEquals(FilterOperator.LESS_THAN, ((FilterNode.Comparison) or.children().get(0)).operator());
+	}
+
+	@Test
+	void testSyntaxErrors() {
+		assertThrows(InvalidRequestParameterException.class, () -> FilterParser.parse("author"));
+		assertThrows(InvalidRequestParameterException.class, () -> FilterParser.parse("author=="));
+		assertThrows(InvalidRequestParameterException.class, () -> FilterParser.parse("(author==a"));
+		assertThrows(InvalidRequestParameterException.class, () -> FilterParser.parse("author=='open"));
+		assertThrows(InvalidRequestParameterException.class, () -> FilterParser.parse("author==a)"));
+		assertThrows(InvalidRequestParameterException.class, () -> FilterParser.parse("(".repeat(20) + "a==b" + ")".repeat(20)));
+	}
+
+	@Test
+	void testCompileRejectsUnknownFieldsAndOperators() {
+		assertThrows(InvalidRequestParameterException.class,
+				() -> FilterPlan.compile(FilterParser.parse("isbn==1"), FIELDS));
+		assertThrows(InvalidRequestParameterException.class,
+				() -> FilterPlan.compile(FilterParser.parse("price=like=1*"), FIELDS));
+		assertThrows(InvalidRequestParameterException.class,
+				() -> FilterPlan.compile(FilterParser.parse("enabled=gt=false"), FIELDS));
+	}
+
+	@Test
+	void testBindConvertsValues() {
+		var plan = FilterPlan.compile(FilterParser.parse("price=ge=10;launchDate==2017-11-07;enabled==true"), FIELDS);
+
+		assertNotNull(plan.bind(List.of("10.5", "2017-11-07", "true"), 12, 50));
+		assertThrows(InvalidRequestParameterException.class, () -> plan.bind(List.of("cheap", "2017-11-07", "true"), 12, 50));
+		assertThrows(InvalidRequestParameterException.class, () -> plan.bind(List.of("10", "07/11/2017", "true"), 12, 50));
+		assertThrows(InvalidRequestParameterException.class, () -> plan.bind(List.of("10", "2017-11-07", "yes"), 12, 50));
+	}
+
+	@Test
+	void testCostGuardOnLeadingWildcard() {
+		var plan = FilterPlan.compile(FilterParser.parse("title=like=?"), FIELDS);
+
+		assertNotNull(plan.bind(List.of("Clean*"), 500, 50));
+		assertNotNull(plan.bind(List.of("*Code"), 50, 50));
+		assertThrows(InvalidRequestParameterException.class, () -> plan.bind(List.of("*Code"), 51, 50));
+
+		var indexed = FilterPlan.compile(FilterParser.parse("author=like=?"), FIELDS);
+		assertNotNull(indexed.bind(List.of("*Martin"), 500, 50));
+	}
+}
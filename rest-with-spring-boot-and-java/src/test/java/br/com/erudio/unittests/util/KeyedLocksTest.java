@@ -0,0 +1,66 @@
+package br.com.erudio.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.erudio.util.KeyedLocks;
+
+class KeyedLocksTest {
+
+	KeyedLocks locks = new KeyedLocks();
+
+	@Test
+	void testSameKeyWaits() throws Exception {
+		CompletableFuture<Void> other;
+		try (var held = locks.lock("a.txt")) {
+			other = CompletableFuture.runAsync(() -> locks.lock("a.txt").close());
+
+			assertThrows(TimeoutException.class, () -> other.get(200, TimeUnit.MILLISECONDS));
+		}
+		other.get(5, TimeUnit.SECONDS);
+		assertEquals(0, locks.size());
+	}
+
+	@Test
+	void testOtherKeysDoNotWait() throws Exception {
+		try (var held = locks.lock("a.txt")) {
+			CompletableFuture.runAsync(() -> locks.lock("b.txt").close()).get(1, TimeUnit.SECONDS);
+
+			assertEquals(1, locks.size());
+		}
+		assertEquals(0, locks.size());
+	}
+
+	@Test
+	void testReentrant() {
+		try (var outer = locks.lock("a.txt"); var inner = locks.lock("a.txt")) {
+			assertEquals(1, locks.size());
+		}
+		assertEquals(0, locks.size());
+	}
+
+	@Test
+	void testManyThreadsLeaveNoEntries() throws Exception {
+		int[] counter = new int[1];
+		var tasks = new CompletableFuture<?>[8];
+		for (int i = 0; i < tasks.length; i++) {
+			tasks[i] = CompletableFuture.runAsync(() -> {
+				for (int j = 0; j < 1000; j++) {
+					try (var held = locks.lock("shared")) {
+						counter[0]++;
+					}
+				}
+			});
+		}
+		CompletableFuture.allOf(tasks).get(10, TimeUnit.SECONDS);
+
+		assertEquals(8000, counter[0]);
+		assertEquals(0, locks.size());
+	}
+}
@@ -0,0 +1,150 @@
+package br.com.erudio.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+
+import br.com.erudio.util.MultipartStream;
+
+class MultipartStreamTest {
+
+	private static final String BOUNDARY = "----erudio-boundary";
+
+	@Test
+	void testReadsPartsInOrder() throws Exception {
+		byte[] content = new byte[200_000];
+		new Random(7).nextBytes(content);
+		byte[] body = body("preamble\r\n",
+				part("Content-Disposition: form-data; name=\"description\"", "a note".getBytes()),
+				part("Content-Disposition: form-data; name=\"file\"; filename=\"report.bin\"\r\nContent-Type: application/octet-stream", content));
+
+		var parts = new MultipartStream(new TrickleInputStream(body), BOUNDARY, 0, -1, -1);
+
+		var field = parts.next();
+		assertEquals("description", field.name());
+		assertFalse(field.isFile());
+		assertEquals("a note", new String(field.content().readAllBytes(), StandardCharsets.UTF_8));
+
+		var file = parts.next();
+		assertEquals("file", file.name());
+		assertEquals("report.bin", file.filename());
+		assertEquals("application/octet-stream", file.contentType());
+		assertArrayEquals(content, file.content().readAllBytes());
+
+		assertNull(parts.next());
+		assertNull(parts.next());
+	}
+
+	@Test
+	void testContentResemblingTheDelimiter() throws Exception {
+		String almostDelimiter = "\r\n--" + BOUNDARY.substring(0, BOUNDARY.length() - 1) + "X";
+		byte[] content = ("line\r\n--" + BOUNDARY.substring(0, 10) + almostDelimiter).getBytes(StandardCharsets.US_ASCII);
+		byte[] body = body("", part("Content-Disposition: form-data; name=\"f\"; filename=\"f.txt\"", content));
+
+		var parts = new MultipartStream(new TrickleInputStream(body), BOUNDARY, 0, -1, -1);
+
+		assertArrayEquals(content, parts.next().content().readAllBytes());
+		assertNull(parts.next());
+	}
+
+	@Test
+	void testSkipsUnreadParts() throws Exception {
+		byte[] body = body("",
+				part("Content-Disposition: form-data; name=\"a\"; filename=\"a.bin\"", new byte[50_000]),
+				part("Content-Disposition: form-data; name=\"b\"; filename=\"b.txt\"", "b".getBytes()));
+
+		var parts = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY, 0, -1, -1);
+
+		assertEquals("a", parts.next().name());
+		var second = parts.next();
+		assertEquals("b", second.name());
+		assertEquals("b", new String(second.content().readAllBytes(), StandardCharsets.UTF_8));
+		assertNull(parts.next());
+	}
+
+	@Test
+	void testPartOverLimit() throws Exception {
+		byte[] body = body("", part("Content-Disposition: form-data; name=\"f\"; filename=\"f.bin\"", new byte[5_000]));
+
+		var parts = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY, 0, 1_000, -1);
+		var content = parts.next().content();
+
+		assertThrows(MaxUploadSizeExceededException.class, content::readAllBytes);
+	}
+
+	@Test
+	void testBodyOverLimit() throws Exception {
+		byte[] body = body("", part("Content-Disposition: form-data; name=\"f\"; filename=\"f.bin\"", new byte[100_000]));
+
+		var parts = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY, 0, -1, 50_000);
+
+		assertThrows(MaxUploadSizeExceededException.class, () -> parts.next().content().readAllBytes());
+	}
+
+	@Test
+	void testTruncatedBody() throws Exception {
+		byte[] body = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"f\"; filename=\"f.bin\"\r\n\r\ncut")
+				.getBytes(StandardCharsets.US_ASCII);
+
+		var parts = new MultipartStream(new ByteArrayInputStream(body), BOUNDARY, 0, -1, -1);
+		var content = parts.next().content();
+
+		assertThrows(MultipartException.class, content::readAllBytes);
+	}
+
+	@Test
+	void testBoundary() {
+		assertEquals(BOUNDARY, MultipartStream.boundary("multipart/form-data; boundary=" + BOUNDARY));
+		assertEquals("a b", MultipartStream.boundary("multipart/form-data; boundary=\"a b\""));
+		assertNull(MultipartStream.boundary("multipart/form-data"));
+		assertNull(MultipartStream.boundary(null));
+		assertNull(MultipartStream.boundary("application/json"));
+	}
+
+	private static byte[] body(String preamble, byte[]... parts) throws IOException {
+		var body = new ByteArrayOutputStream();
+		body.write(preamble.getBytes(StandardCharsets.US_ASCII));
+		for (byte[] part : parts) {
+			body.write(("--" + BOUNDARY + "\r\n").getBytes(StandardCharsets.US_ASCII));
+			body.write(part);
+			body.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+		}
+		body.write(("--" + BOUNDARY + "--\r\nepilogue").getBytes(StandardCharsets.US_ASCII));
+		return body.toByteArray();
+	}
+
+	private static byte[] part(String headers, byte[] content) throws IOException {
+		var part = new ByteArrayOutputStream();
+		part.write((headers + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+		part.write(content);
+		return part.toByteArray();
+	}
+
+	/** Hands out a few bytes per read, so delimiters and headers arrive split. */
+	private static class TrickleInputStream extends FilterInputStream {
+
+		private final Random random = new Random(11);
+
+		TrickleInputStream(byte[] content) {
+			super(new ByteArrayInputStream(content));
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			return super.read(b, off, Math.min(len, 1 + random.nextInt(13)));
+		}
+	}
+}
@@ -0,0 +1,36 @@
+package br.com.erudio.unittests.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import br.com.erudio.exceptions.InvalidRequestParameterException;
+import br.com.erudio.util.SparseFieldset;
+
+class SparseFieldsetTest {
+
+	private static final List<String> FIELDS = List.of("id", "firstName", "lastName", "gender");
+
+	@Test
+	void testParseAlwaysSelectsIdFirst() {
+		assertEquals(List.of("id", "lastName", "firstName"), SparseFieldset.parse("lastName,firstName", FIELDS));
+	}
+
+	@Test
+	void testParseTrimsAndIgnoresDuplicatesAndEmptyNames() {
+		assertEquals(List.of("id", "gender"), SparseFieldset.parse(" gender ,,id,gender", FIELDS));
+	}
+
+	@Test
+	void testParseRejectsUnknownField() {
+		var e = assertThrows(InvalidRequestParameterException.class,
+				() -> SparseFieldset.parse("firstName,password", FIELDS));
+
+		assertTrue(e.getMessage().contains("'password'"));
+		assertTrue(e.getMessage().contains(FIELDS.toString()));
+	}
+}